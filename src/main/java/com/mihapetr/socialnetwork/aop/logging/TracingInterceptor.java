@@ -0,0 +1,147 @@
+package com.mihapetr.socialnetwork.aop.logging;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Times every call to the repositories, services and REST controllers, and logs a sample of them with their
+ * arguments.
+ * <p>
+ * It replaces the {@code @Around} advice of {@link LoggingAspect}, which formatted the arguments and the result of
+ * every call, and is cheap enough to stay enabled in production: a call that is not sampled costs two clock reads
+ * and a histogram update, and allocates nothing beyond the proxy's own invocation once its method has been seen.
+ * Sampled calls are only formatted when the debug level is enabled for the class, with every argument cut to a
+ * maximum length and arrays and collections reduced to their size.
+ */
+@NotGenerated
+public class TracingInterceptor implements MethodInterceptor {
+
+    /**
+     * Same join points as the pointcuts of {@link LoggingAspect}.
+     */
+    public static final String POINTCUT =
+        "(within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *))" +
+        " && (within(com.mihapetr.socialnetwork.repository..*)" +
+        " || within(com.mihapetr.socialnetwork.service..*)" +
+        " || within(com.mihapetr.socialnetwork.web.rest..*))";
+
+    public static final String METER_NAME = "method.timed";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final double sampleRate;
+
+    private final int maxArgumentLength;
+
+    private final Map<Method, Trace> traces = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry looked up on the first call of every method, since advisors are built before the registry
+     * has been configured.
+     */
+    public TracingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, ApplicationProperties.Tracing properties) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = properties.getArgumentSampleRate();
+        this.maxArgumentLength = properties.getMaxArgumentLength();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Trace trace = traces.get(method);
+        if (trace == null) {
+            trace = traces.computeIfAbsent(method, Trace::new);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            long duration = System.nanoTime() - start;
+            trace.timer.record(duration, TimeUnit.NANOSECONDS);
+            if (sampleRate > 0 && trace.log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                trace.log.debug(
+                    "{}() took {} µs with argument[s] = {} and result = {}",
+                    method.getName(),
+                    TimeUnit.NANOSECONDS.toMicros(duration),
+                    format(invocation.getArguments()),
+                    format(result)
+                );
+            }
+            return result;
+        } catch (Throwable e) {
+            timer(method, e).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e instanceof IllegalArgumentException) {
+                trace.log.error("Illegal argument: {} in {}()", format(invocation.getArguments()), method.getName());
+            }
+            throw e;
+        }
+    }
+
+    private Timer timer(Method method, Throwable e) {
+        return Timer.builder(METER_NAME)
+            .description("Calls to the repositories, services and REST controllers.")
+            .tag("class", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .tag("exception", e == null ? "none" : e.getClass().getSimpleName())
+            .register(meterRegistry.getObject());
+    }
+
+    /**
+     * @return the arguments as {@link java.util.Arrays#toString(Object[])} would print them, each cut to the maximum
+     * length.
+     */
+    String format(Object[] arguments) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(format(arguments[i]));
+        }
+        return builder.append(']').toString();
+    }
+
+    String format(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "(size=" + collection.size() + ")";
+        }
+        String string = String.valueOf(value);
+        return string.length() <= maxArgumentLength ? string : string.substring(0, maxArgumentLength) + "...";
+    }
+
+    /**
+     * What is looked up once per method.
+     */
+    private class Trace {
+
+        private final Timer timer;
+
+        private final Logger log;
+
+        Trace(Method method) {
+            this.timer = timer(method, null);
+            this.log = LoggerFactory.getLogger(method.getDeclaringClass());
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.mihapetr.socialnetwork.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +18,72 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Feed feed = new Feed();
+
+    private final Media media = new Media();
+
+    private final Websocket websocket = new Websocket();
+
+    private final Cache cache = new Cache();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final RequestCost requestCost = new RequestCost();
+
+    private final Tracing tracing = new Tracing();
+
+    private final EngagementStats engagementStats = new EngagementStats();
+
+    private final Search search = new Search();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Feed getFeed() {
+        return feed;
+    }
+
+    public Media getMedia() {
+        return media;
+    }
+
+    public Websocket getWebsocket() {
+        return websocket;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public RequestCost getRequestCost() {
+        return requestCost;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public EngagementStats getEngagementStats() {
+        return engagementStats;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +98,518 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Feed {
+
+        /**
+         * Authors with more friends than this are not fanned out on write; their posts are pulled on read.
+         */
+        private int fanoutThreshold = 5000;
+
+        /**
+         * How many recent posts of a new friend are copied into the timeline when a friendship is accepted.
+         */
+        private int backfillSize = 50;
+
+        public int getFanoutThreshold() {
+            return fanoutThreshold;
+        }
+
+        public void setFanoutThreshold(int fanoutThreshold) {
+            this.fanoutThreshold = fanoutThreshold;
+        }
+
+        public int getBackfillSize() {
+            return backfillSize;
+        }
+
+        public void setBackfillSize(int backfillSize) {
+            this.backfillSize = backfillSize;
+        }
+    }
+
+    public static class Media {
+
+        /**
+         * Directory of the filesystem blob store holding post images and profile pictures.
+         */
+        private String directory = "media";
+
+        /**
+         * How long clients may cache a blob; blobs are addressed by content hash so they never change.
+         */
+        private Duration cacheMaxAge = Duration.ofDays(365);
+
+        /**
+         * Longest side, in pixels, of the thumbnails generated for every uploaded image.
+         */
+        private List<Integer> thumbnailSizes = new ArrayList<>(List.of(64, 480));
+
+        /**
+         * Worker threads generating thumbnails; image decoding is CPU and memory heavy, so keep this small.
+         */
+        private int thumbnailThreads = 2;
+
+        /**
+         * Uploads waiting for thumbnails beyond this are dropped; their thumbnails are generated when first requested.
+         */
+        private int thumbnailQueueCapacity = 200;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getCacheMaxAge() {
+            return cacheMaxAge;
+        }
+
+        public void setCacheMaxAge(Duration cacheMaxAge) {
+            this.cacheMaxAge = cacheMaxAge;
+        }
+
+        public List<Integer> getThumbnailSizes() {
+            return thumbnailSizes;
+        }
+
+        public void setThumbnailSizes(List<Integer> thumbnailSizes) {
+            this.thumbnailSizes = thumbnailSizes;
+        }
+
+        public int getThumbnailThreads() {
+            return thumbnailThreads;
+        }
+
+        public void setThumbnailThreads(int thumbnailThreads) {
+            this.thumbnailThreads = thumbnailThreads;
+        }
+
+        public int getThumbnailQueueCapacity() {
+            return thumbnailQueueCapacity;
+        }
+
+        public void setThumbnailQueueCapacity(int thumbnailQueueCapacity) {
+            this.thumbnailQueueCapacity = thumbnailQueueCapacity;
+        }
+    }
+
+    public static class Websocket {
+
+        /**
+         * Messages queued for a connection while a previous send is in flight; a client falling further behind is disconnected.
+         */
+        private int sendBufferSize = 64;
+
+        /**
+         * How long a single send may wait on a client's socket before it fails and the connection is closed.
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        public int getSendBufferSize() {
+            return sendBufferSize;
+        }
+
+        public void setSendBufferSize(int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Size and time to live of the second-level cache regions not listed in {@link #regions}.
+         */
+        private final Region defaults = new Region(1000L, Duration.ofHours(1));
+
+        /**
+         * Per region overrides, keyed by region name: the entity class name, the collection role or the query cache region.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Region getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        /**
+         * Limits of one cache region; a limit left unset falls back to the defaults.
+         */
+        public static class Region {
+
+            /**
+             * Entries kept before the least recently used ones are evicted.
+             */
+            private Long maxEntries;
+
+            /**
+             * How long an entry stays cached after it was written.
+             */
+            private Duration timeToLive;
+
+            public Region() {}
+
+            Region(Long maxEntries, Duration timeToLive) {
+                this.maxEntries = maxEntries;
+                this.timeToLive = timeToLive;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Verified tokens kept, so a client's repeated requests skip signature verification; 0 disables the cache.
+         */
+        private long maxEntries = 10000;
+
+        /**
+         * Tokens expiring sooner than this are verified on every request, so an expired token is never accepted.
+         */
+        private Duration expiryMargin = Duration.ofSeconds(30);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getExpiryMargin() {
+            return expiryMargin;
+        }
+
+        public void setExpiryMargin(Duration expiryMargin) {
+            this.expiryMargin = expiryMargin;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Mails sent over one SMTP connection; a larger batch saves handshakes but holds its mails longer on failure.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Pause between two runs of the dispatcher once the outbox has been drained.
+         */
+        private Duration dispatchInterval = Duration.ofSeconds(5);
+
+        /**
+         * Attempts after which a mail is given up and left in the outbox as failed.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry, doubled for every further attempt up to {@link #maxBackoff}.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * How long claimed mails are held for a dispatcher; mails of a dispatcher that stopped are sent again after it.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(5);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getDispatchInterval() {
+            return dispatchInterval;
+        }
+
+        public void setDispatchInterval(Duration dispatchInterval) {
+            this.dispatchInterval = dispatchInterval;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+    }
+
+    public static class RequestCost {
+
+        /**
+         * Whether SQL statements, loaded entities and response bytes are measured for every REST call.
+         */
+        private boolean enabled = true;
+
+        /**
+         * SQL statements a REST call may run before it is logged as a warning; 0 disables the warning.
+         */
+        private int statementBudget = 25;
+
+        /**
+         * Whether the cost is also returned to the client in a response header.
+         */
+        private boolean responseHeader = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getStatementBudget() {
+            return statementBudget;
+        }
+
+        public void setStatementBudget(int statementBudget) {
+            this.statementBudget = statementBudget;
+        }
+
+        public boolean isResponseHeader() {
+            return responseHeader;
+        }
+
+        public void setResponseHeader(boolean responseHeader) {
+            this.responseHeader = responseHeader;
+        }
+    }
+
+    public static class Tracing {
+
+        /**
+         * Whether the calls to the repositories, services and REST controllers are timed.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Share of the calls logged with their arguments and result, from 0 to 1; only when the class logs at debug.
+         */
+        private double argumentSampleRate = 0;
+
+        /**
+         * Characters of each logged argument and result kept, the rest being cut.
+         */
+        private int maxArgumentLength = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getArgumentSampleRate() {
+            return argumentSampleRate;
+        }
+
+        public void setArgumentSampleRate(double argumentSampleRate) {
+            this.argumentSampleRate = argumentSampleRate;
+        }
+
+        public int getMaxArgumentLength() {
+            return maxArgumentLength;
+        }
+
+        public void setMaxArgumentLength(int maxArgumentLength) {
+            this.maxArgumentLength = maxArgumentLength;
+        }
+    }
+
+    public static class EngagementStats {
+
+        /**
+         * Pause between two flushes of the counted deltas; deltas not flushed yet are lost if the application crashes.
+         */
+        private Duration flushInterval = Duration.ofSeconds(10);
+
+        /**
+         * When the counters are recounted from the database, correcting deltas lost in a crash or left by rollbacks.
+         */
+        private String reconcileCron = "0 30 3 * * ?";
+
+        /**
+         * Whether the counters are also recounted once the application is ready, so a crash is recovered from at restart.
+         */
+        private boolean reconcileOnStartup = true;
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+
+        public boolean isReconcileOnStartup() {
+            return reconcileOnStartup;
+        }
+
+        public void setReconcileOnStartup(boolean reconcileOnStartup) {
+            this.reconcileOnStartup = reconcileOnStartup;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Directory of the Lucene index of posts, comments and profile statuses.
+         */
+        private String directory = "search-index";
+
+        /**
+         * Whether the index is kept in memory instead of the directory, so every application context has its own.
+         */
+        private boolean inMemory = false;
+
+        /**
+         * Pause between two updates of the index from the changes committed meanwhile; changes are searchable after it.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(1);
+
+        /**
+         * Pause between two commits of the index; changes not committed yet are lost if the application crashes.
+         */
+        private Duration commitInterval = Duration.ofMinutes(1);
+
+        /**
+         * Rows read per query when the index is updated or rebuilt.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Threads reading and indexing batches in parallel during a rebuild.
+         */
+        private int rebuildThreads = 4;
+
+        /**
+         * Whether an empty index is rebuilt from the database once the application is ready.
+         */
+        private boolean rebuildIfEmpty = true;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public boolean isInMemory() {
+            return inMemory;
+        }
+
+        public void setInMemory(boolean inMemory) {
+            this.inMemory = inMemory;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getCommitInterval() {
+            return commitInterval;
+        }
+
+        public void setCommitInterval(Duration commitInterval) {
+            this.commitInterval = commitInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getRebuildThreads() {
+            return rebuildThreads;
+        }
+
+        public void setRebuildThreads(int rebuildThreads) {
+            this.rebuildThreads = rebuildThreads;
+        }
+
+        public boolean isRebuildIfEmpty() {
+            return rebuildIfEmpty;
+        }
+
+        public void setRebuildIfEmpty(boolean rebuildIfEmpty) {
+            this.rebuildIfEmpty = rebuildIfEmpty;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
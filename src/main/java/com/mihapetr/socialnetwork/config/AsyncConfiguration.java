@@ -1,14 +1,18 @@
 package com.mihapetr.socialnetwork.config;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -25,13 +29,26 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final Environment environment;
+
+    public AsyncConfiguration(
+        TaskExecutionProperties taskExecutionProperties,
+        ApplicationProperties applicationProperties,
+        Environment environment
+    ) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
+        this.environment = environment;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadAsyncExecutor();
+        }
         LOG.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -41,6 +58,42 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * One virtual thread per task, for the {@code virtual-threads} profile: the feed fan-out mostly waits on the
+     * database, so a pool would only cap how many fan-outs are in flight. Mails are sent by the {@code MailDispatcher}
+     * on the scheduler, not on this executor.
+     */
+    @NotGenerated
+    private Executor virtualThreadAsyncExecutor() {
+        LOG.debug("Creating Async Task Executor on virtual threads");
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(taskExecutionProperties.getThreadNamePrefix());
+        executor.setVirtualThreads(true);
+        Integer concurrencyLimit = taskExecutionProperties.getSimple().getConcurrencyLimit();
+        if (concurrencyLimit != null) {
+            executor.setConcurrencyLimit(concurrencyLimit);
+        }
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * Small, bounded pool for thumbnail generation, kept apart from {@code taskExecutor} so decoding large
+     * uploads cannot starve the feed fan-out. When the queue is full new work is dropped; thumbnails that
+     * were never generated are requested again when a client first asks for them.
+     */
+    @NotGenerated
+    @Bean(name = "thumbnailExecutor")
+    public Executor thumbnailExecutor() {
+        LOG.debug("Creating Thumbnail Task Executor");
+        ApplicationProperties.Media media = applicationProperties.getMedia();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(media.getThumbnailThreads());
+        executor.setMaxPoolSize(media.getThumbnailThreads());
+        executor.setQueueCapacity(media.getThumbnailQueueCapacity());
+        executor.setThreadNamePrefix("socialnetwork-thumbnail-");
+        executor.setRejectedExecutionHandler((task, pool) -> LOG.warn("Thumbnail queue is full, dropping task"));
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -0,0 +1,53 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Plugs the Caffeine second-level cache into Hibernate and exports its hit and miss counts through Micrometer.
+ * <p>
+ * Whether Hibernate caches at all is still decided by {@code hibernate.cache.use_second_level_cache} and
+ * {@code hibernate.cache.use_query_cache}; which entities and collections are cached by their {@code @Cache}
+ * annotations.
+ */
+@NotGenerated
+@Configuration
+public class CacheConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private final CaffeineRegionFactory regionFactory;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public CacheConfiguration(ApplicationProperties applicationProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.regionFactory = new CaffeineRegionFactory(applicationProperties.getCache());
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+    }
+
+    /**
+     * Binds the regions once Hibernate has built them, which may happen in the background while the context starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics() {
+        meterRegistry.ifAvailable(registry ->
+            regionFactory.getCaches().forEach((region, cache) -> CaffeineCacheMetrics.monitor(registry, cache, region))
+        );
+        LOG.debug("Second-level cache regions: {}", regionFactory.getCaches().keySet());
+    }
+}
@@ -0,0 +1,121 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Hibernate second-level cache keeping every region in its own Caffeine cache, sized and expired as configured in
+ * {@link ApplicationProperties.Cache}.
+ * <p>
+ * The update timestamps region is the exception: it is never bounded, because a query cached after its timestamp
+ * was evicted would be served although its tables changed.
+ */
+@NotGenerated
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    private final ApplicationProperties.Cache properties;
+
+    private final Map<String, Cache<Object, Object>> caches = new ConcurrentHashMap<>();
+
+    public CaffeineRegionFactory(ApplicationProperties.Cache properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return the cache of every region built so far, by region name.
+     */
+    public Map<String, Cache<Object, Object>> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        // regions are built on demand
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        caches.values().forEach(Cache::invalidateAll);
+        caches.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig,
+        DomainDataRegionBuildingContext buildingContext
+    ) {
+        return new CaffeineStorageAccess(bounded(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(bounded(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(caches.computeIfAbsent(regionName, name -> Caffeine.newBuilder().recordStats().build()));
+    }
+
+    private Cache<Object, Object> bounded(String regionName) {
+        return caches.computeIfAbsent(regionName, name -> {
+            ApplicationProperties.Cache.Region region = properties.getRegions().get(name);
+            ApplicationProperties.Cache.Region defaults = properties.getDefaults();
+            Long maxEntries = region != null && region.getMaxEntries() != null ? region.getMaxEntries() : defaults.getMaxEntries();
+            Duration timeToLive = region != null && region.getTimeToLive() != null ? region.getTimeToLive() : defaults.getTimeToLive();
+            return Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(timeToLive).recordStats().build();
+        });
+    }
+
+    private static class CaffeineStorageAccess implements DomainDataStorageAccess {
+
+        private final Cache<Object, Object> cache;
+
+        CaffeineStorageAccess(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Rows read per round trip by the streamed list endpoints, also the entities they keep in memory at once
+    public static final int STREAM_FETCH_SIZE = 100;
+
     private Constants() {}
 }
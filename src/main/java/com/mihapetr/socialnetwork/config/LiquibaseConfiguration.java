@@ -1,5 +1,9 @@
 package com.mihapetr.socialnetwork.config;
 
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
@@ -69,7 +73,7 @@ public class LiquibaseConfiguration {
         if (!CollectionUtils.isEmpty(liquibaseProperties.getLabelFilter())) {
             liquibase.setLabelFilter(StringUtils.collectionToCommaDelimitedString(liquibaseProperties.getLabelFilter()));
         }
-        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+        liquibase.setChangeLogParameters(changeLogParameters(liquibaseProperties, applicationProperties));
         liquibase.setRollbackFile(liquibaseProperties.getRollbackFile());
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
         if (env.matchesProfiles(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE)) {
@@ -80,4 +84,17 @@ public class LiquibaseConfiguration {
         }
         return liquibase;
     }
+
+    @NotGenerated
+    private static Map<String, String> changeLogParameters(
+        LiquibaseProperties liquibaseProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        Map<String, String> parameters = new HashMap<>();
+        if (liquibaseProperties.getParameters() != null) {
+            parameters.putAll(liquibaseProperties.getParameters());
+        }
+        parameters.put("mediaDirectory", Path.of(applicationProperties.getMedia().getDirectory()).toAbsolutePath().toString());
+        return parameters;
+    }
 }
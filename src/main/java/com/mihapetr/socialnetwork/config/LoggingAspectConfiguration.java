@@ -1,6 +1,13 @@
 package com.mihapetr.socialnetwork.config;
 
 import com.mihapetr.socialnetwork.aop.logging.LoggingAspect;
+import com.mihapetr.socialnetwork.aop.logging.TracingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +21,15 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    /**
+     * A plain method interceptor rather than an {@code @Around} advice, which would allocate a join point per call.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor tracingAdvisor(ObjectProvider<MeterRegistry> meterRegistry, ApplicationProperties applicationProperties) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(TracingInterceptor.POINTCUT);
+        return new DefaultPointcutAdvisor(pointcut, new TracingInterceptor(meterRegistry, applicationProperties.getTracing()));
+    }
 }
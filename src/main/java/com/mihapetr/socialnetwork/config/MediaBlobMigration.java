@@ -0,0 +1,114 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
+import com.mihapetr.socialnetwork.service.media.FileSystemBlobStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Liquibase change moving the images stored in {@code post.image} and {@code profile.picture} into the
+ * filesystem blob store, recording their hashes in {@code image_hash} and {@code picture_hash}.
+ * <p>
+ * Rows are read one blob at a time so the migration never holds more than one image in memory.
+ */
+@NotGenerated
+public class MediaBlobMigration implements CustomTaskChange {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaBlobMigration.class);
+
+    private String directory;
+
+    private int moved;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        BlobStore blobStore = new FileSystemBlobStore(Path.of(directory));
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            moved += move(connection, blobStore, "post", "image");
+            moved += move(connection, blobStore, "profile", "picture");
+        } catch (SQLException | IOException e) {
+            throw new CustomChangeException("Could not move media into " + directory, e);
+        }
+    }
+
+    private static int move(Connection connection, BlobStore blobStore, String table, String column) throws SQLException, IOException {
+        List<Long> ids = new ArrayList<>();
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id from " + table + " where " + column + " is not null and " + column + "_hash is null"
+            );
+            ResultSet rows = select.executeQuery()
+        ) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        try (
+            PreparedStatement read = connection.prepareStatement("select " + column + " from " + table + " where id = ?");
+            PreparedStatement update = connection.prepareStatement("update " + table + " set " + column + "_hash = ? where id = ?")
+        ) {
+            for (Long id : ids) {
+                read.setLong(1, id);
+                String hash;
+                try (ResultSet row = read.executeQuery()) {
+                    row.next();
+                    try (InputStream content = row.getBinaryStream(1)) {
+                        hash = blobStore.put(content);
+                    }
+                }
+                update.setString(1, hash);
+                update.setLong(2, id);
+                update.executeUpdate();
+            }
+        }
+        LOG.info("Moved {} {}.{} blobs into the blob store", ids.size(), table, column);
+        return ids.size();
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Moved " + moved + " images into " + directory;
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources are read
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("directory", directory);
+        return errors;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
+import com.mihapetr.socialnetwork.service.media.FileSystemBlobStore;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the blob store for uploaded media. Declaring another {@link BlobStore} bean replaces the filesystem one.
+ */
+@NotGenerated
+@Configuration
+public class MediaConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean(BlobStore.class)
+    public BlobStore blobStore(ApplicationProperties applicationProperties) {
+        Path directory = Path.of(applicationProperties.getMedia().getDirectory()).toAbsolutePath();
+        LOG.debug("Storing media in {}", directory);
+        return new FileSystemBlobStore(directory);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.management.RequestCostInterceptor;
+import com.mihapetr.socialnetwork.web.filter.RequestCostFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Measures the SQL statements, loaded entities and response bytes of every REST call, see {@link RequestCostFilter}.
+ * <p>
+ * The filter runs ahead of Spring Security, so the queries made while authenticating are counted too.
+ */
+@NotGenerated
+@Configuration
+@ConditionalOnProperty(prefix = "application.request-cost", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCostConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestCostHibernateCustomizer() {
+        RequestCostInterceptor interceptor = new RequestCostInterceptor();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.INTERCEPTOR, interceptor);
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, interceptor);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestCostFilter> requestCostFilter(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        FilterRegistrationBean<RequestCostFilter> registration = new FilterRegistrationBean<>(
+            new RequestCostFilter(meterRegistry, applicationProperties.getRequestCost())
+        );
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.search.SearchIndex;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opens the search index; it is closed, and so committed, when the application stops.
+ */
+@NotGenerated
+@Configuration
+public class SearchConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchConfiguration.class);
+
+    @Bean
+    public SearchIndex searchIndex(ApplicationProperties applicationProperties) throws IOException {
+        ApplicationProperties.Search search = applicationProperties.getSearch();
+        if (search.isInMemory()) {
+            // a directory holds the write lock of one IndexWriter per JVM, which several test contexts would share
+            LOG.debug("Opening search index in memory");
+            return new SearchIndex(new ByteBuffersDirectory());
+        }
+        Path directory = Path.of(search.getDirectory()).toAbsolutePath();
+        LOG.debug("Opening search index in {}", directory);
+        return new SearchIndex(FSDirectory.open(directory));
+    }
+}
@@ -2,9 +2,15 @@ package com.mihapetr.socialnetwork.config;
 
 import static com.mihapetr.socialnetwork.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.management.SecurityMetersService;
+import com.mihapetr.socialnetwork.security.CachingJwtDecoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.ParseException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -14,6 +20,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -26,30 +34,45 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
-        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        NimbusJwtDecoder nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+        ApplicationProperties.JwtCache cacheProperties = applicationProperties.getJwtCache();
+        JwtDecoder jwtDecoder = cacheProperties.getMaxEntries() > 0
+            ? new CachingJwtDecoder(nimbusJwtDecoder, cacheProperties.getMaxEntries(), cacheProperties.getExpiryMargin(), meterRegistry)
+            : nimbusJwtDecoder;
         return token -> {
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
+            } catch (JwtException e) {
+                trackInvalidToken(metersService, e);
                 throw e;
             }
         };
     }
 
+    /**
+     * Classifies a rejected token by the exception the Nimbus decoder raised: a failed validation is a failed
+     * timestamp check, the only validation configured, and a bad token wraps the Nimbus exception that rejected it.
+     */
+    @NotGenerated
+    private static void trackInvalidToken(SecurityMetersService metersService, JwtException e) {
+        if (e instanceof JwtValidationException) {
+            metersService.trackTokenExpired();
+        } else if (e.getCause() instanceof BadJWSException) {
+            metersService.trackTokenInvalidSignature();
+        } else if (e.getCause() instanceof ParseException) {
+            metersService.trackTokenMalformed();
+        } else if (e.getCause() instanceof BadJOSEException) {
+            metersService.trackTokenUnsupported();
+        } else {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+        }
+    }
+
     @Bean
     public JwtEncoder jwtEncoder() {
         return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
@@ -0,0 +1,46 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Runs servlet requests on virtual threads when {@code spring.threads.virtual.enabled} is set, as the
+ * {@code virtual-threads} profile does.
+ * <p>
+ * Spring Boot moves scheduled jobs onto virtual threads by itself and {@link AsyncConfiguration} does the same for
+ * {@code @Async} work, but Undertow is not covered: its XNIO worker pool still serves requests, so a request blocked on
+ * the database holds a platform thread. Dispatching servlet invocations to a virtual thread executor leaves the IO
+ * threads and the worker pool idle. Virtual threads need Java 21; on an older runtime the property is ignored.
+ */
+@NotGenerated
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    public VirtualThreadsConfiguration(Environment environment) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            LOG.warn("Virtual threads are enabled but need Java 21, running on platform threads on Java {}", Runtime.version().feature());
+        }
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public UndertowDeploymentInfoCustomizer virtualThreadServletDispatch() {
+        return deploymentInfo -> {
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("undertow-");
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        };
+    }
+}
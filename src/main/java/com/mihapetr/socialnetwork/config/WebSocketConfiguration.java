@@ -0,0 +1,74 @@
+package com.mihapetr.socialnetwork.config;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.web.websocket.ChatSessionRegistry;
+import com.mihapetr.socialnetwork.web.websocket.ChatSocketEndpoint;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Registers the chat WebSocket endpoint with the servlet container's {@link ServerContainer}.
+ * <p>
+ * The upgrade is handled by the container before the Spring Security filter chain, which is why the endpoint
+ * verifies the JWT itself. Beans are looked up when a client connects, so registering the endpoint does not
+ * force the security and persistence beans to be created while the web server starts.
+ */
+@NotGenerated
+@Configuration
+public class WebSocketConfiguration implements ServletContextInitializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebSocketConfiguration.class);
+
+    private final ObjectProvider<ChatSessionRegistry> registry;
+
+    private final ObjectProvider<JwtDecoder> jwtDecoder;
+
+    private final ApplicationProperties applicationProperties;
+
+    public WebSocketConfiguration(
+        ObjectProvider<ChatSessionRegistry> registry,
+        ObjectProvider<JwtDecoder> jwtDecoder,
+        ApplicationProperties applicationProperties
+    ) {
+        this.registry = registry;
+        this.jwtDecoder = jwtDecoder;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void onStartup(ServletContext servletContext) throws ServletException {
+        ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            LOG.warn("No WebSocket container available, chat messages will not be pushed");
+            return;
+        }
+        ApplicationProperties.Websocket properties = applicationProperties.getWebsocket();
+        container.setAsyncSendTimeout(properties.getSendTimeout().toMillis());
+        ServerEndpointConfig config = ServerEndpointConfig.Builder.create(ChatSocketEndpoint.class, ChatSocketEndpoint.PATH)
+            .configurator(
+                new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(
+                            new ChatSocketEndpoint(registry.getObject(), jwtDecoder.getObject(), properties.getSendBufferSize())
+                        );
+                    }
+                }
+            )
+            .build();
+        try {
+            container.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new ServletException("Could not register the chat WebSocket endpoint", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mihapetr.socialnetwork.domain;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * How far a participant has read a chat.
+ * <p>
+ * The unread counter is incremented for the other participants whenever a message is sent and reset when the
+ * participant reads the chat, so the chat inbox never has to count the messages of a conversation.
+ */
+@NotGenerated
+@Entity
+@Table(name = "chat_read_marker")
+@IdClass(ChatReadMarker.ChatReadMarkerId.class)
+public class ChatReadMarker implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "chat_id")
+    private Long chatId;
+
+    @Id
+    @Column(name = "profile_id")
+    private Long profileId;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    public Long getChatId() {
+        return this.chatId;
+    }
+
+    public ChatReadMarker chatId(Long chatId) {
+        this.setChatId(chatId);
+        return this;
+    }
+
+    public void setChatId(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    public Long getProfileId() {
+        return this.profileId;
+    }
+
+    public ChatReadMarker profileId(Long profileId) {
+        this.setProfileId(profileId);
+        return this;
+    }
+
+    public void setProfileId(Long profileId) {
+        this.profileId = profileId;
+    }
+
+    public Long getLastReadMessageId() {
+        return this.lastReadMessageId;
+    }
+
+    public ChatReadMarker lastReadMessageId(Long lastReadMessageId) {
+        this.setLastReadMessageId(lastReadMessageId);
+        return this;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public Integer getUnreadCount() {
+        return this.unreadCount;
+    }
+
+    public ChatReadMarker unreadCount(Integer unreadCount) {
+        this.setUnreadCount(unreadCount);
+        return this;
+    }
+
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChatReadMarker)) {
+            return false;
+        }
+        ChatReadMarker other = (ChatReadMarker) o;
+        return getChatId() != null && getChatId().equals(other.getChatId()) && Objects.equals(getProfileId(), other.getProfileId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChatReadMarker{" +
+            "chatId=" + getChatId() +
+            ", profileId=" + getProfileId() +
+            ", lastReadMessageId=" + getLastReadMessageId() +
+            ", unreadCount=" + getUnreadCount() +
+            "}";
+    }
+
+    /**
+     * Composite identifier of a {@link ChatReadMarker}.
+     */
+    public static class ChatReadMarkerId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long chatId;
+
+        private Long profileId;
+
+        public ChatReadMarkerId() {}
+
+        public ChatReadMarkerId(Long chatId, Long profileId) {
+            this.chatId = chatId;
+            this.profileId = profileId;
+        }
+
+        public Long getChatId() {
+            return chatId;
+        }
+
+        public Long getProfileId() {
+            return profileId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChatReadMarkerId)) {
+                return false;
+            }
+            ChatReadMarkerId other = (ChatReadMarkerId) o;
+            return Objects.equals(chatId, other.chatId) && Objects.equals(profileId, other.profileId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chatId, profileId);
+        }
+    }
+}
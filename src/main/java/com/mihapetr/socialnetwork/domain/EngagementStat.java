@@ -0,0 +1,163 @@
+package com.mihapetr.socialnetwork.domain;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The persisted value of one engagement counter of a post, profile or chat.
+ * <p>
+ * Counters are kept in memory and only their deltas are added here in periodic batches, so a write path never
+ * updates a shared row. See {@link com.mihapetr.socialnetwork.service.EngagementCounterService}.
+ */
+@NotGenerated
+@Entity
+@Table(name = "engagement_stats")
+@IdClass(EngagementStat.EngagementStatId.class)
+public class EngagementStat implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * What is counted, and of which entity the subject id is.
+     */
+    public enum Counter {
+        /** Comments of a post. */
+        POST_COMMENTS,
+        /** Posts of a profile. */
+        PROFILE_POSTS,
+        /** Friends of a profile. */
+        PROFILE_FRIENDS,
+        /** Messages of a chat. */
+        CHAT_MESSAGES,
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "counter", length = 20)
+    private Counter counter;
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    public Counter getCounter() {
+        return this.counter;
+    }
+
+    public EngagementStat counter(Counter counter) {
+        this.setCounter(counter);
+        return this;
+    }
+
+    public void setCounter(Counter counter) {
+        this.counter = counter;
+    }
+
+    public Long getSubjectId() {
+        return this.subjectId;
+    }
+
+    public EngagementStat subjectId(Long subjectId) {
+        this.setSubjectId(subjectId);
+        return this;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Long getTotal() {
+        return this.total;
+    }
+
+    public EngagementStat total(Long total) {
+        this.setTotal(total);
+        return this;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EngagementStat)) {
+            return false;
+        }
+        EngagementStat other = (EngagementStat) o;
+        return getCounter() != null && getCounter().equals(other.getCounter()) && Objects.equals(getSubjectId(), other.getSubjectId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EngagementStat{" +
+            "counter=" + getCounter() +
+            ", subjectId=" + getSubjectId() +
+            ", total=" + getTotal() +
+            "}";
+    }
+
+    /**
+     * Composite identifier of an {@link EngagementStat}.
+     */
+    public static class EngagementStatId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Counter counter;
+
+        private Long subjectId;
+
+        public EngagementStatId() {}
+
+        public EngagementStatId(Counter counter, Long subjectId) {
+            this.counter = counter;
+            this.subjectId = subjectId;
+        }
+
+        public Counter getCounter() {
+            return counter;
+        }
+
+        public Long getSubjectId() {
+            return subjectId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EngagementStatId)) {
+                return false;
+            }
+            EngagementStatId other = (EngagementStatId) o;
+            return counter == other.counter && Objects.equals(subjectId, other.subjectId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(counter, subjectId);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return counter + ":" + subjectId;
+        }
+    }
+}
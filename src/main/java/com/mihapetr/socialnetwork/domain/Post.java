@@ -1,6 +1,7 @@
 package com.mihapetr.socialnetwork.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
@@ -24,9 +25,14 @@ public class Post implements Serializable {
     @Column(name = "id")
     private Long id;
 
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
+    /**
+     * Uploaded content, accepted on write only; it is moved into the blob store and replaced by {@link #imageHash}.
+     * Declared {@code transient} rather than {@code @Transient}, which would also hide it from Jackson.
+     */
+    private transient byte[] image;
+
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
     @Column(name = "image_content_type")
     private String imageContentType;
@@ -64,6 +70,7 @@ public class Post implements Serializable {
         this.id = id;
     }
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     public byte[] getImage() {
         return this.image;
     }
@@ -77,6 +84,19 @@ public class Post implements Serializable {
         this.image = image;
     }
 
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public Post imageHash(String imageHash) {
+        this.setImageHash(imageHash);
+        return this;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public String getImageContentType() {
         return this.imageContentType;
     }
@@ -197,7 +217,7 @@ public class Post implements Serializable {
     public String toString() {
         return "Post{" +
             "id=" + getId() +
-            ", image='" + getImage() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
             ", description='" + getDescription() + "'" +
             ", time='" + getTime() + "'" +
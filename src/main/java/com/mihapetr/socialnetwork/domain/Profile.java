@@ -1,18 +1,21 @@
 package com.mihapetr.socialnetwork.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mihapetr.socialnetwork.NotGenerated;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.hibernate.annotations.BatchSize;
 
 /**
  * A Profile.
  */
 @Entity
 @Table(name = "profile")
+@org.hibernate.annotations.Cache(usage = org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Profile implements Serializable {
 
@@ -27,9 +30,14 @@ public class Profile implements Serializable {
     @Column(name = "status")
     private String status;
 
-    @Lob
-    @Column(name = "picture")
-    private byte[] picture;
+    /**
+     * Uploaded content, accepted on write only; it is moved into the blob store and replaced by {@link #pictureHash}.
+     * Declared {@code transient} rather than {@code @Transient}, which would also hide it from Jackson.
+     */
+    private transient byte[] picture;
+
+    @Column(name = "picture_hash", length = 64)
+    private String pictureHash;
 
     @Column(name = "picture_content_type")
     private String pictureContentType;
@@ -51,6 +59,7 @@ public class Profile implements Serializable {
         joinColumns = @JoinColumn(name = "profile_id"),
         inverseJoinColumns = @JoinColumn(name = "other_id")
     )
+    @BatchSize(size = 100)
     @JsonIgnoreProperties(value = { "posts", "comments", "others", "chats", "profiles" }, allowSetters = true)
     private Set<Profile> others = new HashSet<>();
 
@@ -60,10 +69,12 @@ public class Profile implements Serializable {
         joinColumns = @JoinColumn(name = "profile_id"),
         inverseJoinColumns = @JoinColumn(name = "chat_id")
     )
+    @BatchSize(size = 100)
     @JsonIgnoreProperties(value = { "chats", "user", "profiles" }, allowSetters = true)
     private Set<Chat> chats = new HashSet<>();
 
     @ManyToMany(fetch = FetchType.LAZY, mappedBy = "others")
+    @BatchSize(size = 100)
     @JsonIgnoreProperties(value = { "posts", "comments", "others", "chats", "profiles" }, allowSetters = true)
     private Set<Profile> profiles = new HashSet<>();
 
@@ -95,6 +106,7 @@ public class Profile implements Serializable {
         this.status = status;
     }
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     public byte[] getPicture() {
         return this.picture;
     }
@@ -108,6 +120,19 @@ public class Profile implements Serializable {
         this.picture = picture;
     }
 
+    public String getPictureHash() {
+        return this.pictureHash;
+    }
+
+    public Profile pictureHash(String pictureHash) {
+        this.setPictureHash(pictureHash);
+        return this;
+    }
+
+    public void setPictureHash(String pictureHash) {
+        this.pictureHash = pictureHash;
+    }
+
     public String getPictureContentType() {
         return this.pictureContentType;
     }
@@ -298,7 +323,7 @@ public class Profile implements Serializable {
         return "Profile{" +
             "id=" + getId() +
             ", status='" + getStatus() + "'" +
-            ", picture='" + getPicture() + "'" +
+            ", pictureHash='" + getPictureHash() + "'" +
             ", pictureContentType='" + getPictureContentType() + "'" +
             ", others=" + ((others != null) ? others.stream().map(
                 profile -> {return profile.getId() + "";}
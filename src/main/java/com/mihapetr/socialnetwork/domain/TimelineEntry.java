@@ -0,0 +1,143 @@
+package com.mihapetr.socialnetwork.domain;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * A post materialized into the home feed of one profile.
+ * <p>
+ * Rows are written when a post is created (fan-out on write) so that reading a feed is a single
+ * range scan over {@code (owner_id, time, post_id)} instead of a join through the friendship table.
+ */
+@NotGenerated
+@Entity
+@Table(name = "timeline_entry")
+@IdClass(TimelineEntry.TimelineEntryId.class)
+public class TimelineEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "time", nullable = false)
+    private ZonedDateTime time;
+
+    public Long getOwnerId() {
+        return this.ownerId;
+    }
+
+    public TimelineEntry ownerId(Long ownerId) {
+        this.setOwnerId(ownerId);
+        return this;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getPostId() {
+        return this.postId;
+    }
+
+    public TimelineEntry postId(Long postId) {
+        this.setPostId(postId);
+        return this;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public ZonedDateTime getTime() {
+        return this.time;
+    }
+
+    public TimelineEntry time(ZonedDateTime time) {
+        this.setTime(time);
+        return this;
+    }
+
+    public void setTime(ZonedDateTime time) {
+        this.time = time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimelineEntry)) {
+            return false;
+        }
+        TimelineEntry other = (TimelineEntry) o;
+        return getOwnerId() != null && getOwnerId().equals(other.getOwnerId()) && Objects.equals(getPostId(), other.getPostId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimelineEntry{" +
+            "ownerId=" + getOwnerId() +
+            ", postId=" + getPostId() +
+            ", time='" + getTime() + "'" +
+            "}";
+    }
+
+    /**
+     * Composite identifier of a {@link TimelineEntry}.
+     */
+    public static class TimelineEntryId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ownerId;
+
+        private Long postId;
+
+        public TimelineEntryId() {}
+
+        public TimelineEntryId(Long ownerId, Long postId) {
+            this.ownerId = ownerId;
+            this.postId = postId;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public Long getPostId() {
+            return postId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimelineEntryId)) {
+                return false;
+            }
+            TimelineEntryId other = (TimelineEntryId) o;
+            return Objects.equals(ownerId, other.ownerId) && Objects.equals(postId, other.postId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerId, postId);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mihapetr.socialnetwork.management;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What the request handled by the current thread has cost so far: JDBC statements, entities loaded by type and
+ * response bytes.
+ * <p>
+ * Counting only happens between {@link #start()} and {@link #end()}; statements run by other threads, such as the
+ * schedulers or the {@code @Async} executor, are not attributed to any request.
+ */
+@NotGenerated
+public final class RequestCost {
+
+    private static final ThreadLocal<RequestCost> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private final Map<String, Integer> entities = new HashMap<>();
+
+    private long bytes;
+
+    private RequestCost() {}
+
+    /**
+     * Starts counting for the current thread, discarding what a previous request left behind.
+     */
+    public static RequestCost start() {
+        RequestCost cost = new RequestCost();
+        CURRENT.set(cost);
+        return cost;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestCost cost = CURRENT.get();
+        if (cost != null) {
+            cost.statements++;
+        }
+    }
+
+    static void entityLoaded(Object entity) {
+        RequestCost cost = CURRENT.get();
+        if (cost != null) {
+            cost.entities.merge(entity.getClass().getSimpleName(), 1, Integer::sum);
+        }
+    }
+
+    public void addBytes(int count) {
+        bytes += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the entities loaded into the persistence context, by entity class name.
+     */
+    public Map<String, Integer> getEntities() {
+        return entities;
+    }
+
+    public int getEntityCount() {
+        return entities.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
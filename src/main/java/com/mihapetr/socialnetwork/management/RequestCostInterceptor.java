@@ -0,0 +1,30 @@
+package com.mihapetr.socialnetwork.management;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate hook adding every prepared statement and every loaded entity to the {@link RequestCost} of the current
+ * request.
+ * <p>
+ * A single instance serves the whole session factory; it keeps no state of its own.
+ */
+@NotGenerated
+public class RequestCostInterceptor implements Interceptor, StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        RequestCost.statementPrepared();
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestCost.entityLoaded(entity);
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.ChatReadMarker;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the chat read markers.
+ */
+@NotGenerated
+@Repository
+public interface ChatReadMarkerRepository extends JpaRepository<ChatReadMarker, ChatReadMarker.ChatReadMarkerId> {
+    /**
+     * Counts a new message as unread for every participant of the chat except its sender, in one statement. The
+     * participants are read from {@code rel_profile__chat}, which the native space does not cover, so the session is
+     * flushed first for the participants of a chat created in the same transaction.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_read_marker"))
+    @Query(
+        value = "insert into chat_read_marker (chat_id, profile_id, unread_count) " +
+        "select r.chat_id, r.profile_id, 1 from rel_profile__chat r where r.chat_id = :chatId and r.profile_id <> :senderId " +
+        "on duplicate key update unread_count = unread_count + 1",
+        nativeQuery = true
+    )
+    int countUnread(@Param("chatId") Long chatId, @Param("senderId") Long senderId);
+
+    /**
+     * Marks every message of the chat as read by a participant, up to the last message in the database; the session
+     * is flushed first so messages saved in the same transaction count.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_read_marker"))
+    @Query(
+        value = "insert into chat_read_marker (chat_id, profile_id, last_read_message_id, unread_count) " +
+        "select :chatId, :profileId, max(m.id), 0 from message m where m.chat_id = :chatId " +
+        "on duplicate key update last_read_message_id = values(last_read_message_id), unread_count = 0",
+        nativeQuery = true
+    )
+    int markRead(@Param("chatId") Long chatId, @Param("profileId") Long profileId);
+}
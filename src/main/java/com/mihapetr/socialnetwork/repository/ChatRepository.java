@@ -2,7 +2,14 @@ package com.mihapetr.socialnetwork.repository;
 
 import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Chat;
+import com.mihapetr.socialnetwork.repository.projection.ChatParticipant;
+import com.mihapetr.socialnetwork.repository.projection.ChatRow;
+import com.mihapetr.socialnetwork.repository.projection.ChatSummary;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,10 +20,61 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, Long> {
+    int PREVIEW_LENGTH = 100;
+
+    String ROW_SELECT = "select new com.mihapetr.socialnetwork.repository.projection.ChatRow(c.id, c.initiatorName, c.accepted) ";
+
     @Query("select chat from Chat chat where chat.user.login = ?#{authentication.name}")
     List<Chat> findByUserIsCurrentUser();
 
     @NotGenerated
-    @Query("select c from Chat c join c.profiles p where p.user.login = :login")
-    List<Chat> findAllByCurrentProfile(@Param("login") String login);
+    @Query(ROW_SELECT + "from Chat c join c.profiles p join p.user u where u.login = :login")
+    List<ChatRow> findRowsByLogin(@Param("login") String login);
+
+    @NotGenerated
+    @Query(ROW_SELECT + "from Chat c where c.id = :id")
+    Optional<ChatRow> findRow(@Param("id") Long id);
+
+    /**
+     * Participants of the given chats, each with the id of its chat as owner.
+     */
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileRefRow(c.id, p.id, p.pictureHash, u.id, u.login) " +
+        "from Chat c join c.profiles p left join p.user u where c.id in :chatIds"
+    )
+    List<ProfileRefRow> findProfileRefs(@Param("chatIds") Collection<Long> chatIds);
+
+    @NotGenerated
+    @Query("select u.login from Chat c join c.profiles p join p.user u where c.id = :chatId")
+    Set<String> findParticipantLogins(@Param("chatId") Long chatId);
+
+    @NotGenerated
+    @Query("select count(c) > 0 from Chat c join c.profiles p where c.id = :chatId and p.user.login = :login")
+    boolean isParticipant(@Param("chatId") Long chatId, @Param("login") String login);
+
+    /**
+     * Chats of a user with their last message and the user's unread counter, most recently active first.
+     * Message ids grow in send order, so the last message is the highest id, found through the {@code chat_id} index.
+     */
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ChatSummary(" +
+        "c.id, c.initiatorName, c.accepted, m.id, m.senderName, substring(m.content, 1, " +
+        PREVIEW_LENGTH +
+        "), m.time, coalesce(r.unreadCount, 0)) " +
+        "from Chat c join c.profiles me join me.user u " +
+        "left join Message m on m.chat = c and m.id = (select max(latest.id) from Message latest where latest.chat = c) " +
+        "left join ChatReadMarker r on r.chatId = c.id and r.profileId = me.id " +
+        "where u.login = :login " +
+        "order by m.time desc nulls last, c.id desc"
+    )
+    List<ChatSummary> findInbox(@Param("login") String login);
+
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ChatParticipant(c.id, p.id, u.login) " +
+        "from Chat c join c.profiles p join p.user u where c.id in :chatIds"
+    )
+    List<ChatParticipant> findParticipants(@Param("chatIds") Collection<Long> chatIds);
 }
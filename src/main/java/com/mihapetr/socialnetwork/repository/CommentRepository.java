@@ -1,8 +1,19 @@
 package com.mihapetr.socialnetwork.repository;
 
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.Constants;
 import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.repository.projection.CommentRow;
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +22,75 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String ROW_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.CommentRow(" +
+        "comment.id, comment.post.id, parent.id, parent.senderName, parent.content, parent.time, " +
+        "profile.id, profile.pictureHash, user.id, user.login) " +
+        "from Comment comment join comment.parent parent left join comment.profile profile left join profile.user user ";
+
+    String SEARCH_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.SearchSource(" +
+        "comment.id, parent.content, parent.time, post.id, post.profile.id, user.login) " +
+        "from Comment comment join comment.parent parent join comment.post post " +
+        "left join comment.profile profile left join profile.user user ";
+
+    String POST_COMMENT_ORDER = "order by comment.id";
+
     @Query("select comment from Comment comment where comment.user.login = ?#{authentication.name}")
     List<Comment> findByUserIsCurrentUser();
+
+    /**
+     * All comments with their text and author, read from the database as the stream is consumed.
+     */
+    @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT)
+    Stream<CommentRow> streamAll();
+
+    @NotGenerated
+    @Query(ROW_SELECT + "where comment.id = :id")
+    Optional<CommentRow> findRow(@Param("id") Long id);
+
+    @NotGenerated
+    @Query("select comment.post.id from Comment comment where comment.id = :id")
+    Optional<Long> findPostId(@Param("id") Long id);
+
+    /**
+     * First comments of a post, oldest first. Comment ids grow with time, so they alone order the comments.
+     */
+    @NotGenerated
+    @Query(ROW_SELECT + "where comment.post.id = :postId " + POST_COMMENT_ORDER)
+    List<CommentRow> findRowsByPost(@Param("postId") Long postId, Limit limit);
+
+    /**
+     * Comments of a post strictly after the {@code id} keyset cursor.
+     */
+    @NotGenerated
+    @Query(ROW_SELECT + "where comment.post.id = :postId and comment.id > :id " + POST_COMMENT_ORDER)
+    List<CommentRow> findRowsByPostAfter(@Param("postId") Long postId, @Param("id") Long id, Limit limit);
+
+    /**
+     * Texts of the given comments, for the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where comment.id in :ids")
+    List<SearchSource> findSearchSources(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Texts of the comments held by the given messages, for the search index; messages of chats have no comment.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where parent.id in :messageIds")
+    List<SearchSource> findSearchSourcesByParent(@Param("messageIds") Collection<Long> messageIds);
+
+    /**
+     * Texts of the comments with ids in the inclusive range, for a rebuild of the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where comment.id between :fromId and :toId")
+    List<SearchSource> findSearchSourcesBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @NotGenerated
+    @Query("select max(comment.id) from Comment comment")
+    Optional<Long> findMaxId();
 }
@@ -0,0 +1,44 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.EngagementStat;
+import com.mihapetr.socialnetwork.repository.projection.EngagementTotal;
+import com.mihapetr.socialnetwork.repository.projection.SubjectCount;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the persisted engagement counters, and the queries counting them from scratch.
+ */
+@NotGenerated
+@Repository
+public interface EngagementStatRepository
+    extends JpaRepository<EngagementStat, EngagementStat.EngagementStatId>, EngagementStatRepositoryWithBatch {
+    /**
+     * Every persisted counter, as read-only rows the persistence context does not track.
+     */
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.EngagementTotal(stat.counter, stat.subjectId, stat.total) " +
+        "from EngagementStat stat"
+    )
+    List<EngagementTotal> findAllTotals();
+
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.SubjectCount(comment.post.id, count(comment)) " +
+        "from Comment comment group by comment.post.id"
+    )
+    List<SubjectCount> countCommentsByPost();
+
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.SubjectCount(post.profile.id, count(post)) " +
+        "from Post post group by post.profile.id"
+    )
+    List<SubjectCount> countPostsByProfile();
+
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.SubjectCount(message.chat.id, count(message)) " +
+        "from Message message where message.chat is not null group by message.chat.id"
+    )
+    List<SubjectCount> countMessagesByChat();
+}
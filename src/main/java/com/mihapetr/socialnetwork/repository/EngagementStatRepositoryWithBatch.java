@@ -0,0 +1,15 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.EngagementStat;
+import java.util.Map;
+
+@NotGenerated
+public interface EngagementStatRepositoryWithBatch {
+    /**
+     * Adds deltas to the persisted counters, creating the missing ones, in JDBC batches within one transaction.
+     *
+     * @param deltas the amount to add to each counter.
+     */
+    void addAll(Map<EngagementStat.EngagementStatId, Long> deltas);
+}
@@ -0,0 +1,53 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.EngagementStat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Adds the flushed counter deltas with a single upsert statement executed in JDBC batches.
+ */
+@NotGenerated
+public class EngagementStatRepositoryWithBatchImpl implements EngagementStatRepositoryWithBatch {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT =
+        "insert into engagement_stats (counter, subject_id, total) values (?, ?, ?) " +
+        "on duplicate key update total = total + values(total)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void addAll(Map<EngagementStat.EngagementStatId, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        entityManager
+            .unwrap(Session.class)
+            .doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                    int batched = 0;
+                    for (Map.Entry<EngagementStat.EngagementStatId, Long> delta : deltas.entrySet()) {
+                        statement.setString(1, delta.getKey().getCounter().name());
+                        statement.setLong(2, delta.getKey().getSubjectId());
+                        statement.setLong(3, delta.getValue());
+                        statement.addBatch();
+                        if (++batched % BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    if (batched % BATCH_SIZE != 0) {
+                        statement.executeBatch();
+                    }
+                }
+            });
+    }
+}
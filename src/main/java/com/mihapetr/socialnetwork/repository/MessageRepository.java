@@ -1,8 +1,19 @@
 package com.mihapetr.socialnetwork.repository;
 
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.Constants;
 import com.mihapetr.socialnetwork.domain.Message;
+import com.mihapetr.socialnetwork.repository.projection.ChatMessage;
+import com.mihapetr.socialnetwork.repository.projection.MessageRow;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +22,62 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    String CHAT_MESSAGE_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.ChatMessage(" +
+        "message.id, message.senderName, message.content, message.time) " +
+        "from Message message where message.chat.id = :chatId ";
+
+    String CHAT_MESSAGE_ORDER = "order by message.time desc, message.id desc";
+
+    String ROW_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.MessageRow(" +
+        "message.id, message.senderName, message.content, message.time, chat.id, comment.id) " +
+        "from Message message left join message.chat chat left join message.comment comment ";
+
     @Query("select message from Message message where message.user.login = ?#{authentication.name}")
     List<Message> findByUserIsCurrentUser();
+
+    /**
+     * All messages, read from the database as the stream is consumed. The comment is joined in the same statement,
+     * being the inverse side of the one-to-one.
+     */
+    @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT)
+    Stream<MessageRow> streamAll();
+
+    /**
+     * Messages that are not the parent of a comment, read from the database as the stream is consumed.
+     */
+    @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + "where comment is null")
+    Stream<MessageRow> streamAllWithoutComment();
+
+    @NotGenerated
+    @Query(ROW_SELECT + "where message.id = :id")
+    Optional<MessageRow> findRow(@Param("id") Long id);
+
+    /**
+     * Latest messages of a chat, newest first.
+     */
+    @NotGenerated
+    @Query(CHAT_MESSAGE_SELECT + CHAT_MESSAGE_ORDER)
+    List<ChatMessage> findChatMessages(@Param("chatId") Long chatId, Limit limit);
+
+    /**
+     * Messages of a chat strictly after the ({@code time}, {@code id}) keyset cursor.
+     */
+    @NotGenerated
+    @Query(
+        CHAT_MESSAGE_SELECT +
+        "and (message.time < :time or (message.time = :time and message.id < :id)) " +
+        CHAT_MESSAGE_ORDER
+    )
+    List<ChatMessage> findChatMessagesBefore(
+        @Param("chatId") Long chatId,
+        @Param("time") ZonedDateTime time,
+        @Param("id") Long id,
+        Limit limit
+    );
 }
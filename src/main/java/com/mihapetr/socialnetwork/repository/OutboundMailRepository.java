@@ -0,0 +1,33 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.OutboundMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the mail outbox.
+ */
+@NotGenerated
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+    /**
+     * Locks the mails due for sending, oldest first, skipping those another dispatcher has locked.
+     * <p>
+     * A lock timeout of {@code -2} is Hibernate's {@code LockOptions.SKIP_LOCKED}, rendered as {@code skip locked};
+     * the constant is deprecated, so its value is spelled out.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select m from OutboundMail m where m.status = :status and m.nextAttemptAt <= :now order by m.nextAttemptAt")
+    List<OutboundMail> findDueForUpdate(@Param("status") OutboundMail.Status status, @Param("now") Instant now, Pageable pageable);
+
+    long countByStatus(OutboundMail.Status status);
+}
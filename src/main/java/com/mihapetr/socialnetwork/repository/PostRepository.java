@@ -1,8 +1,21 @@
 package com.mihapetr.socialnetwork.repository;
 
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.Constants;
 import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.repository.projection.FeedPost;
+import com.mihapetr.socialnetwork.repository.projection.PostRow;
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +24,87 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    String FEED_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.FeedPost(" +
+        "post.id, post.description, post.time, post.imageHash, post.imageContentType, profile.id, user.login) " +
+        "from Post post join post.profile profile left join profile.user user ";
+
+    String ROW_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.PostRow(" +
+        "post.id, post.description, post.time, post.imageHash, post.imageContentType, " +
+        "profile.id, profile.pictureHash, user.id, user.login) " +
+        "from Post post join post.profile profile left join profile.user user ";
+
+    String SEARCH_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.SearchSource(" +
+        "post.id, post.description, post.time, post.id, profile.id, user.login) " +
+        "from Post post join post.profile profile left join profile.user user ";
+
+    String FEED_AUTHORS = "where post.time is not null and profile.id in :profileIds ";
+
+    String FEED_ORDER = "order by post.time desc, post.id desc";
+
     @Query("select post from Post post where post.user.login = ?#{authentication.name}")
     List<Post> findByUserIsCurrentUser();
+
+    /**
+     * All posts with their author, read from the database as the stream is consumed.
+     */
+    @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT)
+    Stream<PostRow> streamAll();
+
+    @NotGenerated
+    @Query(ROW_SELECT + "where post.id = :id")
+    Optional<PostRow> findRow(@Param("id") Long id);
+
+    /**
+     * Descriptions of the given posts, for the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where post.id in :ids")
+    List<SearchSource> findSearchSources(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Descriptions of the posts with ids in the inclusive range, for a rebuild of the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where post.id between :fromId and :toId")
+    List<SearchSource> findSearchSourcesBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @NotGenerated
+    @Query("select max(post.id) from Post post")
+    Optional<Long> findMaxId();
+
+    /**
+     * Posts of a profile, newest first.
+     */
+    @NotGenerated
+    @Query(ROW_SELECT + "where profile.id = :profileId order by post.time desc, post.id desc")
+    List<PostRow> findRowsByProfile(@Param("profileId") Long profileId);
+
+    /**
+     * Latest posts of the given authors, newest first. Used for authors whose posts are not fanned out.
+     */
+    @NotGenerated
+    @Query(FEED_SELECT + FEED_AUTHORS + FEED_ORDER)
+    List<FeedPost> findFeedOfAuthors(@Param("profileIds") Collection<Long> profileIds, Limit limit);
+
+    /**
+     * Posts of the given authors strictly after the ({@code time}, {@code id}) keyset cursor.
+     */
+    @NotGenerated
+    @Query(
+        FEED_SELECT +
+        FEED_AUTHORS +
+        "and (post.time < :time or (post.time = :time and post.id < :id)) " +
+        FEED_ORDER
+    )
+    List<FeedPost> findFeedOfAuthorsBefore(
+        @Param("profileIds") Collection<Long> profileIds,
+        @Param("time") ZonedDateTime time,
+        @Param("id") Long id,
+        Limit limit
+    );
 }
@@ -2,8 +2,18 @@ package com.mihapetr.socialnetwork.repository;
 
 import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import com.mihapetr.socialnetwork.repository.projection.ProfileListItem;
+import com.mihapetr.socialnetwork.repository.projection.ProfileLogin;
+import com.mihapetr.socialnetwork.repository.projection.ProfileName;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRow;
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -18,6 +28,17 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ProfileRepository extends ProfileRepositoryWithBagRelationships, JpaRepository<Profile, Long> {
+    String SEARCH_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.SearchSource(" +
+        "profile.id, profile.status, profile.id, user.login) " +
+        "from Profile profile left join profile.user user ";
+
+    String NAME_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileName(" +
+        "profile.id, user.id, user.login, user.firstName, user.lastName) " +
+        "from Profile profile join profile.user user ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select profile from Profile profile where profile.user.login = ?#{authentication.name}")
     List<Profile> findByUserIsCurrentUser();
 
@@ -26,9 +47,107 @@ public interface ProfileRepository extends ProfileRepositoryWithBagRelationships
     }
 
     @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select profile from Profile profile where profile.user.login = :login")
     Optional<Profile> findByUserLogin(@Param("login") String login);
 
+    @NotGenerated
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select profile.id from Profile profile where profile.user.login = :login")
+    Optional<Long> findIdByUserLogin(@Param("login") String login);
+
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileRow(" +
+        "profile.id, profile.status, profile.pictureHash, profile.pictureContentType, user.id, user.login) " +
+        "from Profile profile left join profile.user user where profile.id = :id"
+    )
+    Optional<ProfileRow> findRow(@Param("id") Long id);
+
+    /**
+     * Friends the profile added, with the profile as owner.
+     */
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileRefRow(" +
+        "profile.id, other.id, other.pictureHash, user.id, user.login) " +
+        "from Profile profile join profile.others other left join other.user user where profile.id = :id"
+    )
+    List<ProfileRefRow> findOtherRefs(@Param("id") Long id);
+
+    /**
+     * Profiles that added the profile as a friend, with the profile as owner.
+     */
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileRefRow(" +
+        "profile.id, other.id, other.pictureHash, user.id, user.login) " +
+        "from Profile profile join profile.profiles other left join other.user user where profile.id = :id"
+    )
+    List<ProfileRefRow> findProfileRefs(@Param("id") Long id);
+
+    @NotGenerated
+    @Query("select chat.id from Profile profile join profile.chats chat where profile.id = :id")
+    List<Long> findChatIds(@Param("id") Long id);
+
+    @NotGenerated
+    @Query("select new com.mihapetr.socialnetwork.repository.projection.Friendship(profile.id, other.id) from Profile profile join profile.others other")
+    List<Friendship> findAllFriendships();
+
+    @NotGenerated
+    @Query(
+        "select new com.mihapetr.socialnetwork.repository.projection.ProfileLogin(profile.id, user.login) " +
+        "from Profile profile left join profile.user user where profile.id in :ids"
+    )
+    List<ProfileLogin> findLogins(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Statuses of the given profiles, for the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where profile.id in :ids")
+    List<SearchSource> findSearchSources(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Statuses of the profiles with ids in the inclusive range, for a rebuild of the search index.
+     */
+    @NotGenerated
+    @Query(SEARCH_SELECT + "where profile.id between :fromId and :toId")
+    List<SearchSource> findSearchSourcesBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Logins and names of every profile with a user, for the typeahead index.
+     */
+    @NotGenerated
+    @Query(NAME_SELECT)
+    List<ProfileName> findAllNames();
+
+    @NotGenerated
+    @Query(NAME_SELECT + "where profile.id in :ids")
+    List<ProfileName> findNames(@Param("ids") Collection<Long> ids);
+
+    @NotGenerated
+    @Query(NAME_SELECT + "where user.id = :userId")
+    List<ProfileName> findNamesByUser(@Param("userId") Long userId);
+
+    @NotGenerated
+    @Query("select max(profile.id) from Profile profile")
+    Optional<Long> findMaxId();
+
+    @NotGenerated
+    @Query(
+        value = "select new com.mihapetr.socialnetwork.repository.projection.ProfileListItem(" +
+        "profile.id, profile.status, profile.pictureHash, profile.pictureContentType, user.id, user.login) " +
+        "from Profile profile left join profile.user user",
+        countQuery = "select count(profile) from Profile profile"
+    )
+    Page<ProfileListItem> findAllListItems(Pageable pageable);
+
+    @NotGenerated
+    default Page<ProfileListItem> findAllListItemsWithEagerRelationships(Pageable pageable) {
+        return this.fetchListItemRelationships(this.findAllListItems(pageable));
+    }
+
     default List<Profile> findAllWithEagerRelationships() {
         return this.fetchBagRelationships(this.findAll());
     }
@@ -1,6 +1,8 @@
 package com.mihapetr.socialnetwork.repository;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.repository.projection.ProfileListItem;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -11,4 +13,7 @@ public interface ProfileRepositoryWithBagRelationships {
     List<Profile> fetchBagRelationships(List<Profile> profiles);
 
     Page<Profile> fetchBagRelationships(Page<Profile> profiles);
+
+    @NotGenerated
+    Page<ProfileListItem> fetchListItemRelationships(Page<ProfileListItem> profiles);
 }
@@ -1,75 +1,109 @@
 package com.mihapetr.socialnetwork.repository;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.repository.projection.ChatParticipant;
+import com.mihapetr.socialnetwork.repository.projection.ProfileListItem;
+import com.mihapetr.socialnetwork.repository.projection.ProfileLogin;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRelation;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 
 /**
- * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * Utility repository to load bag relationships.
+ * <p>
+ * Entities get their collections initialized through Hibernate batch fetching (see {@code @BatchSize} on
+ * {@link Profile}): touching the first uninitialized collection loads it for a whole batch of profiles in one
+ * query, keeping the order of the input. List items get their relationships as slim references, with one query
+ * per relationship for the whole page.
  */
+@NotGenerated
 public class ProfileRepositoryWithBagRelationshipsImpl implements ProfileRepositoryWithBagRelationships {
 
-    private static final String ID_PARAMETER = "id";
-    private static final String PROFILES_PARAMETER = "profiles";
+    private static final String IDS_PARAMETER = "ids";
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
     public Optional<Profile> fetchBagRelationships(Optional<Profile> profile) {
-        return profile.map(this::fetchOthers).map(this::fetchChats);
+        profile.ifPresent(this::initialize);
+        return profile;
     }
 
     @Override
     public Page<Profile> fetchBagRelationships(Page<Profile> profiles) {
-        return new PageImpl<>(fetchBagRelationships(profiles.getContent()), profiles.getPageable(), profiles.getTotalElements());
+        profiles.forEach(this::initialize);
+        return profiles;
     }
 
     @Override
     public List<Profile> fetchBagRelationships(List<Profile> profiles) {
-        return Optional.of(profiles).map(this::fetchOthers).map(this::fetchChats).orElse(Collections.emptyList());
+        profiles.forEach(this::initialize);
+        return profiles;
     }
 
-    Profile fetchOthers(Profile result) {
-        return entityManager
-            .createQuery("select profile from Profile profile left join fetch profile.others where profile.id = :id", Profile.class)
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
+    @Override
+    public Page<ProfileListItem> fetchListItemRelationships(Page<ProfileListItem> profiles) {
+        if (profiles.isEmpty()) {
+            return profiles;
+        }
+        List<Long> ids = profiles.map(ProfileListItem::id).toList();
+        Map<Long, List<ProfileLogin>> others = groupByProfile(
+            "select new com.mihapetr.socialnetwork.repository.projection.ProfileRelation(profile.id, other.id, user.login) " +
+            "from Profile profile join profile.others other left join other.user user where profile.id in :ids",
+            ids
+        );
+        Map<Long, List<ProfileLogin>> inverse = groupByProfile(
+            "select new com.mihapetr.socialnetwork.repository.projection.ProfileRelation(profile.id, other.id, user.login) " +
+            "from Profile profile join profile.profiles other left join other.user user where profile.id in :ids",
+            ids
+        );
+        Map<Long, List<ProfileListItem.ChatRef>> chats = entityManager
+            .createQuery(
+                "select new com.mihapetr.socialnetwork.repository.projection.ChatParticipant(chat.id, profile.id, user.login) " +
+                "from Profile profile join profile.chats chat left join profile.user user where profile.id in :ids",
+                ChatParticipant.class
+            )
+            .setParameter(IDS_PARAMETER, ids)
+            .getResultStream()
+            .collect(
+                Collectors.groupingBy(
+                    ChatParticipant::profileId,
+                    Collectors.mapping(chat -> new ProfileListItem.ChatRef(chat.chatId()), Collectors.toList())
+                )
+            );
+        return profiles.map(profile ->
+            profile.relationships(
+                others.getOrDefault(profile.id(), List.of()),
+                chats.getOrDefault(profile.id(), List.of()),
+                inverse.getOrDefault(profile.id(), List.of())
+            )
+        );
     }
 
-    List<Profile> fetchOthers(List<Profile> profiles) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, profiles.size()).forEach(index -> order.put(profiles.get(index).getId(), index));
-        List<Profile> result = entityManager
-            .createQuery("select profile from Profile profile left join fetch profile.others where profile in :profiles", Profile.class)
-            .setParameter(PROFILES_PARAMETER, profiles)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+    private void initialize(Profile profile) {
+        Hibernate.initialize(profile.getOthers());
+        Hibernate.initialize(profile.getChats());
     }
 
-    Profile fetchChats(Profile result) {
+    private Map<Long, List<ProfileLogin>> groupByProfile(String query, Collection<Long> ids) {
         return entityManager
-            .createQuery("select profile from Profile profile left join fetch profile.chats where profile.id = :id", Profile.class)
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
-    }
-
-    List<Profile> fetchChats(List<Profile> profiles) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, profiles.size()).forEach(index -> order.put(profiles.get(index).getId(), index));
-        List<Profile> result = entityManager
-            .createQuery("select profile from Profile profile left join fetch profile.chats where profile in :profiles", Profile.class)
-            .setParameter(PROFILES_PARAMETER, profiles)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+            .createQuery(query, ProfileRelation.class)
+            .setParameter(IDS_PARAMETER, ids)
+            .getResultStream()
+            .collect(
+                Collectors.groupingBy(
+                    ProfileRelation::profileId,
+                    Collectors.mapping(relation -> new ProfileLogin(relation.relatedId(), relation.relatedLogin()), Collectors.toList())
+                )
+            );
     }
 }
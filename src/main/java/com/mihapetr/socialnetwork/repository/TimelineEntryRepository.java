@@ -0,0 +1,107 @@
+package com.mihapetr.socialnetwork.repository;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.TimelineEntry;
+import com.mihapetr.socialnetwork.repository.projection.FeedPost;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the materialized feed timelines.
+ */
+@NotGenerated
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.TimelineEntryId> {
+    String TIMELINE_SELECT =
+        "select new com.mihapetr.socialnetwork.repository.projection.FeedPost(" +
+        "post.id, post.description, post.time, post.imageHash, post.imageContentType, profile.id, user.login) " +
+        "from TimelineEntry entry join Post post on post.id = entry.postId " +
+        "join post.profile profile left join profile.user user " +
+        "where entry.ownerId = :ownerId ";
+
+    String TIMELINE_ORDER = "order by entry.time desc, entry.postId desc";
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<FeedPost> findTimeline(@Param("ownerId") Long ownerId, Limit limit);
+
+    @Query(
+        TIMELINE_SELECT +
+        "and (entry.time < :time or (entry.time = :time and entry.postId < :postId)) " +
+        TIMELINE_ORDER
+    )
+    List<FeedPost> findTimelineBefore(
+        @Param("ownerId") Long ownerId,
+        @Param("time") ZonedDateTime time,
+        @Param("postId") Long postId,
+        Limit limit
+    );
+
+    /**
+     * Pushes a post into the timelines of its author and of every friend of the author in one statement.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entry"))
+    @Query(
+        value = "insert ignore into timeline_entry (owner_id, post_id, time) " +
+        "select owners.id, :postId, :time from (" +
+        "select :authorId as id " +
+        "union select r.other_id from rel_profile__other r where r.profile_id = :authorId " +
+        "union select r.profile_id from rel_profile__other r where r.other_id = :authorId" +
+        ") owners",
+        nativeQuery = true
+    )
+    int fanOut(@Param("postId") Long postId, @Param("time") ZonedDateTime time, @Param("authorId") Long authorId);
+
+    /**
+     * Pushes a post into the timeline of its author only, used for authors above the fan-out threshold.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entry"))
+    @Query(
+        value = "insert ignore into timeline_entry (owner_id, post_id, time) values (:authorId, :postId, :time)",
+        nativeQuery = true
+    )
+    int pushToAuthor(@Param("postId") Long postId, @Param("time") ZonedDateTime time, @Param("authorId") Long authorId);
+
+    /**
+     * Copies the latest posts of an author into the timeline of a new friend.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entry"))
+    @Query(
+        value = "insert ignore into timeline_entry (owner_id, post_id, time) " +
+        "select :ownerId, p.id, p.time from post p where p.profile_id = :authorId and p.time is not null " +
+        "order by p.time desc, p.id desc limit :size",
+        nativeQuery = true
+    )
+    int backfill(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("size") int size);
+
+    @Query(
+        value = "select (select count(*) from rel_profile__other r where r.profile_id = :profileId) + " +
+        "(select count(*) from rel_profile__other r where r.other_id = :profileId)",
+        nativeQuery = true
+    )
+    long countFriends(@Param("profileId") Long profileId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "feed_celebrity"))
+    @Query(value = "insert ignore into feed_celebrity (profile_id) values (:profileId)", nativeQuery = true)
+    int markCelebrity(@Param("profileId") Long profileId);
+
+    /**
+     * Friends of a profile whose posts are not fanned out and have to be pulled when reading the feed.
+     */
+    @Query(
+        value = "select c.profile_id from feed_celebrity c where " +
+        "c.profile_id in (select r.other_id from rel_profile__other r where r.profile_id = :profileId) " +
+        "or c.profile_id in (select r.profile_id from rel_profile__other r where r.other_id = :profileId)",
+        nativeQuery = true
+    )
+    List<Long> findCelebrityFriendIds(@Param("profileId") Long profileId);
+}
@@ -0,0 +1,11 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only view of a {@link com.mihapetr.socialnetwork.domain.Message} as shown in the history of a chat.
+ */
+@NotGenerated
+public record ChatMessage(Long id, String senderName, String content, ZonedDateTime time) implements Serializable {}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A profile taking part in a chat, as listed in the chat inbox.
+ */
+@NotGenerated
+public record ChatParticipant(Long chatId, Long profileId, String login) implements Serializable {}
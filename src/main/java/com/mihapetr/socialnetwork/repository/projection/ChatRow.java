@@ -0,0 +1,11 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * Columns of a {@link com.mihapetr.socialnetwork.domain.Chat} read for the chat endpoints, mapped to a
+ * {@link com.mihapetr.socialnetwork.service.dto.ChatDTO}. Participants are read by a second query.
+ */
+@NotGenerated
+public record ChatRow(Long id, String initiatorName, Boolean accepted) implements Serializable {}
@@ -0,0 +1,53 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of a {@link com.mihapetr.socialnetwork.domain.Chat} as listed in the chat inbox of a profile.
+ * <p>
+ * Carries a preview of the last message and the unread counter of the profile's read marker, so listing chats
+ * costs the same however long the conversations are. Participants are loaded by a second query.
+ */
+@NotGenerated
+public record ChatSummary(
+    Long id,
+    String initiatorName,
+    Boolean accepted,
+    Long lastMessageId,
+    String lastMessageSender,
+    String lastMessagePreview,
+    ZonedDateTime lastMessageTime,
+    Integer unreadCount,
+    List<ChatParticipant> participants
+)
+    implements Serializable {
+    public ChatSummary(
+        Long id,
+        String initiatorName,
+        Boolean accepted,
+        Long lastMessageId,
+        String lastMessageSender,
+        String lastMessagePreview,
+        ZonedDateTime lastMessageTime,
+        Integer unreadCount
+    ) {
+        this(id, initiatorName, accepted, lastMessageId, lastMessageSender, lastMessagePreview, lastMessageTime, unreadCount, List.of());
+    }
+
+    public ChatSummary participants(List<ChatParticipant> participants) {
+        return new ChatSummary(
+            id,
+            initiatorName,
+            accepted,
+            lastMessageId,
+            lastMessageSender,
+            lastMessagePreview,
+            lastMessageTime,
+            unreadCount,
+            participants
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Columns of a {@link com.mihapetr.socialnetwork.domain.Comment}, of the message holding its text and of its
+ * author read for the comment endpoints, mapped to a {@link com.mihapetr.socialnetwork.service.dto.CommentDTO}.
+ * The author columns are {@code null} for a comment without a profile.
+ */
+@NotGenerated
+public record CommentRow(
+    Long id,
+    Long postId,
+    Long parentId,
+    String senderName,
+    String content,
+    ZonedDateTime time,
+    Long profileId,
+    String pictureHash,
+    Long userId,
+    String login
+)
+    implements Serializable {}
@@ -0,0 +1,11 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.EngagementStat;
+import java.io.Serializable;
+
+/**
+ * The persisted value of an engagement counter, read without loading the {@link EngagementStat} entity.
+ */
+@NotGenerated
+public record EngagementTotal(EngagementStat.Counter counter, Long subjectId, Long total) implements Serializable {}
@@ -0,0 +1,23 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only view of a {@link com.mihapetr.socialnetwork.domain.Post} as shown in the home feed.
+ * <p>
+ * Built by a JPQL constructor expression so neither the post's associations nor its comments are loaded.
+ * The image is referenced by {@code imageHash} and served by {@code /api/media/{hash}}.
+ */
+@NotGenerated
+public record FeedPost(
+    Long id,
+    String description,
+    ZonedDateTime time,
+    String imageHash,
+    String imageContentType,
+    Long profileId,
+    String login
+)
+    implements Serializable {}
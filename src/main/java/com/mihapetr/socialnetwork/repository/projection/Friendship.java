@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * One row of the friendship table, in the direction it was stored.
+ */
+@NotGenerated
+public record Friendship(Long profileId, Long otherId) implements Serializable {}
@@ -0,0 +1,13 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Columns of a {@link com.mihapetr.socialnetwork.domain.Message} read for the message endpoints, mapped to a
+ * {@link com.mihapetr.socialnetwork.service.dto.MessageDTO}.
+ */
+@NotGenerated
+public record MessageRow(Long id, String senderName, String content, ZonedDateTime time, Long chatId, Long commentId)
+    implements Serializable {}
@@ -0,0 +1,23 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Columns of a {@link com.mihapetr.socialnetwork.domain.Post} and of its author read for the post endpoints,
+ * mapped to a {@link com.mihapetr.socialnetwork.service.dto.PostDTO}.
+ */
+@NotGenerated
+public record PostRow(
+    Long id,
+    String description,
+    ZonedDateTime time,
+    String imageHash,
+    String imageContentType,
+    Long profileId,
+    String pictureHash,
+    Long userId,
+    String login
+)
+    implements Serializable {}
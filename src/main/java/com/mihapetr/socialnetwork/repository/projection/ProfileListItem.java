@@ -0,0 +1,43 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Read-only view of a {@link com.mihapetr.socialnetwork.domain.Profile} as listed in the profile table.
+ * <p>
+ * Related profiles and chats are slim references rather than entities, so listing a page never loads the
+ * related profiles' users, posts or pictures. The relationships are {@code null} until
+ * {@link #relationships(List, List, List)} fills them, as lazy collections are when not fetched.
+ */
+@NotGenerated
+public record ProfileListItem(
+    Long id,
+    String status,
+    String pictureHash,
+    String pictureContentType,
+    UserRef user,
+    List<ProfileLogin> others,
+    List<ChatRef> chats,
+    List<ProfileLogin> profiles
+)
+    implements Serializable {
+    public ProfileListItem(Long id, String status, String pictureHash, String pictureContentType, Long userId, String login) {
+        this(id, status, pictureHash, pictureContentType, userId == null ? null : new UserRef(userId, login), null, null, null);
+    }
+
+    public ProfileListItem relationships(List<ProfileLogin> others, List<ChatRef> chats, List<ProfileLogin> profiles) {
+        return new ProfileListItem(id, status, pictureHash, pictureContentType, user, others, chats, profiles);
+    }
+
+    /**
+     * The user owning a listed profile.
+     */
+    public record UserRef(Long id, String login) implements Serializable {}
+
+    /**
+     * A chat the listed profile takes part in.
+     */
+    public record ChatRef(Long id) implements Serializable {}
+}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * The id of a {@link com.mihapetr.socialnetwork.domain.Profile} with the login of its user.
+ */
+@NotGenerated
+public record ProfileLogin(Long id, String login) implements Serializable {}
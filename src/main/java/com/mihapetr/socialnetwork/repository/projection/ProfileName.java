@@ -0,0 +1,9 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+
+/**
+ * The id of a {@link com.mihapetr.socialnetwork.domain.Profile} with the login and name of its user.
+ */
+@NotGenerated
+public record ProfileName(Long profileId, Long userId, String login, String firstName, String lastName) {}
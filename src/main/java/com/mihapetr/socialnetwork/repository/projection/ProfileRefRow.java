@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A profile related to the {@code ownerId} chat or profile, with what is needed to link to it and show its picture.
+ */
+@NotGenerated
+public record ProfileRefRow(Long ownerId, Long id, String pictureHash, Long userId, String login) implements Serializable {}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A profile related to another one, with the login of the related profile's user.
+ */
+@NotGenerated
+public record ProfileRelation(Long profileId, Long relatedId, String relatedLogin) implements Serializable {}
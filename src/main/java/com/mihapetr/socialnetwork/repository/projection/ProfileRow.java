@@ -0,0 +1,12 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * Columns of a {@link com.mihapetr.socialnetwork.domain.Profile} and of its user read for the profile endpoints,
+ * mapped to a {@link com.mihapetr.socialnetwork.service.dto.ProfileDTO}.
+ */
+@NotGenerated
+public record ProfileRow(Long id, String status, String pictureHash, String pictureContentType, Long userId, String login)
+    implements Serializable {}
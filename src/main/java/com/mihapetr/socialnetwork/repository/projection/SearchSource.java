@@ -0,0 +1,18 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.time.ZonedDateTime;
+
+/**
+ * Text of a post, comment or profile status read to be indexed for search, with the ids its document is deleted by:
+ * {@code postId} is the post of a comment or the post itself, {@code ownerId} the profile whose deletion removes it.
+ */
+@NotGenerated
+public record SearchSource(Long id, String text, ZonedDateTime time, Long postId, Long ownerId, String login) {
+    /**
+     * A profile status, which has neither a time nor a post.
+     */
+    public SearchSource(Long id, String text, Long ownerId, String login) {
+        this(id, text, null, null, ownerId, login);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.repository.projection;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * How many rows an entity has of some kind, such as the comments of a post, counted to reconcile the engagement counters.
+ */
+@NotGenerated
+public record SubjectCount(Long subjectId, Long count) implements Serializable {}
@@ -0,0 +1,127 @@
+package com.mihapetr.socialnetwork.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mihapetr.socialnetwork.NotGenerated;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} remembering the tokens it has verified, so a client presenting the same token on every request
+ * pays for signature verification and claim parsing once.
+ * <p>
+ * Tokens are keyed by their SHA-256 digest rather than kept verbatim. A cached token is dropped the expiry margin
+ * before it expires, and a token already within the margin is verified every time and never cached, so the delegate
+ * alone decides when a token has expired. Tokens without an expiry are never cached. Rejected tokens are never cached.
+ * <p>
+ * The hit ratio is exported as the {@code cache.gets} meters of the {@code jwt} cache, the cost of a verification as
+ * the {@value #VERIFICATION_METER_NAME} timer and the verification time hits avoided as the
+ * {@value #SAVED_METER_NAME} counter.
+ */
+@NotGenerated
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String CACHE_NAME = "jwt";
+    public static final String VERIFICATION_METER_NAME = "security.jwt.verification";
+    public static final String SAVED_METER_NAME = "security.jwt.verification.saved";
+
+    private final JwtDecoder delegate;
+
+    private final Duration expiryMargin;
+
+    private final Clock clock;
+
+    private final Cache<ByteBuffer, Jwt> cache;
+
+    private final Timer verificationTimer;
+
+    private final Counter savedCounter;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxEntries, Duration expiryMargin, MeterRegistry registry) {
+        this(delegate, maxEntries, expiryMargin, registry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maxEntries, Duration expiryMargin, MeterRegistry registry, Clock clock) {
+        this.delegate = delegate;
+        this.expiryMargin = expiryMargin;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfter(new UntilExpiryMargin()).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        this.verificationTimer = Timer.builder(VERIFICATION_METER_NAME)
+            .description("Time spent verifying the signature and parsing the claims of tokens missing from the cache.")
+            .register(registry);
+        this.savedCounter = Counter.builder(SAVED_METER_NAME)
+            .description("Verification time avoided by serving tokens from the cache, estimated by the mean verification time.")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null && isCacheable(cached)) {
+            savedCounter.increment(verificationTimer.mean(TimeUnit.SECONDS));
+            return cached;
+        }
+        long start = System.nanoTime();
+        Jwt jwt = delegate.decode(token);
+        verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (isCacheable(jwt)) {
+            cache.put(key, jwt);
+        } else if (cached != null) {
+            cache.invalidate(key);
+        }
+        return jwt;
+    }
+
+    private boolean isCacheable(Jwt jwt) {
+        return jwt.getExpiresAt() != null && remaining(jwt).compareTo(Duration.ZERO) > 0;
+    }
+
+    private Duration remaining(Jwt jwt) {
+        return Duration.between(clock.instant(), jwt.getExpiresAt().minus(expiryMargin));
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires every entry when its token enters the expiry margin.
+     */
+    private class UntilExpiryMargin implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            return Math.max(0, remaining(jwt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
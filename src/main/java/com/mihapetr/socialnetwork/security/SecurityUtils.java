@@ -20,6 +20,8 @@ public final class SecurityUtils {
 
     public static final String AUTHORITIES_KEY = "auth";
 
+    public static final String PROFILE_ID_KEY = "profile_id";
+
     private SecurityUtils() {}
 
     /**
@@ -45,6 +47,19 @@ public final class SecurityUtils {
         return null;
     }
 
+    /**
+     * Get the profile id the JWT of the current user was issued with.
+     *
+     * @return the profile id, empty if the user is not authenticated with a JWT or had no profile when it was issued.
+     */
+    public static Optional<Long> getCurrentProfileId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt && jwt.getClaim(PROFILE_ID_KEY) instanceof Number id) {
+            return Optional.of(id.longValue());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
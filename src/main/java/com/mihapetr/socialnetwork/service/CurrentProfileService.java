@@ -0,0 +1,56 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.security.SecurityUtils;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Service resolving the profile of the current user at most once per request.
+ * <p>
+ * Tokens issued by {@code /api/authenticate} carry the profile id in the {@link SecurityUtils#PROFILE_ID_KEY}
+ * claim, so most requests need no lookup at all. Otherwise, e.g. for a token issued before the profile was
+ * created, the profile id is looked up by login and kept in the request attributes for the rest of the request.
+ */
+@NotGenerated
+@Service
+public class CurrentProfileService {
+
+    private static final String PROFILE_ID_ATTRIBUTE = CurrentProfileService.class.getName() + ".profileId";
+
+    private final ProfileRepository profileRepository;
+
+    public CurrentProfileService(ProfileRepository profileRepository) {
+        this.profileRepository = profileRepository;
+    }
+
+    /**
+     * @return the id of the current user's profile, empty if the user is anonymous or has no profile.
+     */
+    public Optional<Long> getCurrentProfileId() {
+        Optional<Long> claimed = SecurityUtils.getCurrentProfileId();
+        if (claimed.isPresent()) {
+            return claimed;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(PROFILE_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long id) {
+            return Optional.of(id);
+        }
+        Optional<Long> id = SecurityUtils.getCurrentUserLogin().flatMap(profileRepository::findIdByUserLogin);
+        if (request != null) {
+            id.ifPresent(profileId -> request.setAttribute(PROFILE_ID_ATTRIBUTE, profileId, RequestAttributes.SCOPE_REQUEST));
+        }
+        return id;
+    }
+
+    /**
+     * @param login the login of a user.
+     * @return the id of the user's profile, to be embedded in the tokens issued to the user.
+     */
+    public Optional<Long> findProfileId(String login) {
+        return profileRepository.findIdByUserLogin(login);
+    }
+}
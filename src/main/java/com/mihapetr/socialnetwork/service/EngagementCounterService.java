@@ -0,0 +1,283 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
+import com.mihapetr.socialnetwork.domain.EngagementStat.EngagementStatId;
+import com.mihapetr.socialnetwork.repository.EngagementStatRepository;
+import com.mihapetr.socialnetwork.repository.projection.EngagementTotal;
+import com.mihapetr.socialnetwork.repository.projection.SubjectCount;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping the engagement counters of posts, profiles and chats, so no count ever sizes a collection.
+ * <p>
+ * Every counter lives in memory as {@link LongAdder} cells, which spread concurrent increments over striped cells
+ * instead of contending on one row or one atomic. The write paths only add to the cells, once their transaction has
+ * committed, so a rolled back write is never counted; until then its deltas are only seen by the transaction
+ * itself. The deltas are added to {@code engagement_stats} in batches every flush interval. The persisted values are
+ * loaded when the application is ready and then recounted from the database by the reconciliation job, which
+ * corrects the deltas lost when the application stopped before a flush.
+ */
+@NotGenerated
+@Service
+public class EngagementCounterService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EngagementCounterService.class);
+
+    private final EngagementStatRepository engagementStatRepository;
+
+    private final FriendGraphService friendGraphService;
+
+    private final ApplicationProperties.EngagementStats properties;
+
+    private final Map<EngagementStatId, Cell> cells = new ConcurrentHashMap<>();
+
+    /**
+     * Counters with deltas not flushed yet; a writer marks its counter after adding, so no delta is left unmarked.
+     */
+    private final Set<EngagementStatId> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+
+    public EngagementCounterService(
+        EngagementStatRepository engagementStatRepository,
+        FriendGraphService friendGraphService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.engagementStatRepository = engagementStatRepository;
+        this.friendGraphService = friendGraphService;
+        this.properties = applicationProperties.getEngagementStats();
+    }
+
+    /**
+     * The live value of a counter, and the part of it not flushed yet.
+     */
+    private static final class Cell {
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAdder pending = new LongAdder();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+        if (properties.isReconcileOnStartup()) {
+            reconcile();
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+
+    public void increment(Counter counter, Long subjectId) {
+        add(counter, subjectId, 1);
+    }
+
+    public void decrement(Counter counter, Long subjectId) {
+        add(counter, subjectId, -1);
+    }
+
+    /**
+     * Adds to a counter once the current transaction commits, or right away outside of a transaction.
+     *
+     * @param counter what is counted.
+     * @param subjectId the id of the post, profile or chat counted; nothing is counted for {@code null}.
+     * @param delta the amount to add.
+     */
+    public void add(Counter counter, Long subjectId, long delta) {
+        if (subjectId == null || delta == 0) {
+            return;
+        }
+        EngagementStatId id = new EngagementStatId(counter, subjectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionDeltas(true).deltas.merge(id, delta, Long::sum);
+        } else {
+            apply(id, delta);
+        }
+    }
+
+    private void apply(EngagementStatId id, long delta) {
+        Cell cell = cells.computeIfAbsent(id, key -> new Cell());
+        cell.total.add(delta);
+        cell.pending.add(delta);
+        dirty.add(id);
+    }
+
+    /**
+     * @param counter what is counted.
+     * @param subjectId the id of the post, profile or chat counted.
+     * @return the live value of the counter with the deltas of the current transaction, {@code 0} if nothing was
+     * ever counted.
+     */
+    public long get(Counter counter, Long subjectId) {
+        if (subjectId == null) {
+            return 0;
+        }
+        EngagementStatId id = new EngagementStatId(counter, subjectId);
+        TransactionDeltas transactionDeltas = TransactionSynchronizationManager.isSynchronizationActive() ? transactionDeltas(false) : null;
+        return committed(id) + (transactionDeltas == null ? 0 : transactionDeltas.deltas.getOrDefault(id, 0L));
+    }
+
+    private long committed(EngagementStatId id) {
+        Cell cell = cells.get(id);
+        return cell == null ? 0 : cell.total.sum();
+    }
+
+    /**
+     * The deltas counted by the current transaction, registered to be applied when it commits. A transaction
+     * suspended for a nested one keeps its own.
+     */
+    private TransactionDeltas transactionDeltas(boolean create) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionDeltas transactionDeltas && transactionDeltas.owner() == this) {
+                return transactionDeltas;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        TransactionDeltas transactionDeltas = new TransactionDeltas();
+        TransactionSynchronizationManager.registerSynchronization(transactionDeltas);
+        return transactionDeltas;
+    }
+
+    private final class TransactionDeltas implements TransactionSynchronization {
+
+        private final Map<EngagementStatId, Long> deltas = new HashMap<>();
+
+        private EngagementCounterService owner() {
+            return EngagementCounterService.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            deltas.forEach(EngagementCounterService.this::apply);
+        }
+    }
+
+    /**
+     * Adds the persisted values, read as projections rather than entities, to the counters. Nothing is flushed before,
+     * so deltas counted meanwhile are kept once.
+     */
+    public synchronized void load() {
+        List<EngagementTotal> stats = engagementStatRepository.findAllTotals();
+        for (EngagementTotal stat : stats) {
+            EngagementStatId id = new EngagementStatId(stat.counter(), stat.subjectId());
+            cells.computeIfAbsent(id, key -> new Cell()).total.add(stat.total());
+        }
+        loaded = true;
+        LOG.info("Loaded {} engagement counters", stats.size());
+    }
+
+    /**
+     * Adds the deltas counted since the previous flush to the persisted counters, all in one transaction. Deltas
+     * that could not be written are kept for the next flush.
+     *
+     * @return the number of counters written.
+     */
+    @Scheduled(fixedDelayString = "${application.engagement-stats.flush-interval:10s}")
+    public synchronized int flush() {
+        if (!loaded) {
+            return 0;
+        }
+        Map<EngagementStatId, Long> deltas = new HashMap<>();
+        for (Iterator<EngagementStatId> it = dirty.iterator(); it.hasNext();) {
+            EngagementStatId id = it.next();
+            // unmark before draining: a delta added after the drain marks the counter again
+            it.remove();
+            long delta = cells.get(id).pending.sumThenReset();
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        }
+        try {
+            engagementStatRepository.addAll(deltas);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not flush {} engagement counters, retrying at the next flush: {}", deltas.size(), e.getMessage());
+            deltas.forEach((id, delta) -> {
+                cells.get(id).pending.add(delta);
+                dirty.add(id);
+            });
+            return 0;
+        }
+        LOG.debug("Flushed {} engagement counters", deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * Recounts every counter from the database, and the friends of profiles from the {@link FriendGraphService}
+     * already in memory, and adds the difference to the counters that drifted, which is then flushed like any other
+     * delta. Counters only drift by the deltas lost when the application stopped before a
+     * flush or before applying a committed transaction. A write committing while its counter is recounted may be off
+     * by one until the next run.
+     *
+     * @return the number of counters corrected.
+     */
+    @Scheduled(cron = "${application.engagement-stats.reconcile-cron:0 30 3 * * ?}")
+    public synchronized int reconcile() {
+        if (!loaded) {
+            return 0;
+        }
+        flush();
+        int corrected =
+            reconcile(Counter.POST_COMMENTS, toMap(engagementStatRepository.countCommentsByPost())) +
+            reconcile(Counter.PROFILE_POSTS, toMap(engagementStatRepository.countPostsByProfile())) +
+            reconcile(Counter.PROFILE_FRIENDS, friendGraphService.profileIds(), id -> friendGraphService.friendsOf(id).length) +
+            reconcile(Counter.CHAT_MESSAGES, toMap(engagementStatRepository.countMessagesByChat()));
+        if (corrected > 0) {
+            LOG.warn("Corrected {} engagement counters that drifted from the database", corrected);
+        }
+        flush();
+        return corrected;
+    }
+
+    private int reconcile(Counter counter, Map<Long, Long> counts) {
+        return reconcile(counter, counts.keySet(), subjectId -> counts.getOrDefault(subjectId, 0L));
+    }
+
+    /**
+     * @param countedIds the subjects with a count, next to those already counted by the cells.
+     * @param count the actual count of a subject, {@code 0} for one without.
+     */
+    private int reconcile(Counter counter, Collection<Long> countedIds, ToLongFunction<Long> count) {
+        Set<Long> subjectIds = new HashSet<>(countedIds);
+        cells.keySet().stream().filter(id -> id.getCounter() == counter).forEach(id -> subjectIds.add(id.getSubjectId()));
+        int corrected = 0;
+        for (Long subjectId : subjectIds) {
+            EngagementStatId id = new EngagementStatId(counter, subjectId);
+            long drift = count.applyAsLong(subjectId) - committed(id);
+            if (drift != 0) {
+                apply(id, drift);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private static Map<Long, Long> toMap(List<SubjectCount> counts) {
+        return counts.stream().collect(Collectors.toMap(SubjectCount::subjectId, SubjectCount::count));
+    }
+}
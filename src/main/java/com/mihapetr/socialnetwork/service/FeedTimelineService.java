@@ -0,0 +1,138 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.repository.PostRepository;
+import com.mihapetr.socialnetwork.repository.TimelineEntryRepository;
+import com.mihapetr.socialnetwork.repository.projection.FeedPost;
+import com.mihapetr.socialnetwork.service.event.FriendshipCreatedEvent;
+import com.mihapetr.socialnetwork.service.event.PostCreatedEvent;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service maintaining the materialized home feed of every profile.
+ * <p>
+ * New posts are pushed into the timelines of the author's friends after the creating transaction commits,
+ * on the shared task executor. Authors above {@code application.feed.fanout-threshold} friends are only
+ * recorded as celebrities; their posts are pulled and merged in when a feed is read.
+ */
+@NotGenerated
+@Service
+public class FeedTimelineService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FeedTimelineService.class);
+
+    private static final Comparator<FeedPost> NEWEST_FIRST = Comparator.comparing(FeedPost::time)
+        .thenComparing(FeedPost::id)
+        .reversed();
+
+    private final TimelineEntryRepository timelineEntryRepository;
+
+    private final PostRepository postRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public FeedTimelineService(
+        TimelineEntryRepository timelineEntryRepository,
+        PostRepository postRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.postRepository = postRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostCreated(PostCreatedEvent event) {
+        fanOut(event.postId(), event.profileId(), event.time());
+    }
+
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onFriendshipCreated(FriendshipCreatedEvent event) {
+        int size = applicationProperties.getFeed().getBackfillSize();
+        timelineEntryRepository.backfill(event.profileId(), event.otherId(), size);
+        timelineEntryRepository.backfill(event.otherId(), event.profileId(), size);
+    }
+
+    /**
+     * Pushes a post into the timelines of its author and the author's friends.
+     *
+     * @param postId the id of the post.
+     * @param authorId the id of the profile that wrote the post.
+     * @param time the time of the post.
+     */
+    @Transactional
+    public void fanOut(Long postId, Long authorId, ZonedDateTime time) {
+        if (time == null) {
+            return;
+        }
+        long friends = timelineEntryRepository.countFriends(authorId);
+        if (friends > applicationProperties.getFeed().getFanoutThreshold()) {
+            LOG.debug("Profile {} has {} friends, post {} will be pulled on read", authorId, friends, postId);
+            timelineEntryRepository.markCelebrity(authorId);
+            timelineEntryRepository.pushToAuthor(postId, time, authorId);
+            return;
+        }
+        int pushed = timelineEntryRepository.fanOut(postId, time, authorId);
+        LOG.debug("Fanned out post {} into {} timelines", postId, pushed);
+    }
+
+    /**
+     * Reads one page of the feed of a profile, newest first.
+     *
+     * @param profileId the id of the profile whose feed is read.
+     * @param before time of the last post of the previous page, or {@code null} for the first page.
+     * @param beforeId id of the last post of the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of posts to return.
+     * @return the page of posts.
+     */
+    @Transactional(readOnly = true)
+    public List<FeedPost> getFeed(Long profileId, ZonedDateTime before, Long beforeId, Limit limit) {
+        List<FeedPost> posts = before == null
+            ? timelineEntryRepository.findTimeline(profileId, limit)
+            : timelineEntryRepository.findTimelineBefore(profileId, before, beforeId, limit);
+
+        List<Long> celebrities = timelineEntryRepository.findCelebrityFriendIds(profileId);
+        if (celebrities.isEmpty()) {
+            return posts;
+        }
+        List<FeedPost> pulled = before == null
+            ? postRepository.findFeedOfAuthors(celebrities, limit)
+            : postRepository.findFeedOfAuthorsBefore(celebrities, before, beforeId, limit);
+        return merge(posts, pulled, limit.max());
+    }
+
+    private List<FeedPost> merge(List<FeedPost> pushed, List<FeedPost> pulled, int size) {
+        List<FeedPost> merged = new ArrayList<>(pushed.size() + pulled.size());
+        Set<Long> seen = new HashSet<>();
+        for (FeedPost post : pushed) {
+            if (seen.add(post.id())) {
+                merged.add(post);
+            }
+        }
+        for (FeedPost post : pulled) {
+            if (seen.add(post.id())) {
+                merged.add(post);
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > size ? merged.subList(0, size) : merged;
+    }
+}
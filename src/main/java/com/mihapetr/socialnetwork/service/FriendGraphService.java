@@ -0,0 +1,284 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import com.mihapetr.socialnetwork.service.event.FriendshipCreatedEvent;
+import com.mihapetr.socialnetwork.service.event.ProfileDeletedEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping the friendship graph in memory, so graph queries never hydrate {@code Profile} entities.
+ * <p>
+ * Every profile maps to a sorted, deduplicated {@code long[]} of its friends' ids. Arrays are never modified in
+ * place: writers copy, and readers see either the old or the new array without locking. The graph is loaded
+ * when the application is ready and kept current from {@link FriendshipCreatedEvent} and
+ * {@link ProfileDeletedEvent} after their transactions commit.
+ */
+@NotGenerated
+@Service
+public class FriendGraphService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FriendGraphService.class);
+
+    private static final long[] NO_FRIENDS = new long[0];
+
+    private final ProfileRepository profileRepository;
+
+    private volatile Map<Long, long[]> adjacency = new ConcurrentHashMap<>();
+
+    public FriendGraphService(ProfileRepository profileRepository) {
+        this.profileRepository = profileRepository;
+    }
+
+    /**
+     * A profile suggested as a friend, with the number of friends it shares with the profile it is suggested to.
+     */
+    public record Suggestion(long profileId, int mutualFriends) {}
+
+    /**
+     * Runs before the other listeners of the ready event, which may read the graph.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        load();
+    }
+
+    @TransactionalEventListener
+    public void onFriendshipCreated(FriendshipCreatedEvent event) {
+        addFriendship(event.profileId(), event.otherId());
+    }
+
+    @TransactionalEventListener
+    public void onProfileDeleted(ProfileDeletedEvent event) {
+        removeProfile(event.profileId());
+    }
+
+    /**
+     * Replaces the graph with the friendships currently in the database.
+     */
+    public synchronized void load() {
+        List<Friendship> friendships = profileRepository.findAllFriendships();
+        Map<Long, int[]> degrees = new HashMap<>();
+        for (Friendship friendship : friendships) {
+            if (isSelf(friendship)) {
+                continue;
+            }
+            degrees.computeIfAbsent(friendship.profileId(), id -> new int[1])[0]++;
+            degrees.computeIfAbsent(friendship.otherId(), id -> new int[1])[0]++;
+        }
+        Map<Long, long[]> friends = new HashMap<>(degrees.size() * 2);
+        degrees.forEach((id, degree) -> friends.put(id, new long[degree[0]]));
+        for (Friendship friendship : friendships) {
+            if (isSelf(friendship)) {
+                continue;
+            }
+            append(friends, degrees, friendship.profileId(), friendship.otherId());
+            append(friends, degrees, friendship.otherId(), friendship.profileId());
+        }
+        Map<Long, long[]> loaded = new ConcurrentHashMap<>(friends.size() * 2);
+        friends.forEach((id, ids) -> loaded.put(id, sortedDistinct(ids)));
+        adjacency = loaded;
+        LOG.info("Loaded friend graph of {} profiles and {} friendships", loaded.size(), friendships.size());
+    }
+
+    /**
+     * A profile is never its own friend, as in {@link #addFriendship(long, long)}.
+     */
+    private static boolean isSelf(Friendship friendship) {
+        return friendship.profileId().equals(friendship.otherId());
+    }
+
+    /**
+     * Records a friendship in both directions.
+     *
+     * @param profileId the id of one profile.
+     * @param otherId the id of the other profile.
+     */
+    public synchronized void addFriendship(long profileId, long otherId) {
+        if (profileId == otherId) {
+            return;
+        }
+        adjacency.put(profileId, insert(friendsOf(profileId), otherId));
+        adjacency.put(otherId, insert(friendsOf(otherId), profileId));
+    }
+
+    /**
+     * Removes a profile and every friendship it takes part in.
+     *
+     * @param profileId the id of the removed profile.
+     */
+    public synchronized void removeProfile(long profileId) {
+        long[] friends = adjacency.remove(profileId);
+        if (friends == null) {
+            return;
+        }
+        for (long friend : friends) {
+            long[] theirs = friendsOf(friend);
+            int index = Arrays.binarySearch(theirs, profileId);
+            if (index >= 0) {
+                long[] copy = new long[theirs.length - 1];
+                System.arraycopy(theirs, 0, copy, 0, index);
+                System.arraycopy(theirs, index + 1, copy, index, theirs.length - index - 1);
+                adjacency.put(friend, copy);
+            }
+        }
+    }
+
+    /**
+     * @param profileId the id of the profile.
+     * @return the sorted ids of the profile's friends; the array must not be modified.
+     */
+    public long[] friendsOf(long profileId) {
+        return adjacency.getOrDefault(profileId, NO_FRIENDS);
+    }
+
+    /**
+     * @return the ids of the profiles in the graph, including those whose friends were all deleted.
+     */
+    public Set<Long> profileIds() {
+        return Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    public boolean areFriends(long profileId, long otherId) {
+        return Arrays.binarySearch(friendsOf(profileId), otherId) >= 0;
+    }
+
+    /**
+     * Counts the friends two profiles have in common.
+     *
+     * @param profileId the id of one profile.
+     * @param otherId the id of the other profile.
+     * @return the number of common friends.
+     */
+    public int countMutualFriends(long profileId, long otherId) {
+        long[] a = friendsOf(profileId);
+        long[] b = friendsOf(otherId);
+        if (a.length > b.length) {
+            long[] swap = a;
+            a = b;
+            b = swap;
+        }
+        if (a.length == 0) {
+            return 0;
+        }
+        // when one list is much shorter, probing the longer one beats walking both
+        if (a.length * 32 < b.length) {
+            int count = 0;
+            for (long id : a) {
+                if (Arrays.binarySearch(b, id) >= 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Suggests friends of friends, ranked by the number of mutual friends, then by id.
+     *
+     * @param profileId the id of the profile to make suggestions to.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions, best first.
+     */
+    public List<Suggestion> suggestFriends(long profileId, int size) {
+        long[] friends = friendsOf(profileId);
+        if (friends.length == 0 || size <= 0) {
+            return Collections.emptyList();
+        }
+        int total = 0;
+        long[][] lists = new long[friends.length][];
+        for (int i = 0; i < friends.length; i++) {
+            lists[i] = friendsOf(friends[i]);
+            total += lists[i].length;
+        }
+        // gather every friend of a friend once per shared friend, then count runs after sorting
+        long[] candidates = new long[total];
+        int n = 0;
+        for (long[] list : lists) {
+            for (long candidate : list) {
+                if (candidate != profileId && Arrays.binarySearch(friends, candidate) < 0) {
+                    candidates[n++] = candidate;
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, n);
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int start = 0; start < n;) {
+            int end = start + 1;
+            while (end < n && candidates[end] == candidates[start]) {
+                end++;
+            }
+            suggestions.add(new Suggestion(candidates[start], end - start));
+            start = end;
+        }
+        suggestions.sort((x, y) -> x.mutualFriends() != y.mutualFriends()
+            ? Integer.compare(y.mutualFriends(), x.mutualFriends())
+            : Long.compare(x.profileId(), y.profileId())
+        );
+        return suggestions.size() > size ? new ArrayList<>(suggestions.subList(0, size)) : suggestions;
+    }
+
+    private static void append(Map<Long, long[]> friends, Map<Long, int[]> cursors, long profileId, long friendId) {
+        int[] cursor = cursors.get(profileId);
+        long[] ids = friends.get(profileId);
+        // the degree counter counts down as the array is filled
+        ids[ids.length - cursor[0]] = friendId;
+        cursor[0]--;
+    }
+
+    private static long[] sortedDistinct(long[] ids) {
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[n++] = ids[i];
+            }
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int at = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+}
@@ -0,0 +1,217 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.OutboundMail;
+import com.mihapetr.socialnetwork.repository.OutboundMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the mails queued in the outbox by {@link MailService}.
+ * <p>
+ * Every run claims the due mails in batches and sends each batch over a single SMTP connection, so a burst of
+ * registrations costs one handshake per batch instead of one per mail, on the scheduler thread rather than the
+ * {@code @Async} executor. A claim holds the mails for the claim timeout, so several instances never send the same
+ * mail while a dispatcher stopped halfway only delays its batch. Failed mails are retried with exponential backoff.
+ * <p>
+ * Exported meters: {@value #SENT_METER_NAME}, {@value #FAILED_METER_NAME} by whether the mail is retried,
+ * {@value #BATCH_METER_NAME} and the {@value #PENDING_METER_NAME} gauge.
+ */
+@NotGenerated
+@Service
+public class MailDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailDispatcher.class);
+
+    public static final String SENT_METER_NAME = "mail.outbox.sent";
+    public static final String FAILED_METER_NAME = "mail.outbox.failed";
+    public static final String BATCH_METER_NAME = "mail.outbox.batch";
+    public static final String PENDING_METER_NAME = "mail.outbox.pending";
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final OutboundMailRepository outboundMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final String from;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter abandonedCounter;
+
+    private final Timer batchTimer;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    public MailDispatcher(
+        OutboundMailRepository outboundMailRepository,
+        JavaMailSender javaMailSender,
+        TransactionTemplate transactionTemplate,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = applicationProperties.getMailOutbox();
+        this.from = jHipsterProperties.getMail().getFrom();
+        this.sentCounter = Counter.builder(SENT_METER_NAME).description("Mails accepted by the SMTP server.").register(meterRegistry);
+        this.retriedCounter = Counter.builder(FAILED_METER_NAME)
+            .description("Failed attempts to send a mail.")
+            .tag("outcome", "retry")
+            .register(meterRegistry);
+        this.abandonedCounter = Counter.builder(FAILED_METER_NAME)
+            .description("Failed attempts to send a mail.")
+            .tag("outcome", "abandoned")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder(BATCH_METER_NAME).description("Time spent sending one batch of mails.").register(meterRegistry);
+        Gauge.builder(PENDING_METER_NAME, pending, AtomicLong::get)
+            .description("Mails waiting in the outbox, as of the last run of the dispatcher.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Sends every mail that is due, batch after batch, until the outbox is drained.
+     *
+     * @return the number of mails sent.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-outbox.dispatch-interval:5s}")
+    public int dispatch() {
+        int sent = 0;
+        int claimed;
+        do {
+            List<OutboundMail> batch = claim();
+            claimed = batch.size();
+            if (!batch.isEmpty()) {
+                sent += batchTimer.record(() -> send(batch));
+            }
+        } while (claimed == properties.getBatchSize());
+        pending.set(outboundMailRepository.countByStatus(OutboundMail.Status.PENDING));
+        return sent;
+    }
+
+    private List<OutboundMail> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboundMail> due = outboundMailRepository.findDueForUpdate(
+                OutboundMail.Status.PENDING,
+                now,
+                PageRequest.ofSize(properties.getBatchSize())
+            );
+            due.forEach(mail -> mail.setNextAttemptAt(now.plus(properties.getClaimTimeout())));
+            return due;
+        });
+    }
+
+    /**
+     * @return the number of mails of the batch the SMTP server accepted.
+     */
+    private int send(List<OutboundMail> batch) {
+        Map<MimeMessage, OutboundMail> mails = new IdentityHashMap<>();
+        Map<OutboundMail, String> failures = new IdentityHashMap<>();
+        for (OutboundMail mail : batch) {
+            try {
+                mails.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail, e.getMessage());
+            }
+        }
+        try {
+            javaMailSender.send(mails.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages == null || failedMessages.isEmpty()) {
+                // the connection itself failed
+                mails.values().forEach(mail -> failures.put(mail, e.getMessage()));
+            } else {
+                failedMessages.forEach((message, cause) -> {
+                    OutboundMail mail = mails.get(message);
+                    if (mail != null) {
+                        failures.put(mail, cause.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            mails.values().forEach(mail -> failures.put(mail, e.getMessage()));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        batch.stream().filter(mail -> !failures.containsKey(mail)).forEach(mail -> sentIds.add(mail.getId()));
+        transactionTemplate.executeWithoutResult(status -> {
+            outboundMailRepository.deleteAllByIdInBatch(sentIds);
+            failures.forEach(this::recordFailure);
+        });
+        sentCounter.increment(sentIds.size());
+        LOG.debug("Sent {} of {} mails", sentIds.size(), batch.size());
+        return sentIds.size();
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.getMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(from);
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.getHtml());
+        return mimeMessage;
+    }
+
+    private void recordFailure(OutboundMail claimed, String error) {
+        outboundMailRepository
+            .findById(claimed.getId())
+            .ifPresent(mail -> {
+                int attempts = mail.getAttempts() + 1;
+                mail.setAttempts(attempts);
+                mail.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
+                if (attempts >= properties.getMaxAttempts()) {
+                    LOG.warn("Giving up on email to '{}' after {} attempts: {}", mail.getRecipient(), attempts, error);
+                    mail.setStatus(OutboundMail.Status.FAILED);
+                    abandonedCounter.increment();
+                } else {
+                    LOG.debug("Email to '{}' could not be sent, retrying: {}", mail.getRecipient(), error);
+                    mail.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                    retriedCounter.increment();
+                }
+            });
+    }
+
+    /**
+     * @return the delay before the next attempt, doubling from the initial backoff up to the maximum.
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+}
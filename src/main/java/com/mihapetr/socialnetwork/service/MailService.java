@@ -1,26 +1,24 @@
 package com.mihapetr.socialnetwork.service;
 
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.OutboundMail;
 import com.mihapetr.socialnetwork.domain.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import com.mihapetr.socialnetwork.repository.OutboundMailRepository;
+import java.time.Instant;
 import java.util.Locale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for queueing emails in the outbox.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are rendered right away and stored in the outbox within the caller's transaction, so a mail is queued
+ * only when that transaction commits; the {@link MailDispatcher} sends the queued mails in batches on its schedule.
  */
 @Service
 public class MailService {
@@ -33,7 +31,7 @@ public class MailService {
 
     private final JHipsterProperties jHipsterProperties;
 
-    private final JavaMailSender javaMailSender;
+    private final OutboundMailRepository outboundMailRepository;
 
     private final MessageSource messageSource;
 
@@ -41,24 +39,24 @@ public class MailService {
 
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
+        OutboundMailRepository outboundMailRepository,
         MessageSource messageSource,
         SpringTemplateEngine templateEngine
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
+        this.outboundMailRepository = outboundMailRepository;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        sendEmailSync(to, subject, content, isMultipart, isHtml);
+        queueEmail(to, subject, content, isMultipart, isHtml);
     }
 
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    @NotGenerated
+    private void queueEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         LOG.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
@@ -66,22 +64,19 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            LOG.warn("Email could not be sent to user '{}'", to, e);
-        }
+        Instant now = Instant.now();
+        outboundMailRepository.save(
+            new OutboundMail()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .multipart(isMultipart)
+                .html(isHtml)
+                .nextAttemptAt(now)
+                .createdAt(now)
+        );
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         sendEmailFromTemplateSync(user, templateName, titleKey);
     }
@@ -97,22 +92,19 @@ public class MailService {
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
         String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmailSync(user.getEmail(), subject, content, false, true);
+        queueEmail(user.getEmail(), subject, content, false, true);
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         LOG.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         LOG.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
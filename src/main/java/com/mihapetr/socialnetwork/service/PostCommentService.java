@@ -0,0 +1,104 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
+import com.mihapetr.socialnetwork.domain.Message;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.repository.CommentRepository;
+import com.mihapetr.socialnetwork.repository.PostRepository;
+import com.mihapetr.socialnetwork.repository.projection.CommentRow;
+import com.mihapetr.socialnetwork.service.dto.PostedCommentDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.mapper.CommentMapper;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service adding comments to posts.
+ * <p>
+ * A comment is appended by inserting its message and comment rows and incrementing the comment counter of the post
+ * in memory; neither the post nor its comments are loaded or locked, so commenting costs the same however many
+ * comments the post has.
+ */
+@NotGenerated
+@Service
+@Transactional
+public class PostCommentService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostCommentService.class);
+
+    private final PostRepository postRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final CommentMapper commentMapper;
+
+    private final EngagementCounterService engagementCounterService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PostCommentService(
+        PostRepository postRepository,
+        CommentRepository commentRepository,
+        CommentMapper commentMapper,
+        EngagementCounterService engagementCounterService,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.commentMapper = commentMapper;
+        this.engagementCounterService = engagementCounterService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @param postId the id of the post to comment on.
+     * @param author the profile of the current user.
+     * @param content the text of the comment.
+     * @return the comment, empty if there is no such post.
+     */
+    public Optional<PostedCommentDTO> append(Long postId, Profile author, String content) {
+        if (!postRepository.existsById(postId)) {
+            return Optional.empty();
+        }
+        User user = author.getUser();
+        String login = user == null ? null : user.getLogin();
+        Message message = new Message().senderName(login).content(content).time(ZonedDateTime.now());
+        Comment comment = new Comment().parent(message).profile(author).post(postRepository.getReferenceById(postId));
+        commentRepository.save(comment);
+        engagementCounterService.increment(Counter.POST_COMMENTS, postId);
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.Content.COMMENT, comment.getId()));
+        LOG.debug("Appended Comment {} to Post {}", comment.getId(), postId);
+
+        CommentRow row = new CommentRow(
+            comment.getId(),
+            postId,
+            message.getId(),
+            message.getSenderName(),
+            message.getContent(),
+            message.getTime(),
+            author.getId(),
+            author.getPictureHash(),
+            user == null ? null : user.getId(),
+            login
+        );
+        return Optional.of(new PostedCommentDTO(commentMapper.toDto(row), engagementCounterService.get(Counter.POST_COMMENTS, postId)));
+    }
+
+    /**
+     * Keeps the count of a post right after a comment was saved or deleted by the generic comment endpoints.
+     *
+     * @param postId the id of the post of the comment.
+     * @param delta {@code 1} for a new comment, {@code -1} for a deleted one.
+     */
+    public void countComment(Long postId, int delta) {
+        engagementCounterService.add(Counter.POST_COMMENTS, postId, delta);
+    }
+}
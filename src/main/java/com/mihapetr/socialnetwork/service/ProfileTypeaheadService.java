@@ -0,0 +1,487 @@
+package com.mihapetr.socialnetwork.service;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.ProfileName;
+import com.mihapetr.socialnetwork.service.dto.ProfileSuggestionDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.event.ProfileDeletedEvent;
+import com.mihapetr.socialnetwork.service.event.UserChangedEvent;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service suggesting profiles as their users' logins and names are typed, closest in the friend graph first.
+ * <p>
+ * Logins and names are split into words folded to lower case without accents, kept in memory in a sorted array
+ * pointing at the entry of each word's profile, so the words starting with a prefix are one range found by binary
+ * search. Changes go to a sorted map searched alongside the array, and are merged into a new array in the background
+ * once enough of them pile up. An entry replaced or removed since is told apart by no longer being the current entry
+ * of its profile, so neither structure ever needs a delete. The index is loaded when the application is ready and
+ * kept current from {@link UserChangedEvent}, {@link ContentChangedEvent} and {@link ProfileDeletedEvent} after
+ * their transactions commit.
+ */
+@NotGenerated
+@Service
+public class ProfileTypeaheadService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProfileTypeaheadService.class);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * The number of changes kept beside the sorted array before it is rebuilt.
+     */
+    static final int COMPACTION_THRESHOLD = 10_000;
+
+    /**
+     * The most friendships of friends, and separately words, looked at per suggestion, so a prefix of one letter
+     * costs no more than a long one.
+     */
+    static final int MAX_SCANNED = 10_000;
+
+    private static final Candidate NOT_MATCHING = new Candidate(null, false);
+
+    private static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparing((Candidate candidate) -> !candidate.friend)
+        .thenComparing(candidate -> -candidate.mutualFriends)
+        .thenComparing(candidate -> candidate.entry.login);
+
+    private final ProfileRepository profileRepository;
+
+    private final FriendGraphService friendGraphService;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the profiles of each user, guarded by {@code this}.
+     */
+    private final Map<Long, Set<Long>> profilesByUser = new HashMap<>();
+
+    private final ConcurrentSkipListMap<Key, Entry> changes = new ConcurrentSkipListMap<>();
+
+    private final Object compaction = new Object();
+
+    private volatile Words words = new Words(new String[0], new Entry[0]);
+
+    /**
+     * The number of changes since the array was last built, guarded by {@code this}.
+     */
+    private int changed;
+
+    public ProfileTypeaheadService(ProfileRepository profileRepository, FriendGraphService friendGraphService) {
+        this.profileRepository = profileRepository;
+        this.friendGraphService = friendGraphService;
+    }
+
+    /**
+     * An indexed profile; entries are compared by identity, so a replaced entry never passes for the current one.
+     */
+    private static final class Entry {
+
+        private final long profileId;
+
+        private final long userId;
+
+        private final String login;
+
+        private final String firstName;
+
+        private final String lastName;
+
+        private final String[] words;
+
+        private Entry(ProfileName name) {
+            this.profileId = name.profileId();
+            this.userId = name.userId();
+            this.login = name.login();
+            this.firstName = name.firstName();
+            this.lastName = name.lastName();
+            Set<String> distinct = new LinkedHashSet<>();
+            for (String text : new String[] { name.login(), name.firstName(), name.lastName() }) {
+                distinct.addAll(Arrays.asList(split(text)));
+            }
+            this.words = distinct.toArray(String[]::new);
+        }
+
+        /**
+         * @return whether every prefix starts some word of the entry.
+         */
+        private boolean matches(String[] prefixes) {
+            for (String prefix : prefixes) {
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(prefix)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record Key(String word, long profileId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byWord = word.compareTo(other.word);
+            return byWord != 0 ? byWord : Long.compare(profileId, other.profileId);
+        }
+    }
+
+    /**
+     * Every word with the entry it belongs to, sorted by word, then profile id; never modified once built.
+     */
+    private record Words(String[] words, Entry[] entries) {
+        private int firstStartingWith(String prefix) {
+            int low = 0;
+            int high = words.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (words[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final Entry entry;
+
+        private final boolean friend;
+
+        private int mutualFriends;
+
+        private Candidate(Entry entry, boolean friend) {
+            this.entry = entry;
+            this.friend = friend;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        replaceUser(event.userId(), profileRepository.findNamesByUser(event.userId()));
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        // profiles are created and reassigned to users through the same endpoints that change their status
+        if (event.content() == ContentChangedEvent.Content.PROFILE) {
+            List<ProfileName> names = profileRepository.findNames(List.of(event.id()));
+            if (names.isEmpty()) {
+                remove(event.id());
+            } else {
+                names.forEach(this::put);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProfileDeleted(ProfileDeletedEvent event) {
+        remove(event.profileId());
+    }
+
+    /**
+     * Replaces the index with the logins and names currently in the database.
+     */
+    public void load() {
+        List<ProfileName> names = profileRepository.findAllNames();
+        replaceAll(names);
+        LOG.info("Loaded typeahead index of {} profiles and {} words", entries.size(), words.words().length);
+    }
+
+    /**
+     * Replaces the index with the given logins and names.
+     *
+     * @param names the logins and names of every profile.
+     */
+    public void replaceAll(Collection<ProfileName> names) {
+        synchronized (compaction) {
+            List<Entry> loaded = names.stream().map(Entry::new).toList();
+            Words built = build(loaded);
+            synchronized (this) {
+                entries.clear();
+                profilesByUser.clear();
+                for (Entry entry : loaded) {
+                    entries.put(entry.profileId, entry);
+                    profilesByUser.computeIfAbsent(entry.userId, id -> new HashSet<>()).add(entry.profileId);
+                }
+                words = built;
+                changes.clear();
+                changed = 0;
+            }
+        }
+    }
+
+    /**
+     * Indexes a profile, replacing what was indexed for it before.
+     *
+     * @param name the login and name of the profile's user.
+     */
+    public synchronized void put(ProfileName name) {
+        Entry entry = new Entry(name);
+        for (String word : entry.words) {
+            changes.put(new Key(word, entry.profileId), entry);
+        }
+        Entry previous = entries.put(entry.profileId, entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        profilesByUser.computeIfAbsent(entry.userId, id -> new HashSet<>()).add(entry.profileId);
+        changed++;
+    }
+
+    /**
+     * Removes a profile from the index.
+     *
+     * @param profileId the id of the removed profile.
+     */
+    public synchronized void remove(long profileId) {
+        Entry previous = entries.remove(profileId);
+        if (previous != null) {
+            unlink(previous);
+            changed++;
+        }
+    }
+
+    /**
+     * Replaces the profiles indexed for a user.
+     *
+     * @param userId the id of the user.
+     * @param names the logins and names of the user's profiles, empty if the user was deleted.
+     */
+    public synchronized void replaceUser(long userId, List<ProfileName> names) {
+        Set<Long> kept = new HashSet<>();
+        for (ProfileName name : names) {
+            kept.add(name.profileId());
+        }
+        for (Long profileId : new ArrayList<>(profilesByUser.getOrDefault(userId, Set.of()))) {
+            if (!kept.contains(profileId)) {
+                remove(profileId);
+            }
+        }
+        names.forEach(this::put);
+    }
+
+    private void unlink(Entry entry) {
+        Set<Long> profiles = profilesByUser.get(entry.userId);
+        if (profiles != null && profiles.remove(entry.profileId) && profiles.isEmpty()) {
+            profilesByUser.remove(entry.userId);
+        }
+    }
+
+    /**
+     * Merges the changes into a new sorted array once there are enough of them.
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void compactIfNeeded() {
+        int pending;
+        synchronized (this) {
+            pending = changed;
+        }
+        if (pending >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Merges the changes into a new sorted array; suggestions keep being served meanwhile.
+     */
+    public void compact() {
+        synchronized (compaction) {
+            List<Entry> current;
+            List<Map.Entry<Key, Entry>> merged;
+            synchronized (this) {
+                current = new ArrayList<>(entries.values());
+                merged = new ArrayList<>(changes.entrySet());
+                changed = 0;
+            }
+            words = build(current);
+            // a change made after the snapshot maps its key to a newer entry, and stays
+            for (Map.Entry<Key, Entry> change : merged) {
+                changes.remove(change.getKey(), change.getValue());
+            }
+            LOG.debug("Compacted typeahead index of {} profiles, merging {} changes", current.size(), merged.size());
+        }
+    }
+
+    private static Words build(List<Entry> entries) {
+        List<Key> keys = new ArrayList<>();
+        Map<Long, Entry> byProfile = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries) {
+            byProfile.put(entry.profileId, entry);
+            for (String word : entry.words) {
+                keys.add(new Key(word, entry.profileId));
+            }
+        }
+        keys.sort(null);
+        String[] words = new String[keys.size()];
+        Entry[] owners = new Entry[keys.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = keys.get(i).word();
+            owners[i] = byProfile.get(keys.get(i).profileId());
+        }
+        return new Words(words, owners);
+    }
+
+    /**
+     * Suggests the profiles with a word starting with each word of a query: friends first, then friends of friends,
+     * both by the number of mutual friends, then anyone else.
+     * <p>
+     * Friends of friends are found among at most {@link #MAX_SCANNED} friendships of friends, and counted mutual
+     * friends among those.
+     *
+     * @param profileId the id of the profile of the user typing, which is never suggested.
+     * @param query the words typed so far, the last one possibly incomplete.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions, closest first.
+     */
+    public List<ProfileSuggestionDTO> suggest(long profileId, String query, int size) {
+        String[] prefixes = split(query);
+        if (prefixes.length == 0 || size <= 0) {
+            return List.of();
+        }
+        Set<Long> seen = new HashSet<>();
+        seen.add(profileId);
+        List<Candidate> closest = new ArrayList<>();
+        long[] friends = friendGraphService.friendsOf(profileId);
+        for (long friend : friends) {
+            Entry entry = entries.get(friend);
+            if (entry != null && entry.matches(prefixes)) {
+                Candidate candidate = new Candidate(entry, true);
+                candidate.mutualFriends = friendGraphService.countMutualFriends(profileId, friend);
+                closest.add(candidate);
+                seen.add(friend);
+            }
+        }
+        Map<Long, Candidate> friendsOfFriends = new HashMap<>();
+        int budget = MAX_SCANNED;
+        scan: for (long friend : friends) {
+            for (long other : friendGraphService.friendsOf(friend)) {
+                if (budget-- == 0) {
+                    break scan;
+                }
+                if (seen.contains(other) || Arrays.binarySearch(friends, other) >= 0) {
+                    continue;
+                }
+                Candidate candidate = friendsOfFriends.get(other);
+                if (candidate == null) {
+                    Entry entry = entries.get(other);
+                    candidate = entry != null && entry.matches(prefixes) ? new Candidate(entry, false) : NOT_MATCHING;
+                    friendsOfFriends.put(other, candidate);
+                }
+                if (candidate != NOT_MATCHING) {
+                    candidate.mutualFriends++;
+                }
+            }
+        }
+        for (Candidate candidate : friendsOfFriends.values()) {
+            if (candidate != NOT_MATCHING) {
+                closest.add(candidate);
+                seen.add(candidate.entry.profileId);
+            }
+        }
+        closest.sort(CLOSEST_FIRST);
+        List<ProfileSuggestionDTO> suggestions = new ArrayList<>(size);
+        for (Candidate candidate : closest) {
+            if (suggestions.size() == size) {
+                return suggestions;
+            }
+            suggestions.add(toDto(candidate.entry, candidate.friend, candidate.mutualFriends));
+        }
+        for (Entry entry : findOthers(prefixes, seen, size - suggestions.size())) {
+            suggestions.add(toDto(entry, false, 0));
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return at most {@code size} current entries matching the prefixes and not yet seen, by the word matching the
+     * longest prefix.
+     */
+    private List<Entry> findOthers(String[] prefixes, Set<Long> seen, int size) {
+        String longest = prefixes[0];
+        for (String prefix : prefixes) {
+            if (prefix.length() > longest.length()) {
+                longest = prefix;
+            }
+        }
+        List<Key> found = new ArrayList<>();
+        Map<Long, Entry> matched = new HashMap<>();
+        Words current = words;
+        int start = current.firstStartingWith(longest);
+        int end = Math.min(current.words().length, start + MAX_SCANNED);
+        for (int i = start; i < end && matched.size() < size; i++) {
+            if (!current.words()[i].startsWith(longest)) {
+                break;
+            }
+            collect(current.words()[i], current.entries()[i], prefixes, seen, found, matched);
+        }
+        int scanned = 0;
+        for (Map.Entry<Key, Entry> change : changes.tailMap(new Key(longest, Long.MIN_VALUE)).entrySet()) {
+            if (!change.getKey().word().startsWith(longest) || scanned++ == MAX_SCANNED || matched.size() == 2 * size) {
+                break;
+            }
+            collect(change.getKey().word(), change.getValue(), prefixes, seen, found, matched);
+        }
+        // each source gave its first matches by word, at least as many as are returned, so merging them keeps the first
+        found.sort(null);
+        return found.stream().limit(size).map(key -> matched.get(key.profileId())).toList();
+    }
+
+    private void collect(String word, Entry entry, String[] prefixes, Set<Long> seen, List<Key> found, Map<Long, Entry> matched) {
+        if (entries.get(entry.profileId) == entry && !seen.contains(entry.profileId) && entry.matches(prefixes)) {
+            if (matched.putIfAbsent(entry.profileId, entry) == null) {
+                found.add(new Key(word, entry.profileId));
+            }
+        }
+    }
+
+    private static ProfileSuggestionDTO toDto(Entry entry, boolean friend, int mutualFriends) {
+        return new ProfileSuggestionDTO(entry.profileId, entry.login, entry.firstName, entry.lastName, friend, mutualFriends);
+    }
+
+    /**
+     * @return the words of a text, in lower case and without accents.
+     */
+    static String[] split(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+}
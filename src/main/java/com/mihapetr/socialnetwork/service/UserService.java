@@ -10,12 +10,14 @@ import com.mihapetr.socialnetwork.security.AuthoritiesConstants;
 import com.mihapetr.socialnetwork.security.SecurityUtils;
 import com.mihapetr.socialnetwork.service.dto.AdminUserDTO;
 import com.mihapetr.socialnetwork.service.dto.UserDTO;
+import com.mihapetr.socialnetwork.service.event.UserChangedEvent;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -39,10 +41,18 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -122,6 +132,7 @@ public class UserService {
         newUser = activateUser(newUser);
 
         userRepository.save(newUser);
+        publishUserChanged(newUser);
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -138,9 +149,15 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        publishUserChanged(existingUser);
         return true;
     }
 
+    @NotGenerated
+    private void publishUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+    }
+
     public User createUser(AdminUserDTO userDTO) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
@@ -171,6 +188,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
+        publishUserChanged(user);
         LOG.debug("Created Information for User: {}", user);
         return user;
     }
@@ -205,6 +223,7 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 userRepository.save(user);
+                publishUserChanged(user);
                 LOG.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -216,6 +235,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                publishUserChanged(user);
                 LOG.debug("Deleted User: {}", user);
             });
     }
@@ -241,6 +261,7 @@ public class UserService {
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
                 userRepository.save(user);
+                publishUserChanged(user);
                 LOG.debug("Changed Information for User: {}", user);
             });
     }
@@ -292,6 +313,7 @@ public class UserService {
             .forEach(user -> {
                 LOG.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                publishUserChanged(user);
             });
     }
 
@@ -0,0 +1,16 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for the {@link com.mihapetr.socialnetwork.domain.Chat} entity with its participants.
+ */
+@NotGenerated
+public record ChatDTO(Long id, String initiatorName, Boolean accepted, Long messageCount, List<ProfileRefDTO> profiles)
+    implements Serializable {
+    public ChatDTO profiles(List<ProfileRefDTO> profiles) {
+        return new ChatDTO(id, initiatorName, accepted, messageCount, profiles);
+    }
+}
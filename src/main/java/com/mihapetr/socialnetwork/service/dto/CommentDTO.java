@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO for the {@link com.mihapetr.socialnetwork.domain.Comment} entity, its text being the parent message.
+ */
+@NotGenerated
+public record CommentDTO(Long id, MessageDTO parent, EntityRefDTO post, ProfileRefDTO profile) implements Serializable {}
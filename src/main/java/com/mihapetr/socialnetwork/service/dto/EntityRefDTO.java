@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO referencing a related entity by its id only.
+ */
+@NotGenerated
+public record EntityRefDTO(Long id) implements Serializable {}
@@ -0,0 +1,12 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO for the {@link com.mihapetr.socialnetwork.domain.Message} entity.
+ */
+@NotGenerated
+public record MessageDTO(Long id, String senderName, String content, ZonedDateTime time, EntityRefDTO chat, EntityRefDTO comment)
+    implements Serializable {}
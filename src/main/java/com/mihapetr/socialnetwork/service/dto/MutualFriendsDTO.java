@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO representing another profile with the number of friends it shares with the current user.
+ */
+@NotGenerated
+public record MutualFriendsDTO(Long profileId, String login, int mutualFriends) implements Serializable {}
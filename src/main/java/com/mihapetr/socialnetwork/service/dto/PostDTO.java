@@ -0,0 +1,28 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A DTO for the {@link com.mihapetr.socialnetwork.domain.Post} entity.
+ * <p>
+ * The comments are only read for a single post and are {@code null} in lists.
+ */
+@NotGenerated
+public record PostDTO(
+    Long id,
+    String description,
+    ZonedDateTime time,
+    String imageHash,
+    String imageContentType,
+    Long commentCount,
+    ProfileRefDTO profile,
+    List<CommentDTO> comments
+)
+    implements Serializable {
+    public PostDTO comments(List<CommentDTO> comments) {
+        return new PostDTO(id, description, time, imageHash, imageContentType, commentCount, profile, comments);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a comment just added to a post, with the number of comments the post now has.
+ */
+@NotGenerated
+public record PostedCommentDTO(CommentDTO comment, Long commentCount) implements Serializable {}
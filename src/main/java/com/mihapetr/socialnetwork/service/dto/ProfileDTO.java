@@ -0,0 +1,40 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for the {@link com.mihapetr.socialnetwork.domain.Profile} entity with its relationships and posts.
+ */
+@NotGenerated
+public record ProfileDTO(
+    Long id,
+    String status,
+    String pictureHash,
+    String pictureContentType,
+    UserDTO user,
+    Long postCount,
+    Long friendCount,
+    List<ProfileRefDTO> others,
+    List<EntityRefDTO> chats,
+    List<ProfileRefDTO> profiles,
+    List<PostDTO> posts
+)
+    implements Serializable {
+    public ProfileDTO relationships(List<ProfileRefDTO> others, List<EntityRefDTO> chats, List<ProfileRefDTO> profiles, List<PostDTO> posts) {
+        return new ProfileDTO(
+            id,
+            status,
+            pictureHash,
+            pictureContentType,
+            user,
+            postCount,
+            friendCount,
+            others,
+            chats,
+            profiles,
+            posts
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO referencing a related profile, with its picture and the login of its user.
+ */
+@NotGenerated
+public record ProfileRefDTO(Long id, String pictureHash, UserDTO user) implements Serializable {}
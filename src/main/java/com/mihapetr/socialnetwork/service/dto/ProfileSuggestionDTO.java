@@ -0,0 +1,11 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a profile suggested while typing, with how close it is to the current user.
+ */
+@NotGenerated
+public record ProfileSuggestionDTO(Long profileId, String login, String firstName, String lastName, boolean friend, int mutualFriends)
+    implements Serializable {}
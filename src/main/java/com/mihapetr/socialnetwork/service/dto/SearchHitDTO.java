@@ -0,0 +1,26 @@
+package com.mihapetr.socialnetwork.service.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a post, comment or profile matching a search, read from the search index alone. {@code postId}
+ * is the post itself or the post a comment was made on, and {@code login} the author of a post or comment or the
+ * owner of a profile.
+ */
+@NotGenerated
+public record SearchHitDTO(Type type, Long id, Long postId, String login, String text, ZonedDateTime time, float score)
+    implements Serializable {
+    /**
+     * What a hit is, and of which entity its id is.
+     */
+    public enum Type {
+        /** The description of a post. */
+        POST,
+        /** The text of a comment. */
+        COMMENT,
+        /** The status of a profile. */
+        PROFILE,
+    }
+}
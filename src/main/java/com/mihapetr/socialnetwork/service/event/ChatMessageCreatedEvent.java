@@ -0,0 +1,20 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * Published when a {@link com.mihapetr.socialnetwork.domain.Message} has been sent in a chat.
+ * <p>
+ * Carries the message itself and the logins of the chat participants so it can be delivered without reloading the chat.
+ */
+@NotGenerated
+public record ChatMessageCreatedEvent(
+    Long chatId,
+    Long messageId,
+    String senderName,
+    String content,
+    ZonedDateTime time,
+    Set<String> recipients
+) {}
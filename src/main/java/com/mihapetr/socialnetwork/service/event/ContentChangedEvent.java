@@ -0,0 +1,17 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+
+/**
+ * Published when searchable text was written or deleted: the description of a post, a comment, a message that may
+ * hold the text of a comment, or the status of a profile.
+ */
+@NotGenerated
+public record ContentChangedEvent(Content content, Long id) {
+    public enum Content {
+        POST,
+        COMMENT,
+        MESSAGE,
+        PROFILE,
+    }
+}
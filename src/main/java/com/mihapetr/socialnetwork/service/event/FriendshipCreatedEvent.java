@@ -0,0 +1,9 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+
+/**
+ * Published when a profile accepts the friend request of another profile.
+ */
+@NotGenerated
+public record FriendshipCreatedEvent(Long profileId, Long otherId) {}
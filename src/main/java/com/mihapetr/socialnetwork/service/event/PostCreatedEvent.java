@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.time.ZonedDateTime;
+
+/**
+ * Published when a {@link com.mihapetr.socialnetwork.domain.Post} has been created.
+ */
+@NotGenerated
+public record PostCreatedEvent(Long postId, Long profileId, ZonedDateTime time) {}
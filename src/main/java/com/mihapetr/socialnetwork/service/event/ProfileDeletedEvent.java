@@ -0,0 +1,9 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+
+/**
+ * Published when a profile is deleted.
+ */
+@NotGenerated
+public record ProfileDeletedEvent(Long profileId) {}
@@ -0,0 +1,9 @@
+package com.mihapetr.socialnetwork.service.event;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+
+/**
+ * Published when a user is created, deleted, or has its login or name changed.
+ */
+@NotGenerated
+public record UserChangedEvent(Long userId) {}
@@ -0,0 +1,4 @@
+/**
+ * Application events published by the write paths and consumed after commit.
+ */
+package com.mihapetr.socialnetwork.service.event;
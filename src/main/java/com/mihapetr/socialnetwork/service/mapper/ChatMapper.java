@@ -0,0 +1,31 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.ChatRow;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
+import com.mihapetr.socialnetwork.service.dto.ChatDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileRefDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link ChatRow} and its DTO called {@link ChatDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = { ProfileRefMapper.class, EngagementCountMapper.class })
+public interface ChatMapper {
+    @Mapping(target = "profiles", ignore = true)
+    @Mapping(target = "messageCount", source = "id", qualifiedByName = "chatMessages")
+    ChatDTO toDto(ChatRow row);
+
+    List<ProfileRefDTO> toProfileRefs(List<ProfileRefRow> rows);
+
+    /**
+     * @param profiles the participants of the chat.
+     */
+    default ChatDTO toDto(ChatRow row, List<ProfileRefRow> profiles) {
+        return toDto(row).profiles(toProfileRefs(profiles));
+    }
+}
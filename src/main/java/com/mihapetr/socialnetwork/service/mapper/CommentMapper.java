@@ -0,0 +1,38 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.CommentRow;
+import com.mihapetr.socialnetwork.service.dto.CommentDTO;
+import com.mihapetr.socialnetwork.service.dto.MessageDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileRefDTO;
+import com.mihapetr.socialnetwork.service.dto.UserDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link CommentRow} and its DTO called {@link CommentDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = EntityRefMapper.class)
+public interface CommentMapper {
+    @Mapping(target = "parent", source = ".")
+    @Mapping(target = "post", source = "postId")
+    @Mapping(target = "profile", expression = "java(row.profileId() == null ? null : toProfileRef(row))")
+    CommentDTO toDto(CommentRow row);
+
+    List<CommentDTO> toDtos(List<CommentRow> rows);
+
+    @Mapping(target = "id", source = "parentId")
+    @Mapping(target = "chat", ignore = true)
+    @Mapping(target = "comment", ignore = true)
+    MessageDTO toParent(CommentRow row);
+
+    @Mapping(target = "id", source = "profileId")
+    @Mapping(target = "user", source = ".")
+    ProfileRefDTO toProfileRef(CommentRow row);
+
+    @Mapping(target = "id", source = "userId")
+    UserDTO toUser(CommentRow row);
+}
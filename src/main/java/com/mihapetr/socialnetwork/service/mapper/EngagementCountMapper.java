@@ -0,0 +1,41 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
+import com.mihapetr.socialnetwork.service.EngagementCounterService;
+import org.mapstruct.Named;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps the id of a post, profile or chat read by a projection to one of its live engagement counters.
+ */
+@NotGenerated
+@Component
+public class EngagementCountMapper {
+
+    private final EngagementCounterService engagementCounterService;
+
+    public EngagementCountMapper(EngagementCounterService engagementCounterService) {
+        this.engagementCounterService = engagementCounterService;
+    }
+
+    @Named("postComments")
+    public Long postComments(Long postId) {
+        return engagementCounterService.get(Counter.POST_COMMENTS, postId);
+    }
+
+    @Named("profilePosts")
+    public Long profilePosts(Long profileId) {
+        return engagementCounterService.get(Counter.PROFILE_POSTS, profileId);
+    }
+
+    @Named("profileFriends")
+    public Long profileFriends(Long profileId) {
+        return engagementCounterService.get(Counter.PROFILE_FRIENDS, profileId);
+    }
+
+    @Named("chatMessages")
+    public Long chatMessages(Long chatId) {
+        return engagementCounterService.get(Counter.CHAT_MESSAGES, chatId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.dto.EntityRefDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper from the id of a related entity read by a projection to an {@link EntityRefDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface EntityRefMapper {
+    default EntityRefDTO toRef(Long id) {
+        return id == null ? null : new EntityRefDTO(id);
+    }
+
+    List<EntityRefDTO> toRefs(List<Long> ids);
+}
@@ -0,0 +1,19 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.MessageRow;
+import com.mihapetr.socialnetwork.service.dto.MessageDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link MessageRow} and its DTO called {@link MessageDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = EntityRefMapper.class)
+public interface MessageMapper {
+    @Mapping(target = "chat", source = "chatId")
+    @Mapping(target = "comment", source = "commentId")
+    MessageDTO toDto(MessageRow row);
+}
@@ -0,0 +1,32 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.PostRow;
+import com.mihapetr.socialnetwork.service.dto.PostDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileRefDTO;
+import com.mihapetr.socialnetwork.service.dto.UserDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link PostRow} and its DTO called {@link PostDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = EngagementCountMapper.class)
+public interface PostMapper {
+    @Mapping(target = "profile", source = ".")
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", source = "id", qualifiedByName = "postComments")
+    PostDTO toDto(PostRow row);
+
+    List<PostDTO> toDtos(List<PostRow> rows);
+
+    @Mapping(target = "id", source = "profileId")
+    @Mapping(target = "user", source = ".")
+    ProfileRefDTO toProfileRef(PostRow row);
+
+    @Mapping(target = "id", source = "userId")
+    UserDTO toUser(PostRow row);
+}
@@ -0,0 +1,53 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.PostRow;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRow;
+import com.mihapetr.socialnetwork.service.dto.EntityRefDTO;
+import com.mihapetr.socialnetwork.service.dto.PostDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileRefDTO;
+import com.mihapetr.socialnetwork.service.dto.UserDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link ProfileRow} and its DTO called {@link ProfileDTO}.
+ */
+@NotGenerated
+@Mapper(
+    componentModel = MappingConstants.ComponentModel.SPRING,
+    uses = { ProfileRefMapper.class, EntityRefMapper.class, PostMapper.class, EngagementCountMapper.class }
+)
+public interface ProfileMapper {
+    @Mapping(target = "user", source = ".")
+    @Mapping(target = "others", ignore = true)
+    @Mapping(target = "chats", ignore = true)
+    @Mapping(target = "profiles", ignore = true)
+    @Mapping(target = "posts", ignore = true)
+    @Mapping(target = "postCount", source = "id", qualifiedByName = "profilePosts")
+    @Mapping(target = "friendCount", source = "id", qualifiedByName = "profileFriends")
+    ProfileDTO toDto(ProfileRow row);
+
+    @Mapping(target = "id", source = "userId")
+    UserDTO toUser(ProfileRow row);
+
+    List<ProfileRefDTO> toProfileRefs(List<ProfileRefRow> rows);
+
+    List<EntityRefDTO> toChatRefs(List<Long> chatIds);
+
+    List<PostDTO> toPosts(List<PostRow> rows);
+
+    /**
+     * @param others the friends the profile added.
+     * @param chatIds the chats the profile takes part in.
+     * @param profiles the profiles that added the profile as a friend.
+     * @param posts the posts of the profile.
+     */
+    default ProfileDTO toDto(ProfileRow row, List<ProfileRefRow> others, List<Long> chatIds, List<ProfileRefRow> profiles, List<PostRow> posts) {
+        return toDto(row).relationships(toProfileRefs(others), toChatRefs(chatIds), toProfileRefs(profiles), toPosts(posts));
+    }
+}
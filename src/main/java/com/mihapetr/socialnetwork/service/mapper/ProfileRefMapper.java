@@ -0,0 +1,25 @@
+package com.mihapetr.socialnetwork.service.mapper;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
+import com.mihapetr.socialnetwork.service.dto.ProfileRefDTO;
+import com.mihapetr.socialnetwork.service.dto.UserDTO;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Mapper for the projection {@link ProfileRefRow} and its DTO called {@link ProfileRefDTO}.
+ */
+@NotGenerated
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface ProfileRefMapper {
+    @Mapping(target = "user", source = ".")
+    ProfileRefDTO toDto(ProfileRefRow row);
+
+    List<ProfileRefDTO> toDtos(List<ProfileRefRow> rows);
+
+    @Mapping(target = "id", source = "userId")
+    UserDTO toUser(ProfileRefRow row);
+}
@@ -0,0 +1,134 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Store of immutable binary content addressed by the SHA-256 hash of the content.
+ * <p>
+ * Storing the same bytes twice keeps a single copy, and a hash always refers to the same bytes,
+ * so blobs can be cached by clients forever.
+ */
+@NotGenerated
+public interface BlobStore {
+    Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    Pattern VARIANT_PATTERN = Pattern.compile("[0-9a-z]{1,16}");
+
+    /**
+     * Stores content read from a stream.
+     *
+     * @param content the content to store, read until its end.
+     * @return the hash of the content.
+     * @throws IOException if the content could not be read or stored.
+     */
+    String put(InputStream content) throws IOException;
+
+    default String put(byte[] content) throws IOException {
+        return put(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Looks up stored content.
+     *
+     * @param hash the hash of the content.
+     * @return the blob, or empty if nothing is stored under the hash.
+     * @throws IOException if the store could not be read.
+     */
+    Optional<Blob> get(String hash) throws IOException;
+
+    /**
+     * Stores a derived form of stored content, such as a thumbnail, replacing any previous one.
+     *
+     * @param hash the hash of the original content.
+     * @param variant the name of the derived form.
+     * @param content the derived content, read until its end.
+     * @throws IOException if the content could not be read or stored.
+     */
+    void putVariant(String hash, String variant, InputStream content) throws IOException;
+
+    /**
+     * Looks up a derived form of stored content.
+     *
+     * @param hash the hash of the original content.
+     * @param variant the name of the derived form.
+     * @return the blob, or empty if the variant has not been stored.
+     * @throws IOException if the store could not be read.
+     */
+    Optional<Blob> getVariant(String hash, String variant) throws IOException;
+
+    static boolean isHash(String value) {
+        return value != null && HASH_PATTERN.matcher(value).matches();
+    }
+
+    static String hash(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Guesses the media type of content from its first bytes, for the image formats browsers display.
+     *
+     * @param head the first bytes of the content.
+     * @return the media type, or {@code application/octet-stream} when unknown.
+     */
+    static String detectContentType(byte[] head) {
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int... magic) {
+        if (head.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stored content.
+     */
+    interface Blob {
+        String hash();
+
+        long size();
+
+        String contentType();
+
+        /**
+         * Opens the content for reading. Filesystem blobs return a {@link java.nio.channels.FileChannel}
+         * so callers can transfer them without copying through the heap.
+         */
+        ReadableByteChannel open() throws IOException;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BlobStore} keeping every blob in a file named by its hash, under two levels of
+ * directories taken from the hash so no directory grows too large. Variants sit next to
+ * their original as {@code <hash>.<variant>}.
+ * <p>
+ * Content is streamed to a temporary file while it is hashed and then atomically moved into place,
+ * so readers never see a partially written blob.
+ */
+@NotGenerated
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private static final int SNIFF_LENGTH = 12;
+
+    private final Path root;
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        Path incoming = Files.createDirectories(root.resolve("incoming"));
+        Path temp = Files.createTempFile(incoming, "blob", ".tmp");
+        try {
+            MessageDigest digest = BlobStore.newDigest();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.notExists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                LOG.debug("Stored blob {}", hash);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Blob> get(String hash) throws IOException {
+        return blobAt(hash, pathOf(hash));
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, InputStream content) throws IOException {
+        Path target = variantPathOf(hash, variant);
+        Path incoming = Files.createDirectories(root.resolve("incoming"));
+        Path temp = Files.createTempFile(incoming, "variant", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Blob> getVariant(String hash, String variant) throws IOException {
+        return blobAt(hash, variantPathOf(hash, variant));
+    }
+
+    private static Optional<Blob> blobAt(String hash, Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileBlob(hash, path, Files.size(path), detectContentType(path)));
+    }
+
+    private Path variantPathOf(String hash, String variant) {
+        if (variant == null || !VARIANT_PATTERN.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Not a blob variant: " + variant);
+        }
+        return pathOf(hash).resolveSibling(hash + "." + variant);
+    }
+
+    private Path pathOf(String hash) {
+        if (!BlobStore.isHash(hash)) {
+            throw new IllegalArgumentException("Not a blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static String detectContentType(Path path) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(SNIFF_LENGTH);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (head.hasRemaining() && channel.read(head) > 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+        }
+        byte[] bytes = new byte[head.position()];
+        head.flip().get(bytes);
+        return BlobStore.detectContentType(bytes);
+    }
+
+    private record FileBlob(String hash, Path path, long size, String contentType) implements Blob {
+        @Override
+        public ReadableByteChannel open() throws IOException {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        }
+    }
+}
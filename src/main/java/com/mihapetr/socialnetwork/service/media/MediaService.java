@@ -0,0 +1,69 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.domain.Profile;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service moving uploaded images out of entities and into the {@link BlobStore}.
+ * <p>
+ * Clients still upload images inline; the bytes are stored once by hash and the entity keeps only the hash.
+ * Thumbnails are generated in the background by {@link ThumbnailService}.
+ */
+@NotGenerated
+@Service
+public class MediaService {
+
+    private final BlobStore blobStore;
+
+    private final ThumbnailService thumbnailService;
+
+    public MediaService(BlobStore blobStore, ThumbnailService thumbnailService) {
+        this.blobStore = blobStore;
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * Stores the uploaded image of a post, if any, and replaces it with its hash.
+     *
+     * @param post the post being saved.
+     */
+    public void storeImage(Post post) {
+        if (post.getImage() != null) {
+            post.setImageHash(store(post.getImage()));
+            post.setImage(null);
+        }
+    }
+
+    /**
+     * Stores the uploaded picture of a profile, if any, and replaces it with its hash.
+     *
+     * @param profile the profile being saved.
+     */
+    public void storePicture(Profile profile) {
+        if (profile.getPicture() != null) {
+            profile.setPictureHash(store(profile.getPicture()));
+            profile.setPicture(null);
+        }
+    }
+
+    /**
+     * Stores content and queues the generation of its thumbnails.
+     *
+     * @param content the uploaded bytes.
+     * @return the hash of the content.
+     */
+    public String store(byte[] content) {
+        String hash;
+        try {
+            hash = blobStore.put(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store media", e);
+        }
+        thumbnailService.createThumbnailsAsync(hash);
+        return hash;
+    }
+}
@@ -0,0 +1,187 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service generating the thumbnails of uploaded images, stored as variants of the original blob.
+ * <p>
+ * Every configured size gets a variant, even when the original is already small enough or cannot be decoded;
+ * in those cases the variant is a copy of the original, so a missing variant always means "not generated yet".
+ */
+@NotGenerated
+@Service
+public class ThumbnailService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /**
+     * Images above this many pixels are not decoded, protecting the heap from decompression bombs.
+     */
+    static final long MAX_PIXELS = 50_000_000L;
+
+    private final BlobStore blobStore;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ThumbnailService(BlobStore blobStore, ApplicationProperties applicationProperties) {
+        this.blobStore = blobStore;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Generates the missing thumbnails of a blob on the bounded thumbnail pool.
+     *
+     * @param hash the hash of the original blob.
+     */
+    @Async("thumbnailExecutor")
+    public void createThumbnailsAsync(String hash) {
+        createThumbnails(hash);
+    }
+
+    /**
+     * Generates the missing thumbnails of a blob.
+     *
+     * @param hash the hash of the original blob.
+     */
+    public void createThumbnails(String hash) {
+        List<Integer> missing = getSizes()
+            .stream()
+            .filter(size -> !hasThumbnail(hash, size))
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            Optional<BlobStore.Blob> original = blobStore.get(hash);
+            if (original.isEmpty()) {
+                return;
+            }
+            int largest = missing.stream().max(Integer::compare).orElseThrow();
+            BufferedImage image = decode(original.get(), largest);
+            for (int size : missing) {
+                if (image == null || Math.max(image.getWidth(), image.getHeight()) <= size) {
+                    copyOriginal(original.get(), size);
+                } else {
+                    boolean opaque = "image/jpeg".equals(original.get().contentType());
+                    blobStore.putVariant(hash, variantName(size), new ByteArrayInputStream(encode(scale(image, size, opaque), opaque)));
+                }
+            }
+            LOG.debug("Created thumbnails {} of blob {}", missing, hash);
+        } catch (IOException e) {
+            LOG.warn("Could not create thumbnails of blob {}: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * Picks the thumbnail to serve for a requested size: the smallest one at least as large.
+     *
+     * @param requested the size the client will display, in pixels.
+     * @return the thumbnail size, or empty if the original should be served.
+     */
+    public Optional<Integer> thumbnailSizeFor(int requested) {
+        return getSizes()
+            .stream()
+            .filter(size -> size >= requested)
+            .min(Integer::compare);
+    }
+
+    public static String variantName(int size) {
+        return String.valueOf(size);
+    }
+
+    private List<Integer> getSizes() {
+        return applicationProperties.getMedia().getThumbnailSizes();
+    }
+
+    private boolean hasThumbnail(String hash, int size) {
+        try {
+            return blobStore.getVariant(hash, variantName(size)).isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void copyOriginal(BlobStore.Blob original, int size) throws IOException {
+        try (InputStream in = Channels.newInputStream(original.open())) {
+            blobStore.putVariant(original.hash(), variantName(size), in);
+        }
+    }
+
+    /**
+     * Decodes an image, subsampling rows and columns while reading so a large upload is never fully
+     * materialized when only a small thumbnail is needed.
+     *
+     * @return the image, or {@code null} if it cannot or should not be decoded.
+     */
+    private static BufferedImage decode(BlobStore.Blob blob, int largest) throws IOException {
+        try (InputStream content = Channels.newInputStream(blob.open()); ImageInputStream in = new MemoryCacheImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    LOG.warn("Blob {} is {}x{}, too large to make thumbnails of", blob.hash(), width, height);
+                    return null;
+                }
+                // keep at least twice the largest thumbnail so the final downscale stays smooth
+                int subsampling = Math.max(1, Math.min(width, height) / (2 * largest));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Blob {} is not a readable image: {}", blob.hash(), e.getMessage());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int size, boolean opaque) {
+        double ratio = (double) size / Math.max(image.getWidth(), image.getHeight());
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage thumbnail = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static byte[] encode(BufferedImage thumbnail, boolean opaque) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, opaque ? "jpg" : "png", out);
+        return out.toByteArray();
+    }
+}
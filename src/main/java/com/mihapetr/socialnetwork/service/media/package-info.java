@@ -0,0 +1,4 @@
+/**
+ * Content-addressed storage for uploaded media.
+ */
+package com.mihapetr.socialnetwork.service.media;
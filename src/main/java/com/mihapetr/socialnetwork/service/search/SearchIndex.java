@@ -0,0 +1,237 @@
+package com.mihapetr.socialnetwork.service.search;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import com.mihapetr.socialnetwork.service.dto.SearchHitDTO;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Lucene index of the searchable text of posts, comments and profiles, kept in a directory on local disk or, for
+ * the tests, in memory.
+ * <p>
+ * A document is keyed by its type and id and carries everything a hit shows, so searching never reads the database.
+ * Documents also carry the id of their post and of the profile owning them, so deleting a post or a profile deletes
+ * the documents the database deleted with it in a single term delete. Writes become visible to searches at the next
+ * {@link #refresh()} and durable at the next {@link #commit()}.
+ */
+@NotGenerated
+public class SearchIndex implements Closeable {
+
+    static final String KEY = "key";
+
+    static final String TYPE = "type";
+
+    static final String ID = "id";
+
+    static final String POST = "post";
+
+    static final String OWNER = "owner";
+
+    static final String LOGIN = "login";
+
+    static final String TIME = "time";
+
+    static final String TEXT = "text";
+
+    /**
+     * When a document was last written, so documents a rebuild did not rewrite can be told apart.
+     */
+    static final String INDEXED = "indexed";
+
+    private final Directory directory;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    public SearchIndex(Path path) throws IOException {
+        this(FSDirectory.open(path));
+    }
+
+    /**
+     * @param directory the directory of the index, closed with it.
+     * @throws IOException if the index cannot be opened.
+     */
+    public SearchIndex(Directory directory) throws IOException {
+        this.directory = directory;
+        IndexWriterConfig config = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setRAMBufferSizeMB(64);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * A page of hits, best first, and the number of documents matching; the number is exact up to at least 1000.
+     */
+    public record Result(long total, List<SearchHitDTO> hits) {}
+
+    /**
+     * Adds or replaces the document of a post, comment or profile; one without text is deleted.
+     *
+     * @param type what the source is.
+     * @param source the text and ids of the post, comment or profile.
+     * @throws IOException if the index cannot be written.
+     */
+    public void index(SearchHitDTO.Type type, SearchSource source) throws IOException {
+        Term key = new Term(KEY, key(type, source.id()));
+        if (source.text() == null || source.text().isBlank()) {
+            writer.deleteDocuments(key);
+            return;
+        }
+        Document document = new Document();
+        document.add(new StringField(KEY, key.text(), Field.Store.NO));
+        document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(ID, source.id()));
+        if (source.postId() != null) {
+            document.add(new StringField(POST, source.postId().toString(), Field.Store.YES));
+        }
+        if (source.ownerId() != null) {
+            document.add(new StringField(OWNER, source.ownerId().toString(), Field.Store.NO));
+        }
+        if (source.login() != null) {
+            document.add(new StoredField(LOGIN, source.login()));
+        }
+        if (source.time() != null) {
+            document.add(new StoredField(TIME, source.time().toInstant().toEpochMilli()));
+        }
+        document.add(new TextField(TEXT, source.text(), Field.Store.YES));
+        document.add(new LongPoint(INDEXED, System.currentTimeMillis()));
+        writer.updateDocument(key, document);
+    }
+
+    /**
+     * Deletes a post and its comments.
+     */
+    public void deletePost(Long postId) throws IOException {
+        writer.deleteDocuments(new Term(POST, postId.toString()));
+    }
+
+    public void deleteComment(Long commentId) throws IOException {
+        writer.deleteDocuments(new Term(KEY, key(SearchHitDTO.Type.COMMENT, commentId)));
+    }
+
+    /**
+     * Deletes a profile, its posts and their comments.
+     */
+    public void deleteProfile(Long profileId) throws IOException {
+        writer.deleteDocuments(new Term(OWNER, profileId.toString()));
+    }
+
+    /**
+     * Deletes the documents last written before the given time.
+     *
+     * @param millis the time, in milliseconds since the epoch.
+     */
+    public void deleteIndexedBefore(long millis) throws IOException {
+        writer.deleteDocuments(LongPoint.newRangeQuery(INDEXED, Long.MIN_VALUE, millis - 1));
+    }
+
+    /**
+     * @param text the query, in the simple query syntax: words are all required, {@code |} separates alternatives,
+     * {@code -} excludes a word, quotes match a phrase and {@code *} ends a prefix.
+     * @param type the type of the hits, {@code null} for all.
+     * @param offset the number of best hits skipped.
+     * @param size the maximum number of hits returned.
+     * @return the hits after the offset, most relevant first.
+     * @throws IOException if the index cannot be read.
+     */
+    public Result search(String text, SearchHitDTO.Type type, int offset, int size) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, TEXT);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(parser.parse(text), BooleanClause.Occur.MUST);
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.FILTER);
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query.build(), offset + size);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHitDTO> hits = new ArrayList<>();
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = top.scoreDocs[i];
+                hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+            }
+            return new Result(top.totalHits.value, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Makes the writes so far visible to searches.
+     */
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Makes the writes so far durable; they are otherwise lost if the application stops without closing the index.
+     */
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    public long numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static String key(SearchHitDTO.Type type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    private static SearchHitDTO toHit(Document document, float score) {
+        String postId = document.get(POST);
+        IndexableField time = document.getField(TIME);
+        return new SearchHitDTO(
+            SearchHitDTO.Type.valueOf(document.get(TYPE)),
+            document.getField(ID).numericValue().longValue(),
+            postId == null ? null : Long.valueOf(postId),
+            document.get(LOGIN),
+            document.get(TEXT),
+            time == null ? null : ZonedDateTime.ofInstant(Instant.ofEpochMilli(time.numericValue().longValue()), ZoneOffset.UTC),
+            score
+        );
+    }
+}
@@ -0,0 +1,307 @@
+package com.mihapetr.socialnetwork.service.search;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.repository.CommentRepository;
+import com.mihapetr.socialnetwork.repository.PostRepository;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import com.mihapetr.socialnetwork.service.dto.SearchHitDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent.Content;
+import com.mihapetr.socialnetwork.service.event.PostCreatedEvent;
+import com.mihapetr.socialnetwork.service.event.ProfileDeletedEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping the {@link SearchIndex} current with the posts, comments and profile statuses in the database.
+ * <p>
+ * The write paths only publish what changed; once their transaction commits, the change is queued, and every refresh
+ * interval the queued ids are read back from the database in batches and their documents written or deleted, so a
+ * row changed many times in between is indexed once. A rebuild reindexes every row by id range on a pool of
+ * threads, then deletes the documents it did not rewrite, which are those of rows deleted while no change was
+ * queued; searches keep being served from the existing documents meanwhile.
+ */
+@NotGenerated
+@Service
+public class SearchIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private final SearchIndex searchIndex;
+
+    private final PostRepository postRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final ProfileRepository profileRepository;
+
+    private final ApplicationProperties.Search properties;
+
+    private final Set<ContentChangedEvent> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Changes applied while a rebuild runs, applied again after it, since the rebuild may have read their rows
+     * before they changed and written its documents after theirs.
+     */
+    private final Set<ContentChangedEvent> appliedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final CustomizableThreadFactory rebuildThreadFactory = new CustomizableThreadFactory("socialnetwork-search-rebuild-");
+
+    public SearchIndexService(
+        SearchIndex searchIndex,
+        PostRepository postRepository,
+        CommentRepository commentRepository,
+        ProfileRepository profileRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.searchIndex = searchIndex;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.profileRepository = profileRepository;
+        this.properties = applicationProperties.getSearch();
+        rebuildThreadFactory.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isRebuildIfEmpty() && searchIndex.numDocs() == 0) {
+            startRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        applyPending();
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        pending.add(event);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        pending.add(new ContentChangedEvent(Content.POST, event.postId()));
+    }
+
+    @TransactionalEventListener
+    public void onProfileDeleted(ProfileDeletedEvent event) {
+        pending.add(new ContentChangedEvent(Content.PROFILE, event.profileId()));
+    }
+
+    /**
+     * @param query the query, in the simple query syntax of {@link SearchIndex#search}.
+     * @param type the type of the hits, {@code null} for all.
+     * @param offset the number of best hits skipped.
+     * @param size the maximum number of hits returned.
+     * @return the hits after the offset, most relevant first.
+     */
+    public SearchIndex.Result search(String query, SearchHitDTO.Type type, int offset, int size) {
+        try {
+            return searchIndex.search(query, type, offset, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes or deletes the documents of the rows changed since the previous run and makes them searchable.
+     * Changes that could not be applied are kept for the next run.
+     *
+     * @return the number of changes applied.
+     */
+    @Scheduled(fixedDelayString = "${application.search.refresh-interval:1s}")
+    public synchronized int applyPending() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Content, List<Long>> ids = new EnumMap<>(Content.class);
+        List<ContentChangedEvent> changes = new ArrayList<>();
+        for (Iterator<ContentChangedEvent> it = pending.iterator(); it.hasNext();) {
+            ContentChangedEvent change = it.next();
+            it.remove();
+            changes.add(change);
+            ids.computeIfAbsent(change.content(), content -> new ArrayList<>()).add(change.id());
+        }
+        try {
+            for (Map.Entry<Content, List<Long>> entry : ids.entrySet()) {
+                List<Long> contentIds = entry.getValue();
+                for (int from = 0; from < contentIds.size(); from += properties.getBatchSize()) {
+                    apply(entry.getKey(), contentIds.subList(from, Math.min(from + properties.getBatchSize(), contentIds.size())));
+                }
+            }
+            searchIndex.refresh();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not index {} changes, retrying at the next refresh: {}", changes.size(), e.getMessage());
+            pending.addAll(changes);
+            return 0;
+        }
+        if (rebuilding.get()) {
+            appliedDuringRebuild.addAll(changes);
+        }
+        LOG.debug("Indexed {} changes", changes.size());
+        return changes.size();
+    }
+
+    private void apply(Content content, List<Long> ids) throws IOException {
+        switch (content) {
+            case POST -> {
+                for (Long id : index(SearchHitDTO.Type.POST, postRepository.findSearchSources(ids), ids)) {
+                    searchIndex.deletePost(id);
+                }
+            }
+            case COMMENT -> {
+                for (Long id : index(SearchHitDTO.Type.COMMENT, commentRepository.findSearchSources(ids), ids)) {
+                    searchIndex.deleteComment(id);
+                }
+            }
+            // a message without a comment is a chat message, which is not searchable
+            case MESSAGE -> index(SearchHitDTO.Type.COMMENT, commentRepository.findSearchSourcesByParent(ids), List.of());
+            case PROFILE -> {
+                for (Long id : index(SearchHitDTO.Type.PROFILE, profileRepository.findSearchSources(ids), ids)) {
+                    searchIndex.deleteProfile(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the ids without a source, whose rows were deleted.
+     */
+    private Set<Long> index(SearchHitDTO.Type type, List<SearchSource> sources, List<Long> ids) throws IOException {
+        Set<Long> deleted = new HashSet<>(ids);
+        for (SearchSource source : sources) {
+            searchIndex.index(type, source);
+            deleted.remove(source.id());
+        }
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${application.search.commit-interval:1m}")
+    public void commit() {
+        try {
+            searchIndex.commit();
+        } catch (IOException e) {
+            LOG.warn("Could not commit the search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Starts rebuilding the index from the database in the background.
+     *
+     * @return {@code false} if a rebuild is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildThreadFactory.newThread(this::rebuildAndRelease).start();
+        return true;
+    }
+
+    private void rebuildAndRelease() {
+        try {
+            rebuild();
+        } finally {
+            rebuilding.set(false);
+            pending.addAll(appliedDuringRebuild);
+            appliedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * Reindexes every post, comment and profile, reading batches of ids in parallel.
+     *
+     * @return the number of documents written, {@code -1} if the rebuild failed and stale documents were kept.
+     */
+    long rebuild() {
+        long started = System.currentTimeMillis();
+        LOG.info("Rebuilding search index");
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getRebuildThreads(), rebuildThreadFactory);
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            submitBatches(workers, batches, SearchHitDTO.Type.POST, postRepository.findMaxId(), postRepository::findSearchSourcesBetween);
+            submitBatches(
+                workers,
+                batches,
+                SearchHitDTO.Type.COMMENT,
+                commentRepository.findMaxId(),
+                commentRepository::findSearchSourcesBetween
+            );
+            submitBatches(
+                workers,
+                batches,
+                SearchHitDTO.Type.PROFILE,
+                profileRepository.findMaxId(),
+                profileRepository::findSearchSourcesBetween
+            );
+            long indexed = 0;
+            for (Future<Integer> batch : batches) {
+                indexed += batch.get();
+            }
+            searchIndex.deleteIndexedBefore(started);
+            searchIndex.commit();
+            searchIndex.refresh();
+            LOG.info("Rebuilt search index with {} documents in {} ms", indexed, System.currentTimeMillis() - started);
+            return indexed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Search index rebuild interrupted");
+        } catch (ExecutionException | IOException | RuntimeException e) {
+            LOG.error("Could not rebuild search index", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        return -1;
+    }
+
+    private void submitBatches(
+        ExecutorService workers,
+        List<Future<Integer>> batches,
+        SearchHitDTO.Type type,
+        Optional<Long> maxId,
+        BiFunction<Long, Long, List<SearchSource>> loader
+    ) {
+        long batchSize = properties.getBatchSize();
+        for (long from = 1; from <= maxId.orElse(0L); from += batchSize) {
+            long fromId = from;
+            batches.add(
+                workers.submit(() -> {
+                    List<SearchSource> sources = loader.apply(fromId, fromId + batchSize - 1);
+                    for (SearchSource source : sources) {
+                        searchIndex.index(type, source);
+                    }
+                    return sources.size();
+                })
+            );
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Full-text search over posts, comments and profile statuses.
+ */
+package com.mihapetr.socialnetwork.service.search;
@@ -0,0 +1,245 @@
+package com.mihapetr.socialnetwork.web.filter;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.management.RequestCost;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Measures what every REST call costs: the SQL statements it ran, the entities it loaded and the bytes it wrote,
+ * exported by handler method so endpoints running a query per row stand out.
+ * <p>
+ * Calls running more statements than the budget are logged. The cost can also be returned in the
+ * {@value #COST_HEADER} header, written when the response is committed: statements run while the body is being
+ * written are then only in the meters. Bodies the handler sends past the response wrapper are counted by their
+ * {@code Content-Length}.
+ */
+@NotGenerated
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestCostFilter.class);
+
+    public static final String COST_HEADER = "X-Request-Cost";
+
+    public static final String STATEMENTS_METER_NAME = "request.sql.statements";
+    public static final String ROWS_METER_NAME = "request.rows";
+    public static final String ENTITIES_METER_NAME = "request.entities";
+    public static final String BYTES_METER_NAME = "request.response.bytes";
+    public static final String HANDLER_DIMENSION = "handler";
+    public static final String ENTITY_DIMENSION = "entity";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.RequestCost properties;
+
+    private final Map<Method, String> handlerNames = new ConcurrentHashMap<>();
+
+    public RequestCostFilter(MeterRegistry meterRegistry, ApplicationProperties.RequestCost properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestCost cost = RequestCost.start();
+        CountingResponse countingResponse = new CountingResponse(response, cost);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            RequestCost.end();
+        }
+        countingResponse.finish();
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            boolean hasBody = !HttpMethod.HEAD.matches(request.getMethod());
+            record(handlerName(handlerMethod), cost, hasBody ? countingResponse.bodyBytes() : cost.getBytes());
+        }
+    }
+
+    private void record(String handler, RequestCost cost, long bytes) {
+        summary(STATEMENTS_METER_NAME, "SQL statements run by a request.", handler).record(cost.getStatements());
+        summary(ROWS_METER_NAME, "Entities loaded by a request, all types together.", handler).record(cost.getEntityCount());
+        cost
+            .getEntities()
+            .forEach((entity, count) ->
+                DistributionSummary.builder(ENTITIES_METER_NAME)
+                    .description("Entities of one type loaded by a request that loaded any.")
+                    .tag(HANDLER_DIMENSION, handler)
+                    .tag(ENTITY_DIMENSION, entity)
+                    .register(meterRegistry)
+                    .record(count)
+            );
+        DistributionSummary.builder(BYTES_METER_NAME)
+            .description("Size of the response body.")
+            .baseUnit("bytes")
+            .tag(HANDLER_DIMENSION, handler)
+            .register(meterRegistry)
+            .record(bytes);
+
+        int budget = properties.getStatementBudget();
+        if (budget > 0 && cost.getStatements() > budget) {
+            LOG.warn(
+                "{} ran {} SQL statements, over the budget of {}; entities loaded: {}",
+                handler,
+                cost.getStatements(),
+                budget,
+                cost.getEntities()
+            );
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String handler) {
+        return DistributionSummary.builder(name).description(description).tag(HANDLER_DIMENSION, handler).register(meterRegistry);
+    }
+
+    private String handlerName(HandlerMethod handlerMethod) {
+        return handlerNames.computeIfAbsent(handlerMethod.getMethod(), method ->
+            handlerMethod.getBeanType().getSimpleName() + "." + method.getName()
+        );
+    }
+
+    /**
+     * Counts the bytes of the body and adds the cost header just before the first of them is written.
+     */
+    private class CountingResponse extends HttpServletResponseWrapper {
+
+        private final RequestCost cost;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private boolean headerWritten;
+
+        CountingResponse(HttpServletResponse response, RequestCost cost) {
+            super(response);
+            this.cost = cost;
+        }
+
+        void finish() {
+            writeCostHeader();
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        /**
+         * @return the bytes of the body; a body sent to the server past this wrapper, such as the zero-copy file
+         * transfer of {@code MediaResource}, is measured by the {@code Content-Length} it was committed with.
+         */
+        long bodyBytes() {
+            String contentLength = getHeader(HttpHeaders.CONTENT_LENGTH);
+            if (cost.getBytes() > 0 || contentLength == null || !isCommitted()) {
+                return cost.getBytes();
+            }
+            try {
+                return Long.parseLong(contentLength);
+            } catch (NumberFormatException e) {
+                return cost.getBytes();
+            }
+        }
+
+        void writeCostHeader() {
+            if (!headerWritten && properties.isResponseHeader() && !isCommitted()) {
+                setHeader(COST_HEADER, "statements=" + cost.getStatements() + ", entities=" + cost.getEntityCount());
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeCostHeader();
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        private class CountingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CountingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeCostHeader();
+                cost.addBytes(1);
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeCostHeader();
+                cost.addBytes(len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeCostHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeCostHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
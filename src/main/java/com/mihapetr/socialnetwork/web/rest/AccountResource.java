@@ -10,6 +10,7 @@ import com.mihapetr.socialnetwork.service.MailService;
 import com.mihapetr.socialnetwork.service.UserService;
 import com.mihapetr.socialnetwork.service.dto.AdminUserDTO;
 import com.mihapetr.socialnetwork.service.dto.PasswordChangeDTO;
+import com.mihapetr.socialnetwork.service.media.MediaService;
 import com.mihapetr.socialnetwork.web.rest.errors.*;
 import com.mihapetr.socialnetwork.web.rest.vm.KeyAndPasswordVM;
 import com.mihapetr.socialnetwork.web.rest.vm.ManagedUserVM;
@@ -23,6 +24,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -49,28 +51,36 @@ public class AccountResource {
 
     private final MailService mailService;
 
+    private final MediaService mediaService;
+
     public AccountResource(
         UserRepository userRepository,
         UserService userService,
         MailService mailService,
-        ProfileRepository profileRepository
+        ProfileRepository profileRepository,
+        MediaService mediaService
     ) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
         this.profileRepository = profileRepository;
+        this.mediaService = mediaService;
     }
 
     /**
      * {@code POST  /register} : register the user.
+     * <p>
+     * The user and its profile are committed together, so listeners of the user's creation can read the profile.
      *
      * @param managedUserVM the managed user View Model.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the password is incorrect.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
      * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
      */
+    @NotGenerated
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public void registerAccount(@Valid @RequestBody ManagedUserVM managedUserVM) {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
@@ -91,6 +101,7 @@ public class AccountResource {
             System.out.println(e.getMessage());
             throw new RuntimeException(e);
         }
+        mediaService.storePicture(profile);
         profileRepository.save(profile);
     }
 
@@ -2,8 +2,11 @@ package com.mihapetr.socialnetwork.web.rest;
 
 import static com.mihapetr.socialnetwork.security.SecurityUtils.AUTHORITIES_KEY;
 import static com.mihapetr.socialnetwork.security.SecurityUtils.JWT_ALGORITHM;
+import static com.mihapetr.socialnetwork.security.SecurityUtils.PROFILE_ID_KEY;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
 import com.mihapetr.socialnetwork.web.rest.vm.LoginVM;
 import jakarta.validation.Valid;
 import java.security.Principal;
@@ -47,9 +50,16 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final CurrentProfileService currentProfileService;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        CurrentProfileService currentProfileService
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.currentProfileService = currentProfileService;
     }
 
     @PostMapping("/authenticate")
@@ -91,15 +101,23 @@ public class AuthenticateController {
         }
 
         // @formatter:off
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .build();
+            .claim(AUTHORITIES_KEY, authorities);
+        addProfileClaim(claims, authentication.getName());
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims.build())).getTokenValue();
+    }
+
+    /**
+     * Embeds the user's profile id, so requests made with the token do not have to look it up.
+     */
+    @NotGenerated
+    private void addProfileClaim(JwtClaimsSet.Builder claims, String login) {
+        currentProfileService.findProfileId(login).ifPresent(profileId -> claims.claim(PROFILE_ID_KEY, profileId));
     }
 
     /**
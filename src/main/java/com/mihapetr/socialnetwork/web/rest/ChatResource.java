@@ -2,23 +2,46 @@ package com.mihapetr.socialnetwork.web.rest;
 
 import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Chat;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
 import com.mihapetr.socialnetwork.domain.Message;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.repository.ChatReadMarkerRepository;
 import com.mihapetr.socialnetwork.repository.ChatRepository;
+import com.mihapetr.socialnetwork.repository.MessageRepository;
 import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.ChatMessage;
+import com.mihapetr.socialnetwork.repository.projection.ChatParticipant;
+import com.mihapetr.socialnetwork.repository.projection.ChatRow;
+import com.mihapetr.socialnetwork.repository.projection.ChatSummary;
+import com.mihapetr.socialnetwork.repository.projection.ProfileRefRow;
 import com.mihapetr.socialnetwork.security.SecurityUtils;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
+import com.mihapetr.socialnetwork.service.EngagementCounterService;
+import com.mihapetr.socialnetwork.service.FriendGraphService;
+import com.mihapetr.socialnetwork.service.dto.ChatDTO;
+import com.mihapetr.socialnetwork.service.event.ChatMessageCreatedEvent;
+import com.mihapetr.socialnetwork.service.event.FriendshipCreatedEvent;
+import com.mihapetr.socialnetwork.service.mapper.ChatMapper;
 import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -34,6 +57,8 @@ public class ChatResource {
 
     private static final String ENTITY_NAME = "chat";
 
+    static final int MAX_MESSAGE_PAGE_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,18 +66,39 @@ public class ChatResource {
     private final ProfileResource profileResource;
     private final MessageResource messageResource;
     private final ProfileRepository profileRepository;
+    private final MessageRepository messageRepository;
+    private final ChatReadMarkerRepository chatReadMarkerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentProfileService currentProfileService;
+    private final ChatMapper chatMapper;
+    private final EngagementCounterService engagementCounterService;
+    private final FriendGraphService friendGraphService;
 
     @NotGenerated
     public ChatResource(
         ChatRepository chatRepository,
         ProfileResource profileResource,
         MessageResource messageResource,
-        ProfileRepository profileRepository
+        ProfileRepository profileRepository,
+        MessageRepository messageRepository,
+        ChatReadMarkerRepository chatReadMarkerRepository,
+        ApplicationEventPublisher eventPublisher,
+        CurrentProfileService currentProfileService,
+        ChatMapper chatMapper,
+        EngagementCounterService engagementCounterService,
+        FriendGraphService friendGraphService
     ) {
         this.chatRepository = chatRepository;
         this.profileResource = profileResource;
         this.messageResource = messageResource;
         this.profileRepository = profileRepository;
+        this.messageRepository = messageRepository;
+        this.chatReadMarkerRepository = chatReadMarkerRepository;
+        this.eventPublisher = eventPublisher;
+        this.currentProfileService = currentProfileService;
+        this.chatMapper = chatMapper;
+        this.engagementCounterService = engagementCounterService;
+        this.friendGraphService = friendGraphService;
     }
 
     /**
@@ -155,8 +201,10 @@ public class ChatResource {
     @PostMapping("/request-chat-with-profile/{id}")
     public ResponseEntity<Chat> requestFriend(@PathVariable(value = "id") Long id) throws URISyntaxException {
         String currentLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        Profile currentProfile = profileRepository.findByUserIsCurrentUser().stream().findFirst().orElse(null);
-        Profile requestedProfile = profileResource.getProfile(id).getBody();
+        Profile currentProfile = currentProfile();
+        Profile requestedProfile = profileRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
 
         Message message = new Message().content("I would like to chat");
         message = messageResource.createMessage(message).getBody(); // will have initiatorName and time data
@@ -167,7 +215,10 @@ public class ChatResource {
             .addChat(message)
             .addProfile(currentProfile)
             .addProfile(requestedProfile);
-        return createChat(chat);
+        ResponseEntity<Chat> response = createChat(chat);
+        chatReadMarkerRepository.countUnread(chat.getId(), currentProfile.getId());
+        engagementCounterService.increment(Counter.CHAT_MESSAGES, chat.getId());
+        return response;
     }
 
     @NotGenerated
@@ -176,11 +227,19 @@ public class ChatResource {
         Chat chat = chatRepository
             .findById(id)
             .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        boolean newlyAccepted = !Boolean.TRUE.equals(chat.getAccepted());
         chat.accepted(true);
         chatRepository.save(chat);
         Profile requesterProfile = profileResource.getProfileByLogin(chat.getInitiatorName());
-        Profile currentProfile = profileResource.getCurrentUserProfile().getBody();
+        Profile currentProfile = currentProfile();
+        // befriending is a no-op for profiles already friends through an earlier chat, which must not count twice
+        boolean newFriends = newlyAccepted && !friendGraphService.areFriends(currentProfile.getId(), requesterProfile.getId());
         currentProfile.befriend(requesterProfile);
+        if (newFriends) {
+            engagementCounterService.increment(Counter.PROFILE_FRIENDS, currentProfile.getId());
+            engagementCounterService.increment(Counter.PROFILE_FRIENDS, requesterProfile.getId());
+        }
+        eventPublisher.publishEvent(new FriendshipCreatedEvent(currentProfile.getId(), requesterProfile.getId()));
         return profileResource.partialUpdateProfile(currentProfile.getId(), currentProfile);
     }
 
@@ -191,32 +250,116 @@ public class ChatResource {
         Chat chat = chatRepository
             .findById(id)
             .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // set the owning side only, adding to chat.chats would load the whole history
+        message.setChat(chat);
         ResponseEntity<Message> messageResponse = messageResource.createMessage(message);
-        //chat.addChat(messageResponse.getBody());
-        chat.message(messageResponse.getBody());
-        partialUpdateChat(id, chat);
+        Long senderId = currentProfileId();
+        chatReadMarkerRepository.countUnread(id, senderId);
+        chatReadMarkerRepository.markRead(id, senderId);
+        engagementCounterService.increment(Counter.CHAT_MESSAGES, id);
+        publishMessageCreated(chat, messageResponse.getBody());
         return messageResponse;
     }
 
+    @NotGenerated
+    private void publishMessageCreated(Chat chat, Message message) {
+        eventPublisher.publishEvent(
+            new ChatMessageCreatedEvent(
+                chat.getId(),
+                message.getId(),
+                message.getSenderName(),
+                message.getContent(),
+                message.getTime(),
+                chatRepository.findParticipantLogins(chat.getId())
+            )
+        );
+    }
+
     /**
      * {@code GET  /chats} : get all the chats.
      *
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of chats in body.
      */
+    @NotGenerated
     @GetMapping("")
-    public List<Chat> getAllChats() {
+    @Transactional(readOnly = true)
+    public List<ChatDTO> getAllChats() {
         LOG.debug("REST request to get all Chats");
-        List<Chat> chats = chatRepository.findAllByCurrentProfile(SecurityUtils.getCurrentUserLogin().orElseThrow());
-        customGetAllChats(chats);
-        System.out.println("chat profiles: " + chats.stream().map(Chat::getProfiles).toList());
-        return chats;
+        return toDtos(chatRepository.findRowsByLogin(currentLogin()));
     }
 
+    /**
+     * Maps the chats with their participants, read by a single second query.
+     */
+    @NotGenerated
+    private List<ChatDTO> toDtos(List<ChatRow> chats) {
+        if (chats.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ProfileRefRow>> profiles = chatRepository
+            .findProfileRefs(chats.stream().map(ChatRow::id).toList())
+            .stream()
+            .collect(Collectors.groupingBy(ProfileRefRow::ownerId));
+        return chats.stream().map(chat -> chatMapper.toDto(chat, profiles.getOrDefault(chat.id(), List.of()))).toList();
+    }
+
+    /**
+     * {@code GET  /chats/inbox} : get the chats of the current user, most recently active first.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of chat summaries in body.
+     */
+    @NotGenerated
+    @GetMapping("/inbox")
+    @Transactional(readOnly = true)
+    public List<ChatSummary> getInbox() {
+        LOG.debug("REST request to get the chat inbox");
+        List<ChatSummary> chats = chatRepository.findInbox(currentLogin());
+        if (chats.isEmpty()) {
+            return chats;
+        }
+        Map<Long, List<ChatParticipant>> participants = chatRepository
+            .findParticipants(chats.stream().map(ChatSummary::id).toList())
+            .stream()
+            .collect(Collectors.groupingBy(ChatParticipant::chatId));
+        return chats.stream().map(chat -> chat.participants(participants.getOrDefault(chat.id(), List.of()))).toList();
+    }
+
+    /**
+     * {@code PUT  /chats/:id/read} : mark every message of the "id" chat as read by the current user.
+     *
+     * @param id the id of the chat.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the current user is not in the chat.
+     */
     @NotGenerated
-    void customGetAllChats(List<Chat> chats) {
-        for (Chat chat : chats) {
-            chat.setProfiles(chat.getProfiles());
+    @PutMapping("/{id}/read")
+    public ResponseEntity<Void> markChatRead(@PathVariable("id") Long id) {
+        LOG.debug("REST request to mark Chat : {} read", id);
+        if (!chatRepository.isParticipant(id, currentLogin())) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        chatReadMarkerRepository.markRead(id, currentProfileId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @NotGenerated
+    private String currentLogin() {
+        return SecurityUtils.getCurrentUserLogin()
+            .orElseThrow(() -> new BadRequestAlertException("Could not get current login", ENTITY_NAME, "currentLoginFail"));
+    }
+
+    @NotGenerated
+    private Long currentProfileId() {
+        return currentProfileService
+            .getCurrentProfileId()
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
+    }
+
+    @NotGenerated
+    private Profile currentProfile() {
+        return profileRepository
+            .findById(currentProfileId())
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
     }
 
     /**
@@ -225,18 +368,62 @@ public class ChatResource {
      * @param id the id of the chat to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the chat, or with status {@code 404 (Not Found)}.
      */
+    @NotGenerated
     @GetMapping("/{id}")
-    public ResponseEntity<Chat> getChat(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<ChatDTO> getChat(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Chat : {}", id);
-        Optional<Chat> chat = chatRepository.findById(id);
-        fetchEntities(chat.orElseThrow());
-        return ResponseUtil.wrapOrNotFound(chat);
+        return ResponseUtil.wrapOrNotFound(chatRepository.findRow(id).map(chat -> toDtos(List.of(chat)).get(0)));
     }
 
+    /**
+     * {@code GET  /chats/:id/messages} : get a page of the messages of the "id" chat, newest first.
+     *
+     * @param id the id of the chat.
+     * @param before time of the last message of the previous page, omitted for the first page.
+     * @param beforeId id of the last message of the previous page, omitted for the first page.
+     * @param size the maximum number of messages to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of messages in body,
+     * with a {@code Link} header pointing to the next page when there may be one,
+     * or with status {@code 400 (Bad Request)} if the current user is not in the chat.
+     */
     @NotGenerated
-    void fetchEntities(Chat chat) {
-        chat.setProfiles(chat.getProfiles());
-        chat.setChats(chat.getChats());
+    @GetMapping("/{id}/messages")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ChatMessage>> getChatMessages(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime before,
+        @RequestParam(name = "beforeId", required = false) Long beforeId,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size
+    ) {
+        LOG.debug("REST request to get the messages of Chat : {} before : {}, {}", id, before, beforeId);
+        if ((before == null) != (beforeId == null)) {
+            throw new BadRequestAlertException("Both parts of the message cursor are required", ENTITY_NAME, "cursorinvalid");
+        }
+        if (!chatRepository.isParticipant(id, currentLogin())) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_MESSAGE_PAGE_SIZE)));
+        List<ChatMessage> messages = before == null
+            ? messageRepository.findChatMessages(id, limit)
+            : messageRepository.findChatMessagesBefore(id, before, beforeId, limit);
+        return ResponseEntity.ok().headers(nextPageHeaders(messages, limit.max())).body(messages);
+    }
+
+    @NotGenerated
+    private HttpHeaders nextPageHeaders(List<ChatMessage> messages, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (messages.size() < size) {
+            return headers;
+        }
+        ChatMessage last = messages.get(messages.size() - 1);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("before", last.time().toInstant().toString())
+            .replaceQueryParam("beforeId", last.id())
+            .replaceQueryParam("size", size)
+            .toUriString();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return headers;
     }
 
     /**
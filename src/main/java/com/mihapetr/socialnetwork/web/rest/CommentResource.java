@@ -1,18 +1,25 @@
 package com.mihapetr.socialnetwork.web.rest;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Comment;
 import com.mihapetr.socialnetwork.repository.CommentRepository;
+import com.mihapetr.socialnetwork.service.PostCommentService;
+import com.mihapetr.socialnetwork.service.dto.CommentDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.mapper.CommentMapper;
 import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +43,26 @@ public class CommentResource {
 
     private final CommentRepository commentRepository;
 
-    public CommentResource(CommentRepository commentRepository) {
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    private final CommentMapper commentMapper;
+
+    private final PostCommentService postCommentService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommentResource(
+        CommentRepository commentRepository,
+        StreamingJsonWriter streamingJsonWriter,
+        CommentMapper commentMapper,
+        PostCommentService postCommentService,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.commentRepository = commentRepository;
+        this.streamingJsonWriter = streamingJsonWriter;
+        this.commentMapper = commentMapper;
+        this.postCommentService = postCommentService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -47,6 +72,7 @@ public class CommentResource {
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new comment, or with status {@code 400 (Bad Request)} if the comment has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
+    @NotGenerated
     @PostMapping("")
     public ResponseEntity<Comment> createComment(@Valid @RequestBody Comment comment) throws URISyntaxException {
         LOG.debug("REST request to save Comment : {}", comment);
@@ -54,6 +80,8 @@ public class CommentResource {
             throw new BadRequestAlertException("A new comment cannot already have an ID", ENTITY_NAME, "idexists");
         }
         comment = commentRepository.save(comment);
+        postCommentService.countComment(comment.getPost().getId(), 1);
+        publishCommentChanged(comment.getId());
         return ResponseEntity.created(new URI("/api/comments/" + comment.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, comment.getId().toString()))
             .body(comment);
@@ -69,6 +97,7 @@ public class CommentResource {
      * or with status {@code 500 (Internal Server Error)} if the comment couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
+    @NotGenerated
     @PutMapping("/{id}")
     public ResponseEntity<Comment> updateComment(
         @PathVariable(value = "id", required = false) final Long id,
@@ -87,6 +116,7 @@ public class CommentResource {
         }
 
         comment = commentRepository.save(comment);
+        publishCommentChanged(comment.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, comment.getId().toString()))
             .body(comment);
@@ -131,12 +161,14 @@ public class CommentResource {
     /**
      * {@code GET  /comments} : get all the comments.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of comments in body.
+     * @param response the response the list of comments is streamed to, with status {@code 200 (OK)}.
      */
+    @NotGenerated
     @GetMapping("")
-    public List<Comment> getAllComments() {
+    @Transactional(readOnly = true)
+    public void getAllComments(HttpServletResponse response) throws IOException {
         LOG.debug("REST request to get all Comments");
-        return commentRepository.findAll();
+        streamingJsonWriter.write(commentRepository.streamAll().map(commentMapper::toDto), response);
     }
 
     /**
@@ -145,11 +177,12 @@ public class CommentResource {
      * @param id the id of the comment to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the comment, or with status {@code 404 (Not Found)}.
      */
+    @NotGenerated
     @GetMapping("/{id}")
-    public ResponseEntity<Comment> getComment(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<CommentDTO> getComment(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Comment : {}", id);
-        Optional<Comment> comment = commentRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(comment);
+        return ResponseUtil.wrapOrNotFound(commentRepository.findRow(id).map(commentMapper::toDto));
     }
 
     /**
@@ -158,12 +191,23 @@ public class CommentResource {
      * @param id the id of the comment to delete.
      * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
      */
+    @NotGenerated
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Comment : {}", id);
+        commentRepository.findPostId(id).ifPresent(postId -> postCommentService.countComment(postId, -1));
         commentRepository.deleteById(id);
+        publishCommentChanged(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Announces the written or deleted comment so it is reindexed for search once this transaction commits.
+     */
+    @NotGenerated
+    private void publishCommentChanged(Long id) {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.Content.COMMENT, id));
+    }
 }
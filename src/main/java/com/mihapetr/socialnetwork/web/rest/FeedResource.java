@@ -0,0 +1,94 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.repository.projection.FeedPost;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
+import com.mihapetr.socialnetwork.service.FeedTimelineService;
+import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller for the home feed of the current profile.
+ * <p>
+ * The feed is paged with a keyset cursor on ({@code time}, {@code id}) instead of an offset,
+ * so every page costs the same no matter how deep the client has scrolled. Pages are read from the
+ * materialized timeline maintained by {@link FeedTimelineService}.
+ */
+@NotGenerated
+@RestController
+@RequestMapping("/api/feed")
+@Transactional(readOnly = true)
+public class FeedResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FeedResource.class);
+
+    private static final String ENTITY_NAME = "post";
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final FeedTimelineService feedTimelineService;
+    private final CurrentProfileService currentProfileService;
+
+    public FeedResource(FeedTimelineService feedTimelineService, CurrentProfileService currentProfileService) {
+        this.feedTimelineService = feedTimelineService;
+        this.currentProfileService = currentProfileService;
+    }
+
+    /**
+     * {@code GET  /feed} : get a page of posts of the current profile and its friends, newest first.
+     *
+     * @param before time of the last post of the previous page, omitted for the first page.
+     * @param beforeId id of the last post of the previous page, omitted for the first page.
+     * @param size the maximum number of posts to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of posts in body,
+     * with a {@code Link} header pointing to the next page when there may be one.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<FeedPost>> getFeed(
+        @RequestParam(name = "before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime before,
+        @RequestParam(name = "beforeId", required = false) Long beforeId,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size
+    ) {
+        LOG.debug("REST request to get the feed before : {}, {}", before, beforeId);
+        if ((before == null) != (beforeId == null)) {
+            throw new BadRequestAlertException("Both parts of the feed cursor are required", ENTITY_NAME, "cursorinvalid");
+        }
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        List<FeedPost> posts = feedTimelineService.getFeed(currentProfileId(), before, beforeId, limit);
+        return ResponseEntity.ok().headers(nextPageHeaders(posts, limit.max())).body(posts);
+    }
+
+    private Long currentProfileId() {
+        return currentProfileService
+            .getCurrentProfileId()
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
+    }
+
+    private HttpHeaders nextPageHeaders(List<FeedPost> posts, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (posts.size() < size) {
+            return headers;
+        }
+        FeedPost last = posts.get(posts.size() - 1);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("before", last.time().toInstant().toString())
+            .replaceQueryParam("beforeId", last.id())
+            .replaceQueryParam("size", size)
+            .toUriString();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return headers;
+    }
+}
@@ -0,0 +1,155 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
+import com.mihapetr.socialnetwork.service.media.ThumbnailService;
+import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller serving post images and profile pictures from the {@link BlobStore}.
+ * <p>
+ * Blobs never change once stored, so responses carry the hash as a strong {@code ETag} and may be cached for
+ * {@code application.media.cache-max-age}. Bodies are transferred from the file channel to the socket without
+ * being copied through the heap when the server allows it.
+ * <p>
+ * Images may be requested at a display size, in which case the smallest thumbnail at least that large is served.
+ * A thumbnail that is not generated yet is scheduled and the original is served uncached in the meantime.
+ */
+@NotGenerated
+@RestController
+@RequestMapping("/api/media")
+public class MediaResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaResource.class);
+
+    private static final String ENTITY_NAME = "media";
+
+    private final BlobStore blobStore;
+
+    private final ThumbnailService thumbnailService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public MediaResource(BlobStore blobStore, ThumbnailService thumbnailService, ApplicationProperties applicationProperties) {
+        this.blobStore = blobStore;
+        this.thumbnailService = thumbnailService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code GET  /media/:hash} : get the content stored under a hash.
+     *
+     * @param hash the SHA-256 hash of the content.
+     * @param size the size in pixels the image will be displayed at, if a thumbnail should be served.
+     * @param request the current request, checked for {@code If-None-Match}.
+     * @param response the response the content is written to, with status {@code 200 (OK)},
+     * {@code 304 (Not Modified)} if the client already has it, or {@code 404 (Not Found)}.
+     * @throws IOException if the content could not be read or sent.
+     */
+    @GetMapping("/{hash}")
+    public void getMedia(
+        @PathVariable("hash") String hash,
+        @RequestParam(name = "size", required = false) Integer size,
+        ServletWebRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        LOG.debug("REST request to get media : {}, size {}", hash, size);
+        if (!BlobStore.isHash(hash)) {
+            throw new BadRequestAlertException("Invalid media hash", ENTITY_NAME, "hashinvalid");
+        }
+        if (size != null && size <= 0) {
+            throw new BadRequestAlertException("Invalid media size", ENTITY_NAME, "sizeinvalid");
+        }
+        Optional<Integer> thumbnailSize = size == null ? Optional.empty() : thumbnailService.thumbnailSizeFor(size);
+        if (thumbnailSize.isPresent()) {
+            Optional<BlobStore.Blob> thumbnail = blobStore.getVariant(hash, ThumbnailService.variantName(thumbnailSize.get()));
+            if (thumbnail.isPresent()) {
+                send(thumbnail.get(), "\"" + hash + "-" + thumbnailSize.get() + "\"", request, response);
+                return;
+            }
+        }
+        BlobStore.Blob blob = blobStore.get(hash).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (thumbnailSize.isPresent()) {
+            // the thumbnail got lost or was dropped by a full pool; the original stands in until it is made
+            thumbnailService.createThumbnailsAsync(hash);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            sendContent(blob, response);
+            return;
+        }
+        send(blob, "\"" + hash + "\"", request, response);
+    }
+
+    private void send(BlobStore.Blob blob, String etag, ServletWebRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(
+            HttpHeaders.CACHE_CONTROL,
+            CacheControl.maxAge(applicationProperties.getMedia().getCacheMaxAge()).cachePublic().immutable().getHeaderValue()
+        );
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        sendContent(blob, response);
+    }
+
+    private void sendContent(BlobStore.Blob blob, HttpServletResponse response) throws IOException {
+        response.setContentType(blob.contentType());
+        response.setContentLengthLong(blob.size());
+        try (ReadableByteChannel content = blob.open()) {
+            transfer(content, blob.size(), response);
+        }
+    }
+
+    private void transfer(ReadableByteChannel content, long size, HttpServletResponse response) throws IOException {
+        if (content instanceof FileChannel file) {
+            // commit the headers through any wrapping filters before writing past them
+            response.flushBuffer();
+            if (unwrap(response).getOutputStream() instanceof ServletOutputStreamImpl undertow) {
+                undertow.transferFrom(file);
+                return;
+            }
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                long sent = file.transferTo(position, size - position, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+            return;
+        }
+        try (ServletOutputStream out = response.getOutputStream()) {
+            Channels.newInputStream(content).transferTo(out);
+        }
+    }
+
+    private static ServletResponse unwrap(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper wrapper) {
+            response = wrapper.getResponse();
+        }
+        return response;
+    }
+}
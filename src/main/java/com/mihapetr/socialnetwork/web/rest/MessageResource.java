@@ -1,19 +1,24 @@
 package com.mihapetr.socialnetwork.web.rest;
 
+import com.mihapetr.socialnetwork.NotGenerated;
 import com.mihapetr.socialnetwork.domain.Message;
 import com.mihapetr.socialnetwork.repository.MessageRepository;
 import com.mihapetr.socialnetwork.security.SecurityUtils;
+import com.mihapetr.socialnetwork.service.dto.MessageDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.mapper.MessageMapper;
 import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -37,8 +42,22 @@ public class MessageResource {
 
     private final MessageRepository messageRepository;
 
-    public MessageResource(MessageRepository messageRepository) {
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    private final MessageMapper messageMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MessageResource(
+        MessageRepository messageRepository,
+        StreamingJsonWriter streamingJsonWriter,
+        MessageMapper messageMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.messageRepository = messageRepository;
+        this.streamingJsonWriter = streamingJsonWriter;
+        this.messageMapper = messageMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -72,6 +91,7 @@ public class MessageResource {
      * or with status {@code 500 (Internal Server Error)} if the message couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
+    @NotGenerated
     @PutMapping("/{id}")
     public ResponseEntity<Message> updateMessage(@PathVariable(value = "id", required = false) final Long id, @RequestBody Message message)
         throws URISyntaxException {
@@ -88,6 +108,7 @@ public class MessageResource {
         }
 
         message = messageRepository.save(message);
+        publishMessageChanged(id);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, message.getId().toString()))
             .body(message);
@@ -104,6 +125,7 @@ public class MessageResource {
      * or with status {@code 500 (Internal Server Error)} if the message couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
+    @NotGenerated
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Message> partialUpdateMessage(
         @PathVariable(value = "id", required = false) final Long id,
@@ -137,6 +159,7 @@ public class MessageResource {
                 return existingMessage;
             })
             .map(messageRepository::save);
+        publishMessageChanged(id);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -148,18 +171,20 @@ public class MessageResource {
      * {@code GET  /messages} : get all the messages.
      *
      * @param filter the filter of the request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
+     * @param response the response the list of messages is streamed to, with status {@code 200 (OK)}.
      */
+    @NotGenerated
     @GetMapping("")
-    public List<Message> getAllMessages(@RequestParam(name = "filter", required = false) String filter) {
+    @Transactional(readOnly = true)
+    public void getAllMessages(@RequestParam(name = "filter", required = false) String filter, HttpServletResponse response)
+        throws IOException {
         if ("comment-is-null".equals(filter)) {
             LOG.debug("REST request to get all Messages where comment is null");
-            return StreamSupport.stream(messageRepository.findAll().spliterator(), false)
-                .filter(message -> message.getComment() == null)
-                .toList();
+            streamingJsonWriter.write(messageRepository.streamAllWithoutComment().map(messageMapper::toDto), response);
+            return;
         }
         LOG.debug("REST request to get all Messages");
-        return messageRepository.findAll();
+        streamingJsonWriter.write(messageRepository.streamAll().map(messageMapper::toDto), response);
     }
 
     /**
@@ -168,11 +193,12 @@ public class MessageResource {
      * @param id the id of the message to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the message, or with status {@code 404 (Not Found)}.
      */
+    @NotGenerated
     @GetMapping("/{id}")
-    public ResponseEntity<Message> getMessage(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<MessageDTO> getMessage(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Message : {}", id);
-        Optional<Message> message = messageRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(message);
+        return ResponseUtil.wrapOrNotFound(messageRepository.findRow(id).map(messageMapper::toDto));
     }
 
     /**
@@ -189,4 +215,12 @@ public class MessageResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Announces the edited message so the comment it may hold is reindexed for search once this transaction commits.
+     */
+    @NotGenerated
+    private void publishMessageChanged(Long id) {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.Content.MESSAGE, id));
+    }
 }
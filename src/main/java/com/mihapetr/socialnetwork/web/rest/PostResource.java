@@ -1,15 +1,30 @@
 package com.mihapetr.socialnetwork.web.rest;
 
 import com.mihapetr.socialnetwork.NotGenerated;
-import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
 import com.mihapetr.socialnetwork.domain.Message;
 import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.repository.CommentRepository;
 import com.mihapetr.socialnetwork.repository.PostRepository;
 import com.mihapetr.socialnetwork.repository.ProfileRepository;
-import com.mihapetr.socialnetwork.security.SecurityUtils;
+import com.mihapetr.socialnetwork.repository.projection.CommentRow;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
+import com.mihapetr.socialnetwork.service.EngagementCounterService;
+import com.mihapetr.socialnetwork.service.PostCommentService;
+import com.mihapetr.socialnetwork.service.dto.CommentDTO;
+import com.mihapetr.socialnetwork.service.dto.PostDTO;
+import com.mihapetr.socialnetwork.service.dto.PostedCommentDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.event.PostCreatedEvent;
+import com.mihapetr.socialnetwork.service.mapper.CommentMapper;
+import com.mihapetr.socialnetwork.service.mapper.PostMapper;
+import com.mihapetr.socialnetwork.service.media.MediaService;
 import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
@@ -17,13 +32,16 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -38,18 +56,52 @@ public class PostResource {
     private static final Logger LOG = LoggerFactory.getLogger(PostResource.class);
 
     private static final String ENTITY_NAME = "post";
+
+    static final int COMMENT_PAGE_SIZE = 20;
+
+    static final int MAX_COMMENT_PAGE_SIZE = 100;
+
+    private static final Limit COMMENT_PAGE = Limit.of(COMMENT_PAGE_SIZE);
     private final ProfileRepository profileRepository;
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PostRepository postRepository;
-    CommentResource commentResource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaService mediaService;
+    private final CurrentProfileService currentProfileService;
+    private final StreamingJsonWriter streamingJsonWriter;
+    private final CommentRepository commentRepository;
+    private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+    private final PostCommentService postCommentService;
+    private final EngagementCounterService engagementCounterService;
 
-    public PostResource(PostRepository postRepository, ProfileRepository profileRepository, CommentResource commentResource) {
+    public PostResource(
+        PostRepository postRepository,
+        ProfileRepository profileRepository,
+        ApplicationEventPublisher eventPublisher,
+        MediaService mediaService,
+        CurrentProfileService currentProfileService,
+        StreamingJsonWriter streamingJsonWriter,
+        CommentRepository commentRepository,
+        PostMapper postMapper,
+        CommentMapper commentMapper,
+        PostCommentService postCommentService,
+        EngagementCounterService engagementCounterService
+    ) {
         this.postRepository = postRepository;
         this.profileRepository = profileRepository;
-        this.commentResource = commentResource;
+        this.eventPublisher = eventPublisher;
+        this.mediaService = mediaService;
+        this.currentProfileService = currentProfileService;
+        this.streamingJsonWriter = streamingJsonWriter;
+        this.commentRepository = commentRepository;
+        this.postMapper = postMapper;
+        this.commentMapper = commentMapper;
+        this.postCommentService = postCommentService;
+        this.engagementCounterService = engagementCounterService;
     }
 
     /**
@@ -66,8 +118,11 @@ public class PostResource {
             throw new BadRequestAlertException("A new post cannot already have an ID", ENTITY_NAME, "idexists");
         }
         customCreatePost(post);
+        mediaService.storeImage(post);
         post = postRepository.save(post);
         post.getProfile().getUser();
+        engagementCounterService.increment(Counter.PROFILE_POSTS, post.getProfile().getId());
+        publishPostCreated(post);
         return ResponseEntity.created(new URI("/api/posts/" + post.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, post.getId().toString()))
             .body(post);
@@ -76,14 +131,34 @@ public class PostResource {
     @NotGenerated
     void customCreatePost(Post post) {
         post.time(ZonedDateTime.now());
-        post.setProfile(
-            profileRepository
-                .findByUserLogin(
-                    SecurityUtils.getCurrentUserLogin()
-                        .orElseThrow(() -> new BadRequestAlertException("Could not get current login", ENTITY_NAME, "currentLoginFail"))
-                )
-                .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"))
-        );
+        post.setProfile(currentProfile());
+    }
+
+    /**
+     * Loads by id, which the second-level cache serves, rather than joining the user by login.
+     */
+    @NotGenerated
+    private Profile currentProfile() {
+        return currentProfileService
+            .getCurrentProfileId()
+            .flatMap(profileRepository::findById)
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
+    }
+
+    /**
+     * Announces the new post so it is fanned out into the feeds once this transaction commits.
+     */
+    @NotGenerated
+    void publishPostCreated(Post post) {
+        eventPublisher.publishEvent(new PostCreatedEvent(post.getId(), post.getProfile().getId(), post.getTime()));
+    }
+
+    /**
+     * Announces the written or deleted post so it is reindexed for search once this transaction commits.
+     */
+    @NotGenerated
+    void publishPostChanged(Long id) {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.Content.POST, id));
     }
 
     /**
@@ -111,7 +186,9 @@ public class PostResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        mediaService.storeImage(post);
         post = postRepository.save(post);
+        publishPostChanged(id);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, post.getId().toString()))
             .body(post);
@@ -145,11 +222,12 @@ public class PostResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        mediaService.storeImage(post);
         Optional<Post> result = postRepository
             .findById(post.getId())
             .map(existingPost -> {
-                if (post.getImage() != null) {
-                    existingPost.setImage(post.getImage());
+                if (post.getImageHash() != null) {
+                    existingPost.setImageHash(post.getImageHash());
                 }
                 if (post.getImageContentType() != null) {
                     existingPost.setImageContentType(post.getImageContentType());
@@ -164,91 +242,110 @@ public class PostResource {
                 return existingPost;
             })
             .map(postRepository::save);
-        result
-            .orElseThrow()
-            .setComments(
-                result
-                    .orElseThrow()
-                    .getComments()
-                    .stream()
-                    .map(c -> {
-                        c.setParent(c.getParent());
-                        return c;
-                    })
-                    .collect(Collectors.toSet())
-            );
-        System.out.println(
-            "Post (result) comments after patching: " +
-            result.orElseThrow().getComments().stream().map(Comment::getParent).collect(Collectors.toSet())
-        );
+        if (post.getDescription() != null) {
+            publishPostChanged(id);
+        }
+
         return ResponseUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, post.getId().toString())
         );
     }
 
-    // rquires a message with content
+    /**
+     * {@code PATCH  /posts/:id/comment} : comment on the "id" post as the current user.
+     *
+     * @param id the id of the post to comment on.
+     * @param message the message holding the content of the comment.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the new comment and the number of comments of the post,
+     * or with status {@code 400 (Bad Request)} if there is no such post.
+     */
     @NotGenerated
     @PatchMapping(value = "/{id}/comment", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Post> commentOnPost(
+    public ResponseEntity<PostedCommentDTO> commentOnPost(
         @PathVariable(value = "id", required = false) final Long id,
         @NotNull @RequestBody Message message
-    ) throws URISyntaxException {
-        String currentLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
-        message.time(ZonedDateTime.now()).senderName(currentLogin);
-        Comment comment = new Comment().parent(message).profile(profileRepository.findByUserLogin(currentLogin).orElseThrow());
-        Post post = postRepository.findById(id).orElseThrow();
-        post.comment(comment);
-        comment = commentResource.createComment(comment).getBody();
-        System.out.println("Comment before patching post: " + comment);
-        System.out.println("Comment content before patching post: " + comment.getParent().getContent());
-        return partialUpdatePost(id, post);
+    ) {
+        LOG.debug("REST request to comment on Post : {}", id);
+        PostedCommentDTO posted = postCommentService
+            .append(id, currentProfile(), message.getContent())
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, "comment", posted.comment().id().toString()))
+            .body(posted);
     }
 
     /**
      * {@code GET  /posts} : get all the posts.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body.
+     * @param response the response the list of posts is streamed to, with status {@code 200 (OK)}.
      */
+    @NotGenerated
     @GetMapping("")
-    public List<Post> getAllPosts() {
+    @Transactional(readOnly = true)
+    public void getAllPosts(HttpServletResponse response) throws IOException {
         LOG.debug("REST request to get all Posts");
-        return postRepository.findAll();
+        streamingJsonWriter.write(postRepository.streamAll().map(postMapper::toDto), response);
     }
 
     /**
      * {@code GET  /posts/:id} : get the "id" post.
      *
      * @param id the id of the post to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post with its first page of comments, or with status {@code 404 (Not Found)}.
      */
+    @NotGenerated
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPost(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<PostDTO> getPost(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Post : {}", id);
-        Optional<Post> post = postRepository.findById(id);
-        fetchEntities(post.orElseThrow());
-        System.out.println("Post comments before returning it: " + post.orElseThrow().getComments());
-        System.out.println(
-            "Post messages before returning it: " +
-            post.orElseThrow().getComments().stream().map(Comment::getParent).collect(Collectors.toSet())
-        );
+        Optional<PostDTO> post = postRepository
+            .findRow(id)
+            .map(row -> postMapper.toDto(row).comments(commentMapper.toDtos(commentRepository.findRowsByPost(id, COMMENT_PAGE))));
         return ResponseUtil.wrapOrNotFound(post);
     }
 
+    /**
+     * {@code GET  /posts/:id/comments} : get a page of the comments of the "id" post, oldest first.
+     *
+     * @param id the id of the post.
+     * @param afterId id of the last comment of the previous page, omitted for the first page.
+     * @param size the maximum number of comments to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of comments in body,
+     * with a {@code Link} header pointing to the next page when there may be one,
+     * or with status {@code 400 (Bad Request)} if there is no such post.
+     */
+    @NotGenerated
+    @GetMapping("/{id}/comments")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<CommentDTO>> getPostComments(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "afterId", required = false) Long afterId,
+        @RequestParam(name = "size", required = false, defaultValue = "" + COMMENT_PAGE_SIZE) int size
+    ) {
+        LOG.debug("REST request to get the comments of Post : {} after : {}", id, afterId);
+        if (!postRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_COMMENT_PAGE_SIZE)));
+        List<CommentRow> comments = afterId == null
+            ? commentRepository.findRowsByPost(id, limit)
+            : commentRepository.findRowsByPostAfter(id, afterId, limit);
+        return ResponseEntity.ok().headers(nextPageHeaders(comments, limit.max())).body(commentMapper.toDtos(comments));
+    }
+
     @NotGenerated
-    void fetchEntities(Post post) {
-        post.setProfile(post.getProfile());
-        post.setComments(
-            post
-                .getComments()
-                .stream()
-                .map(comment -> {
-                    comment.setParent(comment.getParent());
-                    comment.setProfile(comment.getProfile());
-                    return comment;
-                })
-                .collect(Collectors.toSet())
-        );
+    private HttpHeaders nextPageHeaders(List<CommentRow> comments, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (comments.size() < size) {
+            return headers;
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("afterId", comments.get(comments.size() - 1).id())
+            .replaceQueryParam("size", size)
+            .toUriString();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return headers;
     }
 
     /**
@@ -261,6 +358,7 @@ public class PostResource {
     public ResponseEntity<Void> deletePost(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Post : {}", id);
         postRepository.deleteById(id);
+        publishPostChanged(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
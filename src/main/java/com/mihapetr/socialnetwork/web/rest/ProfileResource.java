@@ -5,23 +5,44 @@ import com.mihapetr.socialnetwork.domain.Chat;
 import com.mihapetr.socialnetwork.domain.Message;
 import com.mihapetr.socialnetwork.domain.Profile;
 import com.mihapetr.socialnetwork.repository.ChatRepository;
+import com.mihapetr.socialnetwork.repository.PostRepository;
 import com.mihapetr.socialnetwork.repository.ProfileRepository;
-import com.mihapetr.socialnetwork.security.SecurityUtils;
+import com.mihapetr.socialnetwork.repository.projection.ProfileListItem;
+import com.mihapetr.socialnetwork.repository.projection.ProfileLogin;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
+import com.mihapetr.socialnetwork.service.FriendGraphService;
+import com.mihapetr.socialnetwork.service.ProfileTypeaheadService;
 import com.mihapetr.socialnetwork.service.UserService;
+import com.mihapetr.socialnetwork.service.dto.MutualFriendsDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileDTO;
+import com.mihapetr.socialnetwork.service.dto.ProfileSuggestionDTO;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.event.ProfileDeletedEvent;
+import com.mihapetr.socialnetwork.service.mapper.ProfileMapper;
+import com.mihapetr.socialnetwork.service.media.MediaService;
 import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -36,13 +57,42 @@ public class ProfileResource {
 
     private static final String ENTITY_NAME = "profile";
 
+    @NotGenerated
+    private static final int MAX_SUGGESTIONS = 50;
+
+    @NotGenerated
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = List.of("id", "status", "user.login");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     public final ProfileRepository profileRepository;
+    private final MediaService mediaService;
+    private final FriendGraphService friendGraphService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentProfileService currentProfileService;
+    private final PostRepository postRepository;
+    private final ProfileMapper profileMapper;
+    private final ProfileTypeaheadService profileTypeaheadService;
 
-    public ProfileResource(ProfileRepository profileRepository) {
+    public ProfileResource(
+        ProfileRepository profileRepository,
+        MediaService mediaService,
+        FriendGraphService friendGraphService,
+        ApplicationEventPublisher eventPublisher,
+        CurrentProfileService currentProfileService,
+        PostRepository postRepository,
+        ProfileMapper profileMapper,
+        ProfileTypeaheadService profileTypeaheadService
+    ) {
         this.profileRepository = profileRepository;
+        this.mediaService = mediaService;
+        this.friendGraphService = friendGraphService;
+        this.eventPublisher = eventPublisher;
+        this.currentProfileService = currentProfileService;
+        this.postRepository = postRepository;
+        this.profileMapper = profileMapper;
+        this.profileTypeaheadService = profileTypeaheadService;
     }
 
     /**
@@ -58,7 +108,9 @@ public class ProfileResource {
         if (profile.getId() != null) {
             throw new BadRequestAlertException("A new profile cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        mediaService.storePicture(profile);
         profile = profileRepository.save(profile);
+        publishStatusChanged(profile.getId());
         return ResponseEntity.created(new URI("/api/profiles/" + profile.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, profile.getId().toString()))
             .body(profile);
@@ -89,7 +141,9 @@ public class ProfileResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        mediaService.storePicture(profile);
         profile = profileRepository.save(profile);
+        publishStatusChanged(profile.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, profile.getId().toString()))
             .body(profile);
@@ -123,14 +177,15 @@ public class ProfileResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        mediaService.storePicture(profile);
         Optional<Profile> result = profileRepository
             .findById(profile.getId())
             .map(existingProfile -> {
                 if (profile.getStatus() != null) {
                     existingProfile.setStatus(profile.getStatus());
                 }
-                if (profile.getPicture() != null) {
-                    existingProfile.setPicture(profile.getPicture());
+                if (profile.getPictureHash() != null) {
+                    existingProfile.setPictureHash(profile.getPictureHash());
                 }
                 if (profile.getPictureContentType() != null) {
                     existingProfile.setPictureContentType(profile.getPictureContentType());
@@ -139,6 +194,9 @@ public class ProfileResource {
                 return existingProfile;
             })
             .map(profileRepository::save);
+        if (profile.getStatus() != null) {
+            publishStatusChanged(id);
+        }
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -147,37 +205,52 @@ public class ProfileResource {
     }
 
     /**
-     * {@code GET  /profiles} : get all the profiles.
+     * Announces the written status so it is reindexed for search once this transaction commits.
+     */
+    @NotGenerated
+    private void publishStatusChanged(Long id) {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentChangedEvent.Content.PROFILE, id));
+    }
+
+    /**
+     * {@code GET  /profiles} : get a page of the profiles.
      *
+     * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of profiles in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of profiles in body,
+     * or with status {@code 400 (Bad Request)} if sorted by a property that cannot be sorted on.
      */
     @GetMapping("")
-    public List<Profile> getAllProfiles(@RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload) {
-        LOG.debug("REST request to get all Profiles");
-        if (eagerload) {
-            return profileRepository.findAllWithEagerRelationships();
-        } else {
-            return profileRepository.findAll();
+    public ResponseEntity<List<ProfileListItem>> getAllProfiles(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+    ) {
+        LOG.debug("REST request to get a page of Profiles");
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
         }
+        Page<ProfileListItem> page = eagerload
+            ? profileRepository.findAllListItemsWithEagerRelationships(pageable)
+            : profileRepository.findAllListItems(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    @NotGenerated
+    private boolean onlyContainsAllowedProperties(Pageable pageable) {
+        return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
 
     @NotGenerated
     @GetMapping("/current-user")
-    public ResponseEntity<Profile> getCurrentUserProfile() {
+    @Transactional(readOnly = true)
+    public ResponseEntity<ProfileDTO> getCurrentUserProfile() {
         LOG.debug("REST request to get current user Profile");
-        Profile profile = profileRepository.findByUserIsCurrentUser().stream().findFirst().orElse(null);
-        for (Profile p : profile.getProfiles()) {
-            p.getUser();
-        }
-        for (Profile p : profile.getOthers()) {
-            p.getUser();
-        }
-        profile.setPosts(profile.getPosts());
-        //System.out.println("Profile is " + profile);
-        //System.out.println("Profile posts are " + profile.getPosts());
+        ProfileDTO profile = findProfileDto(currentProfileId()).orElseThrow(() ->
+            new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound")
+        );
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createAlert(applicationName, "Fetched " + ENTITY_NAME, profile.getId().toString()))
+            .headers(HeaderUtil.createAlert(applicationName, "Fetched " + ENTITY_NAME, profile.id().toString()))
             .body(profile);
     }
 
@@ -188,19 +261,117 @@ public class ProfileResource {
         return profileRepository.findByUserLogin(login).orElse(null);
     }
 
+    /**
+     * {@code GET  /profiles/suggestions} : get the friends of friends of the current user, most mutual friends first.
+     *
+     * @param size the maximum number of suggestions.
+     * @return the list of suggested profiles with their mutual friend counts.
+     */
+    @NotGenerated
+    @GetMapping("/suggestions")
+    @Transactional(readOnly = true)
+    public List<MutualFriendsDTO> getFriendSuggestions(@RequestParam(name = "size", defaultValue = "10") int size) {
+        LOG.debug("REST request to get friend suggestions");
+        List<FriendGraphService.Suggestion> suggestions = friendGraphService.suggestFriends(
+            currentProfileId(),
+            Math.min(size, MAX_SUGGESTIONS)
+        );
+        if (suggestions.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> logins = findLogins(suggestions.stream().map(FriendGraphService.Suggestion::profileId).toList());
+        // profiles deleted since the graph was updated have no login row and are dropped
+        return suggestions
+            .stream()
+            .filter(suggestion -> logins.containsKey(suggestion.profileId()))
+            .map(suggestion -> new MutualFriendsDTO(suggestion.profileId(), logins.get(suggestion.profileId()), suggestion.mutualFriends()))
+            .toList();
+    }
+
+    /**
+     * {@code GET  /profiles/suggest?q=:query} : get the profiles whose login or name starts with what the current user
+     * typed, friends first, then friends of friends, then anyone else.
+     *
+     * @param query the words typed so far, each of which must start a word of the login or name.
+     * @param size the maximum number of suggestions.
+     * @return the list of suggested profiles, closest to the current user first.
+     */
+    @NotGenerated
+    @GetMapping("/suggest")
+    @Transactional(readOnly = true)
+    public List<ProfileSuggestionDTO> suggestProfiles(
+        @RequestParam("q") String query,
+        @RequestParam(name = "size", defaultValue = "10") int size
+    ) {
+        LOG.debug("REST request to suggest Profiles : {}", query);
+        return profileTypeaheadService.suggest(currentProfileId(), query, Math.min(size, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * {@code GET  /profiles/:id/mutual-friends} : count the friends the current user shares with the "id" profile.
+     *
+     * @param id the id of the other profile.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the mutual friend count in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @NotGenerated
+    @GetMapping("/{id}/mutual-friends")
+    @Transactional(readOnly = true)
+    public ResponseEntity<MutualFriendsDTO> getMutualFriends(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get mutual friends with Profile : {}", id);
+        Long currentProfileId = currentProfileId();
+        Optional<MutualFriendsDTO> mutualFriends = Optional.ofNullable(findLogins(List.of(id)).get(id)).map(login ->
+            new MutualFriendsDTO(id, login, friendGraphService.countMutualFriends(currentProfileId, id))
+        );
+        return ResponseUtil.wrapOrNotFound(mutualFriends);
+    }
+
+    @NotGenerated
+    private Map<Long, String> findLogins(List<Long> ids) {
+        // users can be missing, and toMap does not accept null values
+        return profileRepository
+            .findLogins(ids)
+            .stream()
+            .collect(Collectors.toMap(ProfileLogin::id, profile -> Objects.requireNonNullElse(profile.login(), "")));
+    }
+
+    @NotGenerated
+    private Long currentProfileId() {
+        return currentProfileService
+            .getCurrentProfileId()
+            .orElseThrow(() -> new BadRequestAlertException("Profile not found", ENTITY_NAME, "profilenotfound"));
+    }
+
     /**
      * {@code GET  /profiles/:id} : get the "id" profile.
      *
      * @param id the id of the profile to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the profile, or with status {@code 404 (Not Found)}.
      */
+    @NotGenerated
     @GetMapping("/{id}")
-    public ResponseEntity<Profile> getProfile(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<ProfileDTO> getProfile(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Profile : {}", id);
-        Optional<Profile> profile = profileRepository.findOneWithEagerRelationships(id);
-        Profile pe = profile.orElseThrow();
-        pe.setPosts(pe.getPosts());
-        return ResponseUtil.wrapOrNotFound(profile);
+        return ResponseUtil.wrapOrNotFound(findProfileDto(id));
+    }
+
+    /**
+     * Reads a profile with its relationships and posts, one query each.
+     */
+    @NotGenerated
+    private Optional<ProfileDTO> findProfileDto(Long id) {
+        return profileRepository
+            .findRow(id)
+            .map(row ->
+                profileMapper.toDto(
+                    row,
+                    profileRepository.findOtherRefs(id),
+                    profileRepository.findChatIds(id),
+                    profileRepository.findProfileRefs(id),
+                    postRepository.findRowsByProfile(id)
+                )
+            );
     }
 
     /**
@@ -213,6 +384,7 @@ public class ProfileResource {
     public ResponseEntity<Void> deleteProfile(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Profile : {}", id);
         profileRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProfileDeletedEvent(id));
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
@@ -0,0 +1,97 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.security.AuthoritiesConstants;
+import com.mihapetr.socialnetwork.service.dto.SearchHitDTO;
+import com.mihapetr.socialnetwork.service.search.SearchIndex;
+import com.mihapetr.socialnetwork.service.search.SearchIndexService;
+import com.mihapetr.socialnetwork.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for full-text search over posts, comments and profile statuses.
+ * <p>
+ * Searches are served from the {@link SearchIndex} alone and ranked by relevance. Only the best
+ * {@link #MAX_RESULTS} hits can be paged through, so a deep page never costs more than that.
+ */
+@NotGenerated
+@RestController
+@RequestMapping("/api")
+public class SearchResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResource.class);
+
+    private static final String ENTITY_NAME = "search";
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_RESULTS = 1000;
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchResource(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    /**
+     * {@code GET  /search?q=:query} : get a page of the posts, comments and profiles matching a query, best first.
+     *
+     * @param query the words to search, all of which must match; see {@link SearchIndex#search} for the syntax.
+     * @param type the type of the hits, omitted for all types.
+     * @param pageable the pagination information; any sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body, with pagination
+     * headers counting at most {@link #MAX_RESULTS} hits, or with status {@code 400 (Bad Request)} if the query is
+     * blank or the page is beyond the results that can be paged through.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHitDTO>> search(
+        @RequestParam("q") String query,
+        @RequestParam(name = "type", required = false) SearchHitDTO.Type type,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search : {}", query);
+        if (query.isBlank()) {
+            throw new BadRequestAlertException("Empty query", ENTITY_NAME, "queryempty");
+        }
+        Pageable request = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+        if (request.getOffset() + request.getPageSize() > MAX_RESULTS) {
+            throw new BadRequestAlertException("Page beyond the results", ENTITY_NAME, "pagetoodeep");
+        }
+        SearchIndex.Result result = searchIndexService.search(query, type, (int) request.getOffset(), request.getPageSize());
+        Page<SearchHitDTO> page = new PageImpl<>(result.hits(), request, Math.min(result.total(), MAX_RESULTS));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /admin/search/rebuild} : rebuild the search index from the database in the background.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)},
+     * or with status {@code 400 (Bad Request)} if a rebuild is already running.
+     */
+    @PostMapping("/admin/search/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildIndex() {
+        LOG.debug("REST request to rebuild the search index");
+        if (!searchIndexService.startRebuild()) {
+            throw new BadRequestAlertException("The search index is already being rebuilt", ENTITY_NAME, "rebuildrunning");
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
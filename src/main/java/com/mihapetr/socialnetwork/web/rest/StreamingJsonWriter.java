@@ -0,0 +1,59 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.config.Constants;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a stream of DTOs or entities to the response as a JSON array, each element as soon as it has been read.
+ * <p>
+ * The list endpoints used to load the whole table before serializing it. Here the rows are read
+ * {@link Constants#STREAM_FETCH_SIZE} at a time and the persistence context is cleared after every such batch, so
+ * the memory used by a request no longer grows with the number of rows. It must be called within the
+ * transaction the stream was opened in, ideally a read-only one so Hibernate keeps no snapshots.
+ */
+@NotGenerated
+@Component
+public class StreamingJsonWriter {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final EntityManager entityManager;
+
+    public StreamingJsonWriter(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes the elements and closes the stream.
+     */
+    public void write(Stream<?> elements, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (elements; JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            Iterator<?> iterator = elements.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(generator, iterator.next());
+                if (++written % Constants.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mihapetr.socialnetwork.web.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mihapetr.socialnetwork.NotGenerated;
+import com.mihapetr.socialnetwork.service.event.ChatMessageCreatedEvent;
+import com.mihapetr.socialnetwork.web.websocket.dto.ChatMessageDTO;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the open chat connections of every user and pushes new messages to the participants of a chat.
+ * <p>
+ * Messages are pushed once the sending transaction has committed, so a client never sees a message it cannot
+ * load afterwards. Pushing only queues the frame on each connection and never blocks the committing thread.
+ */
+@NotGenerated
+@Component
+public class ChatSessionRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatSessionRegistry.class);
+
+    private final Map<String, Set<ChatSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    public ChatSessionRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void register(ChatSocketSession session) {
+        sessions.computeIfAbsent(session.getLogin(), login -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    public void unregister(ChatSocketSession session) {
+        session.closed();
+        sessions.computeIfPresent(session.getLogin(), (login, open) -> {
+            open.remove(session);
+            return open.isEmpty() ? null : open;
+        });
+    }
+
+    /**
+     * @param login the login of a user.
+     * @return the number of open connections of the user.
+     */
+    public int countSessions(String login) {
+        return sessions.getOrDefault(login, Set.of()).size();
+    }
+
+    @TransactionalEventListener
+    public void onChatMessageCreated(ChatMessageCreatedEvent event) {
+        String text;
+        try {
+            text = objectMapper.writeValueAsString(
+                new ChatMessageDTO(event.chatId(), event.messageId(), event.senderName(), event.content(), event.time())
+            );
+        } catch (JsonProcessingException e) {
+            LOG.error("Could not serialize message {} of chat {}", event.messageId(), event.chatId(), e);
+            return;
+        }
+        for (String login : event.recipients()) {
+            for (ChatSocketSession session : sessions.getOrDefault(login, Set.of())) {
+                session.send(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mihapetr.socialnetwork.web.websocket;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * WebSocket endpoint delivering new chat messages to the connected user, replacing polling of {@code GET /api/chats/:id}.
+ * <p>
+ * Browsers cannot set headers on a WebSocket handshake, so the JWT issued by {@code /api/authenticate} is passed
+ * as the {@code access_token} query parameter and verified with the same {@link JwtDecoder} as REST calls.
+ * The channel is push only; anything the client sends is ignored.
+ */
+@NotGenerated
+public class ChatSocketEndpoint extends Endpoint {
+
+    public static final String PATH = "/websocket/chat";
+
+    public static final String TOKEN_PARAMETER = "access_token";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatSocketEndpoint.class);
+
+    private final ChatSessionRegistry registry;
+
+    private final JwtDecoder jwtDecoder;
+
+    private final int sendBufferSize;
+
+    private ChatSocketSession chatSession;
+
+    public ChatSocketEndpoint(ChatSessionRegistry registry, JwtDecoder jwtDecoder, int sendBufferSize) {
+        this.registry = registry;
+        this.jwtDecoder = jwtDecoder;
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        List<String> tokens = session.getRequestParameterMap().get(TOKEN_PARAMETER);
+        String login;
+        try {
+            if (tokens == null || tokens.isEmpty()) {
+                throw new JwtException("Missing token");
+            }
+            Jwt jwt = jwtDecoder.decode(tokens.get(0));
+            login = jwt.getSubject();
+        } catch (JwtException e) {
+            LOG.debug("Rejected chat connection: {}", e.getMessage());
+            close(session, new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Unauthorized"));
+            return;
+        }
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) message -> {});
+        chatSession = new ChatSocketSession(session, login, sendBufferSize);
+        registry.register(chatSession);
+        LOG.debug("Chat connection opened for {}", login);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (chatSession != null) {
+            registry.unregister(chatSession);
+            LOG.debug("Chat connection closed for {}: {}", chatSession.getLogin(), closeReason);
+        }
+    }
+
+    @Override
+    public void onError(Session session, Throwable thr) {
+        LOG.debug("Chat connection error: {}", thr.getMessage());
+    }
+
+    private static void close(Session session, CloseReason reason) {
+        try {
+            session.close(reason);
+        } catch (IOException e) {
+            LOG.debug("Could not close chat connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.mihapetr.socialnetwork.web.websocket;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connected chat client with a bounded send buffer.
+ * <p>
+ * At most one send is in flight per connection; messages arriving meanwhile are queued. A client that lets the
+ * queue fill up is disconnected instead of growing the heap, and catches up over REST when it reconnects.
+ */
+@NotGenerated
+public class ChatSocketSession {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChatSocketSession.class);
+
+    private final Session session;
+
+    private final String login;
+
+    private final int bufferSize;
+
+    private final Queue<String> buffer = new ArrayDeque<>();
+
+    private boolean sending;
+
+    private boolean closed;
+
+    public ChatSocketSession(Session session, String login, int bufferSize) {
+        this.session = session;
+        this.login = login;
+        this.bufferSize = bufferSize;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    /**
+     * Sends a text frame, or queues it behind the send in flight.
+     *
+     * @param text the frame to send.
+     * @return {@code false} if the connection is closed or was closed because its buffer is full.
+     */
+    public boolean send(String text) {
+        boolean overflow;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (!sending) {
+                sending = true;
+                overflow = false;
+            } else if (buffer.size() < bufferSize) {
+                buffer.add(text);
+                return true;
+            } else {
+                closed = true;
+                buffer.clear();
+                overflow = true;
+            }
+        }
+        if (overflow) {
+            LOG.debug("Send buffer of {} is full, disconnecting", login);
+            close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Send buffer full"));
+            return false;
+        }
+        session.getAsyncRemote().sendText(text, this::onSent);
+        return true;
+    }
+
+    private void onSent(SendResult result) {
+        String next;
+        synchronized (this) {
+            if (!result.isOK()) {
+                closed = true;
+            }
+            next = closed ? null : buffer.poll();
+            if (next == null) {
+                buffer.clear();
+                sending = false;
+            }
+        }
+        if (!result.isOK()) {
+            LOG.debug("Send to {} failed: {}", login, result.getException().getMessage());
+            close(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Send failed"));
+        } else if (next != null) {
+            session.getAsyncRemote().sendText(next, this::onSent);
+        }
+    }
+
+    /**
+     * Marks the connection closed, dropping anything still queued.
+     */
+    public synchronized void closed() {
+        closed = true;
+        buffer.clear();
+    }
+
+    private void close(CloseReason reason) {
+        try {
+            session.close(reason);
+        } catch (IOException e) {
+            LOG.debug("Could not close connection of {}: {}", login, e.getMessage());
+        }
+    }
+}
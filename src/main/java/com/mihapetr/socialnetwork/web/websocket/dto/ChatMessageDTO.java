@@ -0,0 +1,10 @@
+package com.mihapetr.socialnetwork.web.websocket.dto;
+
+import com.mihapetr.socialnetwork.NotGenerated;
+import java.time.ZonedDateTime;
+
+/**
+ * A new message pushed to the participants of a chat.
+ */
+@NotGenerated
+public record ChatMessageDTO(Long chatId, Long id, String senderName, String content, ZonedDateTime time) {}
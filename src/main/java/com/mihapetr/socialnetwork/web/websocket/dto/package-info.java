@@ -0,0 +1,4 @@
+/**
+ * Payloads pushed to WebSocket clients.
+ */
+package com.mihapetr.socialnetwork.web.websocket.dto;
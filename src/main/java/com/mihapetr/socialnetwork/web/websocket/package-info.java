@@ -0,0 +1,4 @@
+/**
+ * WebSocket layer.
+ */
+package com.mihapetr.socialnetwork.web.websocket;
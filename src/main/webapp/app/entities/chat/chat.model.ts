@@ -1,3 +1,4 @@
+import dayjs from 'dayjs/esm';
 import { IUser } from 'app/entities/user/user.model';
 import { IProfile } from 'app/entities/profile/profile.model';
 import { IMessage } from '../message/message.model';
@@ -6,9 +7,28 @@ export interface IChat {
   id: number;
   initiatorName?: string | null;
   accepted?: boolean | null;
+  messageCount?: number | null;
   user?: Pick<IUser, 'id'> | null;
   profiles?: IProfile[] | null;
   chats?: IMessage[] | null;
 }
 
 export type NewChat = Omit<IChat, 'id'> & { id: null };
+
+export interface IChatParticipant {
+  chatId: number;
+  profileId: number;
+  login?: string | null;
+}
+
+export interface IChatSummary {
+  id: number;
+  initiatorName?: string | null;
+  accepted?: boolean | null;
+  lastMessageId?: number | null;
+  lastMessageSender?: string | null;
+  lastMessagePreview?: string | null;
+  lastMessageTime?: dayjs.Dayjs | null;
+  unreadCount: number;
+  participants: IChatParticipant[];
+}
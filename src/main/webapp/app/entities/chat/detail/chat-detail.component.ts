@@ -1,47 +1,51 @@
-import { Component, inject, input, signal, WritableSignal, OnInit } from '@angular/core';
+import { Component, inject, input, signal, WritableSignal, OnDestroy, OnInit } from '@angular/core';
 import { RouterModule } from '@angular/router';
 
 import SharedModule from 'app/shared/shared.module';
 import { IChat } from '../chat.model';
 import { AccountService } from '../../../core/auth/account.service';
 import { FormsModule } from '@angular/forms';
-import { Observable, Subscription, switchMap, timer } from 'rxjs';
+import { Observable, Subscription } from 'rxjs';
 import { HttpResponse } from '@angular/common/http';
 import { IPost } from '../../post/post.model';
 import { ChatService } from '../service/chat.service';
+import { ChatSocketService } from '../service/chat-socket.service';
 import { IMessage } from '../../message/message.model';
+import dayjs from 'dayjs/esm';
+
+const MESSAGE_PAGE_SIZE = 20;
 
 @Component({
   selector: 'jhi-chat-detail',
   templateUrl: './chat-detail.component.html',
   imports: [SharedModule, RouterModule, FormsModule],
 })
-export class ChatDetailComponent implements OnInit {
+export class ChatDetailComponent implements OnInit, OnDestroy {
   chat = input<IChat | null>(null);
   account = inject(AccountService).trackCurrentAccount();
   localMessages: WritableSignal<IMessage[] | null | undefined> = signal(null);
+  hasOlderMessages = signal(false);
 
   messageText = '';
   protected chatService = inject(ChatService);
-  private pollingSubscription?: Subscription;
+  protected chatSocketService = inject(ChatSocketService);
+  private messagesSubscription?: Subscription;
 
   ngOnInit(): void {
-    // Initialize local writable signal with initial data from route resolver input signal
-    this.localMessages.set(this.chat()?.chats);
-
-    this.pollingSubscription = timer(0, 1000)
-      .pipe(switchMap(() => this.chatService.find(this.chat()!.id)))
-      .subscribe({
-        next: response => {
-          this.localMessages.set(response.body?.chats); // Process/update component data
-        },
-        error(error) {
-          console.error('Polling error', error);
-          // Optionally handle errors, stop polling, etc.
-        },
+    const chatId = this.chat()!.id;
+    // new messages are pushed by the server; the chat is only reloaded to catch up after (re)connecting
+    this.messagesSubscription = this.chatSocketService
+      .messages(chatId, () => this.reload(chatId))
+      .subscribe(message => {
+        this.addMessage(message);
+        this.markRead(chatId);
       });
   }
 
+  ngOnDestroy(): void {
+    this.messagesSubscription?.unsubscribe();
+  }
+
   formatDateTime(isoString: string): string {
     const date = new Date(isoString);
 
@@ -64,6 +68,48 @@ export class ChatDetailComponent implements OnInit {
     return `${day} ${month} ${year} ${hours}:${minutes}`;
   }
 
+  reload(chatId: number): void {
+    this.chatService.messages(chatId, MESSAGE_PAGE_SIZE).subscribe(response => {
+      const page = response.body ?? [];
+      if (this.localMessages() == null) {
+        this.hasOlderMessages.set(page.length === MESSAGE_PAGE_SIZE);
+      }
+      this.addMessages(page);
+      this.markRead(chatId);
+    });
+  }
+
+  markRead(chatId: number): void {
+    this.chatService.markRead(chatId).subscribe();
+  }
+
+  loadOlderMessages(chatId: number): void {
+    const oldest = this.localMessages()?.[0];
+    if (!oldest) {
+      return;
+    }
+    this.chatService.messages(chatId, MESSAGE_PAGE_SIZE, oldest).subscribe(response => {
+      const page = response.body ?? [];
+      this.hasOlderMessages.set(page.length === MESSAGE_PAGE_SIZE);
+      this.addMessages(page);
+    });
+  }
+
+  addMessage(message: IMessage): void {
+    this.addMessages([message]);
+  }
+
+  /**
+   * Merges messages into the loaded history, which is kept oldest first without duplicates.
+   */
+  addMessages(messages: IMessage[]): void {
+    this.localMessages.update(loaded => {
+      const byId = new Map((loaded ?? []).map(m => [m.id, m]));
+      messages.forEach(m => byId.set(m.id, m));
+      return [...byId.values()].sort((a, b) => dayjs(a.time).valueOf() - dayjs(b.time).valueOf() || a.id - b.id);
+    });
+  }
+
   previousState(): void {
     window.history.back();
   }
@@ -55,11 +55,11 @@ describe('Chat Management Component', () => {
     routerNavigateSpy = jest.spyOn(comp.router, 'navigate');
 
     jest
-      .spyOn(service, 'query')
+      .spyOn(service, 'inbox')
       .mockReturnValueOnce(
         of(
           new HttpResponse({
-            body: [{ id: 7587 }],
+            body: [{ id: 7587, unreadCount: 0, participants: [] }],
             headers: new HttpHeaders({
               link: '<http://localhost/api/foo?page=1&size=20>; rel="next"',
             }),
@@ -69,7 +69,7 @@ describe('Chat Management Component', () => {
       .mockReturnValueOnce(
         of(
           new HttpResponse({
-            body: [{ id: 26569 }],
+            body: [{ id: 26569, unreadCount: 0, participants: [] }],
             headers: new HttpHeaders({
               link: '<http://localhost/api/foo?page=0&size=20>; rel="prev",<http://localhost/api/foo?page=2&size=20>; rel="next"',
             }),
@@ -83,7 +83,7 @@ describe('Chat Management Component', () => {
     comp.ngOnInit();
 
     // THEN
-    expect(service.query).toHaveBeenCalled();
+    expect(service.inbox).toHaveBeenCalled();
     expect(comp.chats()[0]).toEqual(expect.objectContaining({ id: 7587 }));
   });
 
@@ -117,7 +117,7 @@ describe('Chat Management Component', () => {
     comp.ngOnInit();
 
     // THEN
-    expect(service.query).toHaveBeenLastCalledWith(expect.objectContaining({ sort: ['id,desc'] }));
+    expect(comp.sortState()).toEqual(expect.objectContaining({ predicate: 'id', order: 'desc' }));
   });
 
   describe('delete', () => {
@@ -5,10 +5,11 @@ import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
 import SharedModule from 'app/shared/shared.module';
 import { SortByDirective, SortDirective, SortService, type SortState, sortStateSignal } from 'app/shared/sort';
+import { FormatMediumDatetimePipe } from 'app/shared/date';
 import { FormsModule } from '@angular/forms';
 import { DEFAULT_SORT_DATA, ITEM_DELETED_EVENT, SORT } from 'app/config/navigation.constants';
-import { IChat } from '../chat.model';
-import { ChatService, EntityArrayResponseType } from '../service/chat.service';
+import { IChat, IChatSummary } from '../chat.model';
+import { ChatService } from '../service/chat.service';
 import { ChatDeleteDialogComponent } from '../delete/chat-delete-dialog.component';
 import { AccountService } from '../../../core/auth/account.service';
 import { HttpResponse } from '@angular/common/http';
@@ -18,11 +19,11 @@ import { IProfile } from '../../profile/profile.model';
 @Component({
   selector: 'jhi-chat',
   templateUrl: './chat.component.html',
-  imports: [RouterModule, FormsModule, SharedModule, SortDirective, SortByDirective],
+  imports: [RouterModule, FormsModule, SharedModule, SortDirective, SortByDirective, FormatMediumDatetimePipe],
 })
 export class ChatComponent implements OnInit {
   subscription: Subscription | null = null;
-  chats = signal<IChat[]>([]);
+  chats = signal<IChatSummary[]>([]);
   isLoading = false;
   account = inject(AccountService).trackCurrentAccount();
 
@@ -35,7 +36,7 @@ export class ChatComponent implements OnInit {
   protected modalService = inject(NgbModal);
   protected ngZone = inject(NgZone);
 
-  trackId = (item: IChat): number => this.chatService.getChatIdentifier(item);
+  trackId = (item: Pick<IChatSummary, 'id'>): number => this.chatService.getChatIdentifier(item);
 
   ngOnInit(): void {
     this.subscription = combineLatest([this.activatedRoute.queryParamMap, this.activatedRoute.data])
@@ -66,7 +67,7 @@ export class ChatComponent implements OnInit {
 
   load(): void {
     this.queryBackend().subscribe({
-      next: (res: EntityArrayResponseType) => {
+      next: (res: HttpResponse<IChatSummary[]>) => {
         this.onResponseSuccess(res);
       },
     });
@@ -99,26 +100,24 @@ export class ChatComponent implements OnInit {
     this.sortState.set(this.sortService.parseSortParam(params.get(SORT) ?? data[DEFAULT_SORT_DATA]));
   }
 
-  protected onResponseSuccess(response: EntityArrayResponseType): void {
+  protected onResponseSuccess(response: HttpResponse<IChatSummary[]>): void {
     const dataFromBody = this.fillComponentAttributesFromResponseBody(response.body);
     this.chats.set(this.refineData(dataFromBody));
   }
 
-  protected refineData(data: IChat[]): IChat[] {
+  protected refineData(data: IChatSummary[]): IChatSummary[] {
     const { predicate, order } = this.sortState();
     return predicate && order ? data.sort(this.sortService.startSort({ predicate, order })) : data;
   }
 
-  protected fillComponentAttributesFromResponseBody(data: IChat[] | null): IChat[] {
+  protected fillComponentAttributesFromResponseBody(data: IChatSummary[] | null): IChatSummary[] {
     return data ?? [];
   }
 
-  protected queryBackend(): Observable<EntityArrayResponseType> {
+  protected queryBackend(): Observable<HttpResponse<IChatSummary[]>> {
     this.isLoading = true;
-    const queryObject: any = {
-      sort: this.sortService.buildSortParam(this.sortState()),
-    };
-    return this.chatService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
+    // the inbox comes most recently active first; sorting by another column happens in refineData
+    return this.chatService.inbox().pipe(tap(() => (this.isLoading = false)));
   }
 
   protected handleNavigation(sortState: SortState): void {
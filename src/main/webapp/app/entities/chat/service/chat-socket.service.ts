@@ -0,0 +1,54 @@
+import { Injectable, inject } from '@angular/core';
+import { Observable, defer, filter, map, repeat, retry, timer } from 'rxjs';
+import { webSocket } from 'rxjs/webSocket';
+import dayjs from 'dayjs/esm';
+
+import { StateStorageService } from 'app/core/auth/state-storage.service';
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { IMessage } from '../../message/message.model';
+
+const RECONNECT_DELAY_MS = 2000;
+
+interface ChatMessagePush {
+  chatId: number;
+  id: number;
+  senderName?: string | null;
+  content?: string | null;
+  time?: string | null;
+}
+
+@Injectable({ providedIn: 'root' })
+export class ChatSocketService {
+  protected readonly stateStorageService = inject(StateStorageService);
+  protected readonly applicationConfigService = inject(ApplicationConfigService);
+
+  /**
+   * New messages of a chat, pushed by the server as they are sent. The connection is re-opened when it drops;
+   * `connected` is called every time it opens so callers can reload what they may have missed.
+   */
+  messages(chatId: number, connected: () => void): Observable<IMessage> {
+    return defer(() =>
+      webSocket<ChatMessagePush>({
+        url: this.url(),
+        openObserver: { next: () => connected() },
+      }),
+    ).pipe(
+      retry({ delay: () => timer(RECONNECT_DELAY_MS) }),
+      repeat({ delay: () => timer(RECONNECT_DELAY_MS) }),
+      filter(push => push.chatId === chatId),
+      map(push => ({
+        id: push.id,
+        senderName: push.senderName,
+        content: push.content,
+        time: push.time ? dayjs(push.time) : null,
+      })),
+    );
+  }
+
+  private url(): string {
+    const url = new URL(this.applicationConfigService.getEndpointFor('websocket/chat'), document.baseURI);
+    url.protocol = url.protocol === 'https:' ? 'wss:' : 'ws:';
+    url.searchParams.set('access_token', this.stateStorageService.getAuthenticationToken() ?? '');
+    return url.toString();
+  }
+}
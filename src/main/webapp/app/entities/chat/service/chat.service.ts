@@ -1,16 +1,21 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient, HttpResponse } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { Observable, map } from 'rxjs';
+import dayjs from 'dayjs/esm';
 
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { createRequestOption } from 'app/core/request/request-util';
-import { IChat, NewChat } from '../chat.model';
+import { IChat, IChatSummary, NewChat } from '../chat.model';
 import { IProfile } from '../../profile/profile.model';
-import { NewMessage } from '../../message/message.model';
+import { IMessage, NewMessage } from '../../message/message.model';
 
 export type PartialUpdateChat = Partial<IChat> & Pick<IChat, 'id'>;
 
+type RestChatSummary = Omit<IChatSummary, 'lastMessageTime'> & {
+  lastMessageTime?: string | null;
+};
+
 export type EntityResponseType = HttpResponse<IChat>;
 export type EntityArrayResponseType = HttpResponse<IChat[]>;
 
@@ -45,6 +50,34 @@ export class ChatService {
     return this.http.get<IChat>(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
 
+  inbox(): Observable<HttpResponse<IChatSummary[]>> {
+    return this.http.get<RestChatSummary[]>(`${this.resourceUrl}/inbox`, { observe: 'response' }).pipe(
+      map(res =>
+        res.clone({
+          body: res.body
+            ? res.body.map(summary => ({ ...summary, lastMessageTime: summary.lastMessageTime ? dayjs(summary.lastMessageTime) : null }))
+            : null,
+        }),
+      ),
+    );
+  }
+
+  markRead(id: number): Observable<HttpResponse<{}>> {
+    return this.http.put(`${this.resourceUrl}/${id}/read`, null, { observe: 'response' });
+  }
+
+  /**
+   * A page of the history of a chat, newest first. Pass the oldest message loaded so far to get the page before it.
+   */
+  messages(id: number, size: number, before?: Pick<IMessage, 'id' | 'time'>): Observable<HttpResponse<IMessage[]>> {
+    // times loaded over REST are kept as the server's ISO strings, which carry more precision than dayjs
+    const cursor = before
+      ? { before: dayjs.isDayjs(before.time) ? before.time.toISOString() : before.time, beforeId: before.id }
+      : {};
+    const options = createRequestOption({ size, ...cursor });
+    return this.http.get<IMessage[]>(`${this.resourceUrl}/${id}/messages`, { params: options, observe: 'response' });
+  }
+
   accept(id: number): Observable<HttpResponse<IProfile>> {
     return this.http.patch<IProfile>(`${this.resourceUrl}/${id}/accept`, null, { observe: 'response' });
   }
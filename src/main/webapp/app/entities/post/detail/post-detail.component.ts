@@ -1,15 +1,18 @@
-import { Component, EventEmitter, inject, input, Output, signal, WritableSignal, OnInit } from '@angular/core';
+import { Component, EventEmitter, inject, input, Output, signal, WritableSignal, OnInit, computed } from '@angular/core';
 import { RouterModule } from '@angular/router';
 
 import SharedModule from 'app/shared/shared.module';
 import { FormatMediumDatetimePipe } from 'app/shared/date';
 import { DataUtils } from 'app/core/util/data-util.service';
-import { IPost } from '../post.model';
+import { IPost, IPostedComment } from '../post.model';
 import { PostService } from '../service/post.service';
 import { FormsModule } from '@angular/forms';
 import { Observable } from 'rxjs';
 import { HttpResponse } from '@angular/common/http';
 import { finalize } from 'rxjs/operators';
+import { IComment } from '../../comment/comment.model';
+
+const COMMENT_PAGE_SIZE = 20;
 
 @Component({
   selector: 'jhi-post-detail',
@@ -21,6 +24,10 @@ export class PostDetailComponent implements OnInit {
 
   commentText = '';
   localPost: WritableSignal<IPost | null> = signal(null);
+  hasMoreComments = computed(() => {
+    const post = this.localPost();
+    return (post?.comments?.length ?? 0) < (post?.commentCount ?? 0);
+  });
 
   protected dataUtils = inject(DataUtils);
   protected postService = inject(PostService);
@@ -64,21 +71,40 @@ export class PostDetailComponent implements OnInit {
     return `${day} ${month} ${year} ${hours}:${minutes}`;
   }
 
+  loadMoreComments(postId: number): void {
+    const newest = this.localPost()?.comments?.at(-1);
+    this.postService.comments(postId, COMMENT_PAGE_SIZE, newest).subscribe(response => this.addComments(response.body ?? []));
+  }
+
+  /**
+   * Merges comments into the loaded ones, which are kept oldest first without duplicates.
+   */
+  addComments(comments: IComment[], commentCount?: number): void {
+    this.localPost.update(post => {
+      if (!post) {
+        return post;
+      }
+      const byId = new Map((post.comments ?? []).map(c => [c.id, c]));
+      comments.forEach(c => byId.set(c.id, c));
+      return { ...post, comments: [...byId.values()].sort((a, b) => a.id - b.id), commentCount: commentCount ?? post.commentCount };
+    });
+  }
+
   postComment(): void {
     this.subscribeToCommentResponse(this.postService.comment(this.post()!.id, this.commentText));
   }
 
-  protected subscribeToCommentResponse(result: Observable<HttpResponse<IPost>>): void {
+  protected subscribeToCommentResponse(result: Observable<HttpResponse<IPostedComment>>): void {
     result.subscribe({
       next: res => this.onSaveSuccess(res.body!),
       error: () => this.onSaveError(),
     });
   }
 
-  protected onSaveSuccess(updatedPost: IPost): void {
+  protected onSaveSuccess(posted: IPostedComment): void {
     this.commentText = '';
-    // Update the writable post signal with the updated post to refresh UI
-    this.localPost.set(updatedPost);
+    // Merge the new comment rather than reloading the post; while pages are missing it arrives with the last page
+    this.addComments(this.hasMoreComments() ? [] : [posted.comment], posted.commentCount);
   }
 
   protected onSaveError(): void {
@@ -6,12 +6,19 @@ import { IComment } from '../comment/comment.model';
 export interface IPost {
   id: number;
   image?: string | null;
+  imageHash?: string | null;
   imageContentType?: string | null;
   description?: string | null;
   time?: dayjs.Dayjs | null;
+  commentCount?: number | null;
   user?: IUser | null;
   profile?: IProfile | null;
   comments?: IComment[] | null;
 }
 
 export type NewPost = Omit<IPost, 'id'> & { id: null };
+
+export interface IPostedComment {
+  comment: IComment;
+  commentCount: number;
+}
@@ -7,8 +7,9 @@ import dayjs from 'dayjs/esm';
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { createRequestOption } from 'app/core/request/request-util';
-import { IPost, NewPost } from '../post.model';
+import { IPost, IPostedComment, NewPost } from '../post.model';
 import { IMessage, NewMessage } from '../../message/message.model';
+import { IComment } from '../../comment/comment.model';
 
 export type PartialUpdatePost = Partial<IPost> & Pick<IPost, 'id'>;
 
@@ -44,14 +45,20 @@ export class PostService {
       .pipe(map(res => this.convertResponseFromServer(res)));
   }
 
-  comment(postId: number, content: string): Observable<EntityResponseType> {
+  comment(postId: number, content: string): Observable<HttpResponse<IPostedComment>> {
     const message: NewMessage = {
       id: null,
       content,
     };
-    return this.http
-      .patch<RestPost>(`${this.resourceUrl}/${postId}/comment`, message, { observe: 'response' })
-      .pipe(map(res => this.convertResponseFromServer(res)));
+    return this.http.patch<IPostedComment>(`${this.resourceUrl}/${postId}/comment`, message, { observe: 'response' });
+  }
+
+  /**
+   * A page of the comments of a post, oldest first. Pass the newest comment loaded so far to get the page after it.
+   */
+  comments(postId: number, size: number, after?: Pick<IComment, 'id'>): Observable<HttpResponse<IComment[]>> {
+    const options = createRequestOption(after ? { size, afterId: after.id } : { size });
+    return this.http.get<IComment[]>(`${this.resourceUrl}/${postId}/comments`, { params: options, observe: 'response' });
   }
 
   partialUpdate(post: PartialUpdatePost): Observable<EntityResponseType> {
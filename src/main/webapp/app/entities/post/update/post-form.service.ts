@@ -32,6 +32,7 @@ type PostFormDefaults = Pick<NewPost, 'id' | 'time'>;
 type PostFormGroupContent = {
   id: FormControl<PostFormRawValue['id'] | NewPost['id']>;
   image: FormControl<PostFormRawValue['image']>;
+  imageHash: FormControl<PostFormRawValue['imageHash']>;
   imageContentType: FormControl<PostFormRawValue['imageContentType']>;
   description: FormControl<PostFormRawValue['description']>;
   time: FormControl<PostFormRawValue['time']>;
@@ -57,6 +58,7 @@ export class PostFormService {
         },
       ),
       image: new FormControl(postRawValue.image),
+      imageHash: new FormControl(postRawValue.imageHash),
       imageContentType: new FormControl(postRawValue.imageContentType),
       description: new FormControl(postRawValue.description),
       time: new FormControl(postRawValue.time),
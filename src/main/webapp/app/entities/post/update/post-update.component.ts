@@ -75,6 +75,7 @@ export class PostUpdateComponent implements OnInit {
   clearInputImage(field: string, fieldContentType: string, idInput: string): void {
     this.editForm.patchValue({
       [field]: null,
+      [`${field}Hash`]: null,
       [fieldContentType]: null,
     });
     if (idInput && this.elementRef.nativeElement.querySelector(`#${idInput}`)) {
@@ -1,11 +1,14 @@
 import { Component, NgZone, OnInit, inject, signal } from '@angular/core';
+import { HttpHeaders } from '@angular/common/http';
 import { ActivatedRoute, Data, ParamMap, Router, RouterModule } from '@angular/router';
 import { Observable, Subscription, combineLatest, filter, tap } from 'rxjs';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
 import SharedModule from 'app/shared/shared.module';
 import { SortByDirective, SortDirective, SortService, type SortState, sortStateSignal } from 'app/shared/sort';
+import { ItemCountComponent } from 'app/shared/pagination';
 import { FormsModule } from '@angular/forms';
+import { ITEMS_PER_PAGE, PAGE_HEADER, TOTAL_COUNT_RESPONSE_HEADER } from 'app/config/pagination.constants';
 import { DEFAULT_SORT_DATA, ITEM_DELETED_EVENT, SORT } from 'app/config/navigation.constants';
 import { DataUtils } from 'app/core/util/data-util.service';
 import { IProfile } from '../profile.model';
@@ -15,7 +18,7 @@ import { ProfileDeleteDialogComponent } from '../delete/profile-delete-dialog.co
 @Component({
   selector: 'jhi-profile',
   templateUrl: './profile.component.html',
-  imports: [RouterModule, FormsModule, SharedModule, SortDirective, SortByDirective],
+  imports: [RouterModule, FormsModule, SharedModule, SortDirective, SortByDirective, ItemCountComponent],
 })
 export class ProfileComponent implements OnInit {
   subscription: Subscription | null = null;
@@ -24,6 +27,10 @@ export class ProfileComponent implements OnInit {
 
   sortState = sortStateSignal({});
 
+  itemsPerPage = ITEMS_PER_PAGE;
+  totalItems = signal(0);
+  page = 1;
+
   public readonly router = inject(Router);
   protected readonly profileService = inject(ProfileService);
   protected readonly activatedRoute = inject(ActivatedRoute);
@@ -38,13 +45,7 @@ export class ProfileComponent implements OnInit {
     this.subscription = combineLatest([this.activatedRoute.queryParamMap, this.activatedRoute.data])
       .pipe(
         tap(([params, data]) => this.fillComponentAttributeFromRoute(params, data)),
-        tap(() => {
-          if (this.profiles().length === 0) {
-            this.load();
-          } else {
-            this.profiles.set(this.refineData(this.profiles()));
-          }
-        }),
+        tap(() => this.load()),
       )
       .subscribe();
   }
@@ -78,38 +79,49 @@ export class ProfileComponent implements OnInit {
   }
 
   navigateToWithComponentValues(event: SortState): void {
-    this.handleNavigation(event);
+    this.handleNavigation(this.page, event);
+  }
+
+  navigateToPage(page: number): void {
+    this.handleNavigation(page, this.sortState());
   }
 
   protected fillComponentAttributeFromRoute(params: ParamMap, data: Data): void {
+    const page = params.get(PAGE_HEADER);
+    this.page = +(page ?? 1);
     this.sortState.set(this.sortService.parseSortParam(params.get(SORT) ?? data[DEFAULT_SORT_DATA]));
   }
 
   protected onResponseSuccess(response: EntityArrayResponseType): void {
+    this.fillComponentAttributesFromResponseHeader(response.headers);
     const dataFromBody = this.fillComponentAttributesFromResponseBody(response.body);
-    this.profiles.set(this.refineData(dataFromBody));
-  }
-
-  protected refineData(data: IProfile[]): IProfile[] {
-    const { predicate, order } = this.sortState();
-    return predicate && order ? data.sort(this.sortService.startSort({ predicate, order })) : data;
+    this.profiles.set(dataFromBody);
   }
 
   protected fillComponentAttributesFromResponseBody(data: IProfile[] | null): IProfile[] {
     return data ?? [];
   }
 
+  protected fillComponentAttributesFromResponseHeader(headers: HttpHeaders): void {
+    this.totalItems.set(Number(headers.get(TOTAL_COUNT_RESPONSE_HEADER)));
+  }
+
   protected queryBackend(): Observable<EntityArrayResponseType> {
     this.isLoading = true;
+    // sorting and paging happen on the server, which only loads the relationships of the requested page
     const queryObject: any = {
+      page: this.page - 1,
+      size: this.itemsPerPage,
       eagerload: true,
       sort: this.sortService.buildSortParam(this.sortState()),
     };
     return this.profileService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
   }
 
-  protected handleNavigation(sortState: SortState): void {
+  protected handleNavigation(page: number, sortState: SortState): void {
     const queryParamsObj = {
+      page,
+      size: this.itemsPerPage,
       sort: this.sortService.buildSortParam(sortState),
     };
 
@@ -6,8 +6,11 @@ export interface IProfile {
   id: number;
   status?: string | null;
   picture?: string | null;
+  pictureHash?: string | null;
   pictureContentType?: string | null;
   user?: Pick<IUser, 'id' | 'login'> | null;
+  postCount?: number | null;
+  friendCount?: number | null;
   others?: IProfile[] | null;
   chats?: IChat[] | null;
   profiles?: IProfile[] | null;
@@ -20,6 +20,7 @@ type ProfileFormGroupContent = {
   id: FormControl<IProfile['id'] | NewProfile['id']>;
   status: FormControl<IProfile['status']>;
   picture: FormControl<IProfile['picture']>;
+  pictureHash: FormControl<IProfile['pictureHash']>;
   pictureContentType: FormControl<IProfile['pictureContentType']>;
   user: FormControl<IProfile['user']>;
   others: FormControl<IProfile['others']>;
@@ -46,6 +47,7 @@ export class ProfileFormService {
       ),
       status: new FormControl(profileRawValue.status),
       picture: new FormControl(profileRawValue.picture),
+      pictureHash: new FormControl(profileRawValue.pictureHash),
       pictureContentType: new FormControl(profileRawValue.pictureContentType),
       user: new FormControl(profileRawValue.user),
       others: new FormControl(profileRawValue.others ?? []),
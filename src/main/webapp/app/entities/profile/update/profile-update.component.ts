@@ -78,6 +78,7 @@ export class ProfileUpdateComponent implements OnInit {
   clearInputImage(field: string, fieldContentType: string, idInput: string): void {
     this.editForm.patchValue({
       [field]: null,
+      [`${field}Hash`]: null,
       [fieldContentType]: null,
     });
     if (idInput && this.elementRef.nativeElement.querySelector(`#${idInput}`)) {
@@ -0,0 +1,48 @@
+package com.mihapetr.socialnetwork.perf;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * The application under benchmark, started once per fork against a MariaDB container seeded with a
+ * {@link SyntheticSocialGraph}.
+ * <p>
+ * Requests go through {@link MockMvc} with the full security filter chain, so an operation covers
+ * everything but the socket: filters, the controller, the database and the JSON serialization.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    private PerfApplication application;
+
+    MockMvc mockMvc;
+
+    SyntheticSocialGraph graph;
+
+    @Setup(Level.Trial)
+    public void start() {
+        application = PerfApplication.start(10);
+        graph = application.getGraph();
+
+        WebApplicationContext context = (WebApplicationContext) application.getContext();
+        SqlStatementProfiler.register(context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics());
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (application != null) {
+            application.close();
+        }
+    }
+}
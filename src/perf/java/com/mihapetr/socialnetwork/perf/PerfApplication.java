@@ -0,0 +1,98 @@
+package com.mihapetr.socialnetwork.perf;
+
+import com.mihapetr.socialnetwork.SocialnetworkApp;
+import com.mihapetr.socialnetwork.config.MariadbTestContainer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application under measurement: a MariaDB container, the application started on a random port against it,
+ * and a {@link SyntheticSocialGraph} seeded into the database.
+ * <p>
+ * The application runs with the {@code perf} profile rather than the test profiles, so it is configured as in
+ * production: {@code @Async} work such as timeline fan-out and thumbnails runs on its executors rather than on the
+ * request thread, and scheduled jobs, e.g. the engagement counter flush, mail dispatch, search refresh and
+ * typeahead compaction, keep their in-memory queues drained during the measurement.
+ * <p>
+ * Further Spring profiles, e.g. {@code virtual-threads}, are activated with the comma separated
+ * {@code perf.springProfiles} system property.
+ */
+public class PerfApplication implements AutoCloseable {
+
+    private final MariadbTestContainer database;
+
+    private final ConfigurableApplicationContext context;
+
+    private final SyntheticSocialGraph graph;
+
+    private PerfApplication(MariadbTestContainer database, ConfigurableApplicationContext context, SyntheticSocialGraph graph) {
+        this.database = database;
+        this.context = context;
+        this.graph = graph;
+    }
+
+    /**
+     * Starts the database and the application, then seeds the graph.
+     *
+     * @param poolSize the maximum number of database connections, enough for the concurrency of the measurement.
+     * @return the started application.
+     */
+    public static PerfApplication start(int poolSize) {
+        MariadbTestContainer database = new MariadbTestContainer();
+        database.afterPropertiesSet();
+        ConfigurableApplicationContext context = null;
+        try {
+            context = new SpringApplicationBuilder(SocialnetworkApp.class)
+                .profiles(profiles())
+                // passed as arguments, which unlike default properties take precedence over the profiles' files
+                .run(
+                    "--spring.datasource.url=" + database.getTestContainer().getJdbcUrl() + "?useLegacyDatetimeCode=false",
+                    "--spring.datasource.username=" + database.getTestContainer().getUsername(),
+                    "--spring.datasource.password=" + database.getTestContainer().getPassword(),
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                    "--server.port=0",
+                    "--logging.level.com.mihapetr.socialnetwork=WARN"
+                );
+            SyntheticSocialGraph graph = new SyntheticSocialGraph();
+            graph.seed(context);
+            return new PerfApplication(database, context, graph);
+        } catch (RuntimeException e) {
+            if (context != null) {
+                context.close();
+            }
+            database.destroy();
+            throw e;
+        }
+    }
+
+    private static String[] profiles() {
+        List<String> profiles = new ArrayList<>(List.of("perf"));
+        String extra = System.getProperty("perf.springProfiles", "");
+        Arrays.stream(extra.split(",")).map(String::trim).filter(profile -> !profile.isEmpty()).forEach(profiles::add);
+        return profiles.toArray(String[]::new);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public SyntheticSocialGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the base URL of the started server, without a trailing slash.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        database.destroy();
+    }
+}
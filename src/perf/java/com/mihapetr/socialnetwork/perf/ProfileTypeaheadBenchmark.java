@@ -0,0 +1,96 @@
+package com.mihapetr.socialnetwork.perf;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import com.mihapetr.socialnetwork.repository.projection.ProfileName;
+import com.mihapetr.socialnetwork.service.FriendGraphService;
+import com.mihapetr.socialnetwork.service.ProfileTypeaheadService;
+import com.mihapetr.socialnetwork.service.dto.ProfileSuggestionDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Latency of a typeahead suggestion over a million profiles, sampled so the report shows its percentiles, without
+ * starting the application; half of the profiles were changed since the index was last compacted when
+ * {@code compacted} is false.
+ * <p>
+ * The index and the friend graph take a few GB at the default size:
+ * {@code -Dperf.jvm.args="-Xmx6G" -Djmh.args="-f 1 ProfileTypeaheadBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class ProfileTypeaheadBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+        "Ana", "Ivan", "Marko", "Maja", "Luka", "Petra", "Josip", "Iva", "Matej", "Marija", "Tomislav", "Lucija", "Filip", "Mia",
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Horvat", "Kovačević", "Babić", "Marić", "Jurić", "Novak", "Kovačić", "Knežević", "Vuković", "Marković", "Petrović",
+    };
+
+    private static final String[] QUERIES = { "m", "ma", "mar", "mari", "ivan", "kova", "marko h", "ana ku", "zz" };
+
+    @Param({ "1000000" })
+    public int profiles;
+
+    @Param({ "20" })
+    public int friends;
+
+    @Param({ "true", "false" })
+    public boolean compacted;
+
+    private ProfileTypeaheadService profileTypeaheadService;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        List<ProfileName> names = new ArrayList<>(profiles);
+        for (long id = 1; id <= profiles; id++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            names.add(new ProfileName(id, id, (firstName + "." + lastName + id).toLowerCase(), firstName, lastName));
+        }
+        List<Friendship> friendships = new ArrayList<>(profiles * friends / 2);
+        for (long id = 1; id <= profiles; id++) {
+            for (int i = 0; i < friends / 2; i++) {
+                friendships.add(new Friendship(id, 1L + random.nextInt(profiles)));
+            }
+        }
+        ProfileRepository profileRepository = mock(ProfileRepository.class);
+        when(profileRepository.findAllFriendships()).thenReturn(friendships);
+        FriendGraphService friendGraphService = new FriendGraphService(profileRepository);
+        friendGraphService.load();
+        profileTypeaheadService = new ProfileTypeaheadService(profileRepository, friendGraphService);
+        if (compacted) {
+            profileTypeaheadService.replaceAll(names);
+        } else {
+            profileTypeaheadService.replaceAll(names.subList(0, profiles / 2));
+            names.subList(profiles / 2, profiles).forEach(profileTypeaheadService::put);
+        }
+    }
+
+    @Benchmark
+    public List<ProfileSuggestionDTO> suggest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long caller = 1L + random.nextInt(profiles);
+        return profileTypeaheadService.suggest(caller, QUERIES[random.nextInt(QUERIES.length)], 10);
+    }
+}
@@ -0,0 +1,102 @@
+package com.mihapetr.socialnetwork.perf;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Throughput of the most used REST endpoints, each operation being one request by a random user of the
+ * synthetic graph.
+ * <p>
+ * Run with the GC profiler for {@code gc.alloc.rate.norm} (bytes per request) and with
+ * {@link SqlStatementProfiler} for {@code sql.statements.norm} (statements per request).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RestHotPathsBenchmark {
+
+    /**
+     * Per-thread choice of the user and post of the next request, so threads do not share a random generator.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+
+        private final Random random = new Random();
+
+        private List<String> logins;
+
+        private List<Long> postIds;
+
+        String login;
+
+        Long postId;
+
+        @Setup(Level.Trial)
+        public void start(BenchmarkContext benchmark) {
+            logins = benchmark.graph.getLogins();
+            postIds = benchmark.graph.getPostIds();
+        }
+
+        @Setup(Level.Invocation)
+        public void pick() {
+            login = logins.get(random.nextInt(logins.size()));
+            postId = postIds.get(random.nextInt(postIds.size()));
+        }
+    }
+
+    @Benchmark
+    public MvcResult getPost(BenchmarkContext benchmark, Picker picker) throws Exception {
+        return perform(benchmark, get("/api/posts/{id}", picker.postId).with(user(picker.login)));
+    }
+
+    @Benchmark
+    public MvcResult getAllChats(BenchmarkContext benchmark, Picker picker) throws Exception {
+        return perform(benchmark, get("/api/chats").with(user(picker.login)));
+    }
+
+    @Benchmark
+    public MvcResult getCurrentUserProfile(BenchmarkContext benchmark, Picker picker) throws Exception {
+        return perform(benchmark, get("/api/profiles/current-user").with(user(picker.login)));
+    }
+
+    @Benchmark
+    public MvcResult getFeed(BenchmarkContext benchmark, Picker picker) throws Exception {
+        return perform(benchmark, get("/api/feed").with(user(picker.login)));
+    }
+
+    @Benchmark
+    public MvcResult commentOnPost(BenchmarkContext benchmark, Picker picker) throws Exception {
+        return perform(
+            benchmark,
+            patch("/api/posts/{id}/comment", picker.postId)
+                .with(user(picker.login))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"benchmark comment\"}")
+        );
+    }
+
+    private static MvcResult perform(BenchmarkContext benchmark, RequestBuilder request) throws Exception {
+        MvcResult result = benchmark.mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        if (status >= 400) {
+            // a failing request is cheaper than a successful one and would flatter the numbers
+            throw new IllegalStateException("Request failed with status " + status + ": " + result.getResponse().getContentAsString());
+        }
+        return result;
+    }
+}
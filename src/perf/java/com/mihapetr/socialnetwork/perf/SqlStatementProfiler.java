@@ -0,0 +1,58 @@
+package com.mihapetr.socialnetwork.perf;
+
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * JMH profiler reporting the SQL statements prepared per benchmark operation, next to the
+ * {@code gc.alloc.rate.norm} of the GC profiler.
+ * <p>
+ * Enabled with {@code -prof com.mihapetr.socialnetwork.perf.SqlStatementProfiler}. It reads the Hibernate
+ * statistics of the application started by {@link BenchmarkContext}, so iterations running before the
+ * application has started report nothing.
+ */
+public class SqlStatementProfiler implements InternalProfiler {
+
+    private static volatile Statistics statistics;
+
+    private long before = -1;
+
+    static void register(Statistics statistics) {
+        statistics.setStatisticsEnabled(true);
+        SqlStatementProfiler.statistics = statistics;
+    }
+
+    @Override
+    public String getDescription() {
+        return "SQL statements prepared per operation";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        Statistics current = statistics;
+        before = current == null ? -1 : current.getPrepareStatementCount();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(
+        BenchmarkParams benchmarkParams,
+        IterationParams iterationParams,
+        IterationResult result
+    ) {
+        Statistics current = statistics;
+        long ops = result.getMetadata().getAllOps();
+        if (current == null || before < 0 || ops == 0) {
+            return List.of();
+        }
+        double perOperation = (double) (current.getPrepareStatementCount() - before) / ops;
+        return List.of(new ScalarResult("sql.statements.norm", perOperation, "statements/op", AggregationPolicy.AVG));
+    }
+}
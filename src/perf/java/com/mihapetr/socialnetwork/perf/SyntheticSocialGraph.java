@@ -0,0 +1,180 @@
+package com.mihapetr.socialnetwork.perf;
+
+import com.mihapetr.socialnetwork.domain.Chat;
+import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.domain.Message;
+import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.service.FeedTimelineService;
+import com.mihapetr.socialnetwork.service.FriendGraphService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seeds the database with a random social graph of a configurable size.
+ * <p>
+ * The size is read from system properties, so it can be changed without recompiling:
+ * {@code perf.profiles}, {@code perf.friends} (per profile), {@code perf.posts} (per profile),
+ * {@code perf.comments} (per post), {@code perf.chats} (per profile), {@code perf.messages} (per chat)
+ * and {@code perf.seed}. The same seed always produces the same graph.
+ * <p>
+ * Every user signs in with its login and {@link #PASSWORD}.
+ */
+public class SyntheticSocialGraph {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyntheticSocialGraph.class);
+
+    public static final String PASSWORD = "perfpassword";
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final int profiles = Integer.getInteger("perf.profiles", 1000);
+    private final int friends = Integer.getInteger("perf.friends", 20);
+    private final int posts = Integer.getInteger("perf.posts", 5);
+    private final int comments = Integer.getInteger("perf.comments", 3);
+    private final int chats = Integer.getInteger("perf.chats", 3);
+    private final int messages = Integer.getInteger("perf.messages", 20);
+    private final Random random = new Random(Long.getLong("perf.seed", 42L));
+
+    private final List<String> logins = new ArrayList<>();
+    private final List<Long> profileIds = new ArrayList<>();
+    private final List<Long> postIds = new ArrayList<>();
+
+    public List<String> getLogins() {
+        return logins;
+    }
+
+    public List<Long> getProfileIds() {
+        return profileIds;
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    /**
+     * Inserts the graph, then fans the posts out into the feed timelines and loads the in-memory friend graph,
+     * as the application would have done while the data was created through the API.
+     *
+     * @param context the started application.
+     */
+    public void seed(ApplicationContext context) {
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        long start = System.nanoTime();
+
+        // hashing is deliberately slow, so every user shares one hash
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        tx.executeWithoutResult(status -> createProfiles(em, passwordHash));
+        tx.executeWithoutResult(status -> createFriendships(em));
+        tx.executeWithoutResult(status -> createPosts(em));
+        tx.executeWithoutResult(status -> createChats(em));
+
+        FeedTimelineService feedTimelineService = context.getBean(FeedTimelineService.class);
+        tx.executeWithoutResult(status ->
+            em
+                .createQuery("select p.id, p.profile.id, p.time from Post p", Object[].class)
+                .getResultStream()
+                .forEach(row -> feedTimelineService.fanOut((Long) row[0], (Long) row[1], (ZonedDateTime) row[2]))
+        );
+        context.getBean(FriendGraphService.class).load();
+
+        LOG.info(
+            "Seeded {} profiles, {} friends, {} posts with {} comments and {} chats with {} messages each in {} ms",
+            profiles,
+            friends,
+            posts,
+            comments,
+            chats,
+            messages,
+            (System.nanoTime() - start) / 1_000_000
+        );
+    }
+
+    private void createProfiles(EntityManager em, String passwordHash) {
+        for (int i = 0; i < profiles; i++) {
+            String login = "perf-" + i;
+            User user = new User();
+            user.setLogin(login);
+            user.setPassword(passwordHash);
+            user.setEmail(login + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("en");
+            em.persist(user);
+            Profile profile = new Profile().status("status " + i).user(user);
+            em.persist(profile);
+            logins.add(login);
+            profileIds.add(profile.getId());
+            flushEvery(em, i);
+        }
+    }
+
+    private void createFriendships(EntityManager em) {
+        for (int i = 0; i < profileIds.size(); i++) {
+            Profile profile = em.getReference(Profile.class, profileIds.get(i));
+            for (int f = 0; f < friends / 2; f++) {
+                // each profile adds half of its friends, the other half adds it
+                int other = random.nextInt(profileIds.size());
+                if (other != i) {
+                    profile.befriend(em.getReference(Profile.class, profileIds.get(other)));
+                }
+            }
+            flushEvery(em, i);
+        }
+    }
+
+    private void createPosts(EntityManager em) {
+        int n = 0;
+        for (Long profileId : profileIds) {
+            Profile author = em.getReference(Profile.class, profileId);
+            for (int p = 0; p < posts; p++) {
+                Post post = new Post().description("post " + n).time(START.plusMinutes(n)).profile(author);
+                em.persist(post);
+                postIds.add(post.getId());
+                for (int c = 0; c < comments; c++) {
+                    Profile commenter = em.getReference(Profile.class, profileIds.get(random.nextInt(profileIds.size())));
+                    Message message = new Message().content("comment " + c).senderName("perf").time(START.plusMinutes(n + c));
+                    em.persist(new Comment().parent(message).post(post).profile(commenter));
+                }
+                flushEvery(em, n++);
+            }
+        }
+    }
+
+    private void createChats(EntityManager em) {
+        int n = 0;
+        for (int i = 0; i < profileIds.size(); i++) {
+            for (int c = 0; c < chats; c++) {
+                Chat chat = new Chat().initiatorName(logins.get(i)).accepted(true);
+                em.persist(chat);
+                em.getReference(Profile.class, profileIds.get(i)).addChat(chat);
+                em.getReference(Profile.class, profileIds.get(random.nextInt(profileIds.size()))).addChat(chat);
+                for (int m = 0; m < messages; m++) {
+                    em.persist(new Message().content("message " + m).senderName(logins.get(i)).time(START.plusMinutes(m)).chat(chat));
+                }
+                flushEvery(em, n++);
+            }
+        }
+    }
+
+    private static void flushEvery(EntityManager em, int i) {
+        if (i % FLUSH_EVERY == FLUSH_EVERY - 1) {
+            em.flush();
+            em.clear();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mihapetr.socialnetwork.perf;
+
+import ch.qos.logback.classic.Level;
+import com.mihapetr.socialnetwork.aop.logging.TracingInterceptor;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Cost of one call to a bean advised by the former {@code LoggingAspect.logAround} advice, by the
+ * {@link TracingInterceptor} replacing it, and by nothing, with the debug level on as in dev and off as in prod.
+ * <p>
+ * The logger has no appender, so only what the advice itself does is measured. Run with the GC profiler for the
+ * bytes allocated per call: {@code -Djmh.args="-f 1 -prof gc TracingBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingBenchmark {
+
+    @Param({ "INFO", "DEBUG" })
+    public String level;
+
+    private PostLookup direct;
+
+    private PostLookup logAround;
+
+    private PostLookup tracing;
+
+    private Post draft;
+
+    @Setup
+    public void setup() {
+        ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(PostLookup.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.toLevel(level));
+
+        direct = new PostLookup();
+
+        AspectJProxyFactory aspectFactory = new AspectJProxyFactory(new PostLookup());
+        aspectFactory.setProxyTargetClass(true);
+        aspectFactory.addAspect(new LogAroundAspect());
+        logAround = aspectFactory.getProxy();
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ApplicationProperties.Tracing properties = new ApplicationProperties.Tracing();
+        properties.setArgumentSampleRate(0.01);
+        ProxyFactory proxyFactory = new ProxyFactory(new PostLookup());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TracingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), properties));
+        tracing = (PostLookup) proxyFactory.getProxy();
+
+        char[] description = new char[4000];
+        Arrays.fill(description, 'x');
+        draft = new Post().id(1L).description(new String(description)).time(ZonedDateTime.now()).image(new byte[64 * 1024]);
+    }
+
+    @Benchmark
+    public Post direct() {
+        return direct.find(1L, draft);
+    }
+
+    @Benchmark
+    public Post logAround() {
+        return logAround.find(1L, draft);
+    }
+
+    @Benchmark
+    public Post tracing() {
+        return tracing.find(1L, draft);
+    }
+
+    /**
+     * Stands for a service or repository method taking and returning an entity.
+     */
+    public static class PostLookup {
+
+        public Post find(Long id, Post draft) {
+            return draft;
+        }
+    }
+
+    /**
+     * The {@code @Around} advice as {@code LoggingAspect} had it before {@link TracingInterceptor} replaced it.
+     */
+    @Aspect
+    public static class LogAroundAspect {
+
+        @Around("execution(* com.mihapetr.socialnetwork.perf.TracingBenchmark.PostLookup.*(..))")
+        public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+            Logger log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+            if (log.isDebugEnabled()) {
+                log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+            }
+            try {
+                Object result = joinPoint.proceed();
+                if (log.isDebugEnabled()) {
+                    log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+                }
+                return result;
+            } catch (IllegalArgumentException e) {
+                log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+                throw e;
+            }
+        }
+    }
+}
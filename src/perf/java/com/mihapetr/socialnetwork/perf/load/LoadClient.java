@@ -0,0 +1,110 @@
+package com.mihapetr.socialnetwork.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The HTTP client of one virtual user, timing every request under the name of the journey step it belongs to.
+ */
+class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+
+    private final ObjectMapper mapper;
+
+    private final String baseUrl;
+
+    private final Map<String, StepStats> stats;
+
+    private String token;
+
+    LoadClient(HttpClient http, ObjectMapper mapper, String baseUrl, Map<String, StepStats> stats) {
+        this.http = http;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    /**
+     * Signs in and keeps the token for the following requests.
+     *
+     * @return whether the user is signed in.
+     */
+    boolean signIn(String login, String password) {
+        JsonNode body = post("sign in", "/api/authenticate", mapper.createObjectNode().put("username", login).put("password", password));
+        token = body == null ? null : body.path("id_token").asText(null);
+        return token != null;
+    }
+
+    JsonNode get(String step, String path) {
+        return send(step, request(path).GET());
+    }
+
+    JsonNode post(String step, String path, Object body) {
+        return send(step, request(path).POST(json(body)));
+    }
+
+    JsonNode patch(String step, String path, Object body) {
+        return send(step, request(path).method("PATCH", json(body)));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * @return the parsed response body, a missing node for an empty one, or {@code null} when the request failed.
+     */
+    private JsonNode send(String step, HttpRequest.Builder request) {
+        StepStats timing = stats.computeIfAbsent(step, StepStats::new);
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            timing.record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        boolean ok = response.statusCode() < 400;
+        timing.record(System.nanoTime() - start, ok);
+        if (!ok) {
+            return null;
+        }
+        try {
+            return response.body().length == 0 ? mapper.missingNode() : mapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
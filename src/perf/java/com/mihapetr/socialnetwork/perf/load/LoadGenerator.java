@@ -0,0 +1,152 @@
+package com.mihapetr.socialnetwork.perf.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mihapetr.socialnetwork.perf.PerfApplication;
+import com.mihapetr.socialnetwork.perf.SyntheticSocialGraph;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays the {@link UserJourney}s concurrently from many virtual users against the application started on a
+ * seeded MariaDB container, and reports latency percentiles, error rates and throughput per step.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>{@code perf.users}: the number of virtual users, each on its own thread (1000);</li>
+ *     <li>{@code perf.rampUp}: seconds over which the users start, not measured (30);</li>
+ *     <li>{@code perf.duration}: seconds measured once every user has started (120);</li>
+ *     <li>{@code perf.thinkTime}: mean milliseconds a user waits between two steps (1000);</li>
+ *     <li>{@code perf.pool}: the size of the database connection pool (20);</li>
+ *     <li>{@code perf.springProfiles}: further Spring profiles of the application, e.g. {@code virtual-threads};</li>
+ *     <li>{@code perf.report}: where the JSON report is written ({@code target/perf/load-report.json});</li>
+ *     <li>{@code perf.baseline}: a report of a previous run to compare against, none by default;</li>
+ *     <li>{@code perf.tolerance}: the tolerated relative regression of the p99 latency and the throughput (0.1).</li>
+ * </ul>
+ * The graph itself is sized as described in {@link SyntheticSocialGraph}. The process exits with status 1 when
+ * a step regressed against the baseline, so a release pipeline can be gated on it.
+ */
+public class LoadGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final int users = Integer.getInteger("perf.users", 1000);
+    private final Duration rampUp = Duration.ofSeconds(Long.getLong("perf.rampUp", 30L));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("perf.duration", 120L));
+    private final long thinkTimeMillis = Long.getLong("perf.thinkTime", 1000L);
+    private final int pool = Integer.getInteger("perf.pool", 20);
+    private final Path report = Path.of(System.getProperty("perf.report", "target/perf/load-report.json"));
+    private final String baseline = System.getProperty("perf.baseline");
+    private final double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.1"));
+
+    private final Map<String, StepStats> stats = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadGenerator().run());
+    }
+
+    /**
+     * @return the exit status: 0, or 1 if a step regressed against the baseline.
+     */
+    int run() throws Exception {
+        LoadReport result;
+        try (PerfApplication application = PerfApplication.start(pool)) {
+            result = measure(application);
+        }
+
+        LOG.info("Load test results:\n{}", result.format());
+        result.write(report);
+        LOG.info("Report written to {}", report.toAbsolutePath());
+        if (baseline == null) {
+            return 0;
+        }
+        List<LoadReport.Regression> regressions = result.compare(LoadReport.read(Path.of(baseline)), tolerance);
+        regressions.forEach(regression ->
+            LOG.error(
+                "Regression of '{}' {}: {} in the baseline, {} now",
+                regression.step(),
+                regression.metric(),
+                regression.baseline(),
+                regression.current()
+            )
+        );
+        return regressions.isEmpty() ? 0 : 1;
+    }
+
+    private LoadReport measure(PerfApplication application) throws InterruptedException {
+        SyntheticSocialGraph graph = application.getGraph();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+        ObjectMapper mapper = new ObjectMapper();
+
+        long start = System.nanoTime();
+        long measureFrom = start + rampUp.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String login = graph.getLogins().get(i % graph.getLogins().size());
+            LoadClient client = new LoadClient(http, mapper, application.getBaseUrl(), stats);
+            long startAt = start + rampUp.toNanos() * i / users;
+            Thread thread = new Thread(() -> simulate(client, login, startAt, deadline), "virtual-user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        sleepUntil(measureFrom);
+        // the ramp-up warms the application and the database, only the steady state is measured
+        stats.values().forEach(StepStats::reset);
+        LOG.info("{} users started, measuring for {}", users, duration);
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 60_000));
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        return new LoadReport(
+            users,
+            seconds,
+            stats.values().stream().map(step -> step.result(seconds)).sorted(Comparator.comparing(LoadReport.StepResult::step)).toList()
+        );
+    }
+
+    private void simulate(LoadClient client, String login, long startAt, long deadline) {
+        Random random = new Random();
+        UserJourney.Pause pause = () -> sleepUntil(Math.min(deadline, System.nanoTime() + thinkTime(random)));
+        try {
+            sleepUntil(startAt);
+            if (!client.signIn(login, SyntheticSocialGraph.PASSWORD)) {
+                LOG.warn("{} could not sign in", login);
+                return;
+            }
+            UserJourney[] journeys = UserJourney.values();
+            while (System.nanoTime() < deadline) {
+                journeys[random.nextInt(journeys.length)].run(client, random, pause);
+                pause.think();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return an exponentially distributed think time, so users do not fall into lockstep.
+     */
+    private long thinkTime(Random random) {
+        return (long) (-Math.log(1 - random.nextDouble()) * TimeUnit.MILLISECONDS.toNanos(thinkTimeMillis));
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
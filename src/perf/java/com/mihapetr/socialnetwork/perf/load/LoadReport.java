@@ -0,0 +1,115 @@
+package com.mihapetr.socialnetwork.perf.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a load test run, written as JSON so a later run can be compared against it.
+ *
+ * @param users the number of virtual users.
+ * @param seconds the length of the measurement.
+ * @param steps the results per journey step.
+ */
+record LoadReport(int users, double seconds, List<StepResult> steps) {
+    /**
+     * @param throughput completed requests per second.
+     */
+    record StepResult(
+        String step,
+        long count,
+        long errors,
+        double errorRate,
+        double throughput,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+    ) {}
+
+    /**
+     * A step that got worse than in the baseline by more than the tolerated ratio.
+     */
+    record Regression(String step, String metric, double baseline, double current) {}
+
+    /**
+     * Error rates are compared in absolute terms, a baseline without errors would make any ratio infinite.
+     */
+    private static final double TOLERATED_ERROR_RATE_INCREASE = 0.01;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * Compares the steps found in both reports. Steps missing from the baseline are new and cannot regress.
+     *
+     * @param baseline the report of a previous run.
+     * @param tolerance the tolerated relative change of the p99 latency and of the throughput, e.g. {@code 0.1}.
+     * @return the regressions, empty if the run is as good as the baseline.
+     */
+    List<Regression> compare(LoadReport baseline, double tolerance) {
+        Map<String, StepResult> before = baseline.steps().stream().collect(Collectors.toMap(StepResult::step, Function.identity()));
+        List<Regression> regressions = new ArrayList<>();
+        for (StepResult now : steps) {
+            StepResult then = before.get(now.step());
+            if (then == null) {
+                continue;
+            }
+            if (now.p99Millis() > then.p99Millis() * (1 + tolerance)) {
+                regressions.add(new Regression(now.step(), "p99 ms", then.p99Millis(), now.p99Millis()));
+            }
+            // throughput only compares between runs of the same number of users
+            if (users == baseline.users() && now.throughput() < then.throughput() * (1 - tolerance)) {
+                regressions.add(new Regression(now.step(), "requests/s", then.throughput(), now.throughput()));
+            }
+            if (now.errorRate() > then.errorRate() + TOLERATED_ERROR_RATE_INCREASE) {
+                regressions.add(new Regression(now.step(), "error rate", then.errorRate(), now.errorRate()));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return the results as a plain text table.
+     */
+    String format() {
+        StringBuilder table = new StringBuilder(
+            String.format(Locale.ROOT, "%d users, %.0f s%n%-45s %8s %7s %8s %9s %9s %9s %9s%n", users, seconds, "step", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms")
+        );
+        for (StepResult step : steps) {
+            table.append(
+                String.format(
+                    Locale.ROOT,
+                    "%-45s %8d %6.2f%% %8.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    step.step(),
+                    step.count(),
+                    step.errorRate() * 100,
+                    step.throughput(),
+                    step.p50Millis(),
+                    step.p99Millis(),
+                    step.p999Millis(),
+                    step.maxMillis()
+                )
+            );
+        }
+        return table.toString();
+    }
+}
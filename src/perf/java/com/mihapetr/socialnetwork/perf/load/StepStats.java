@@ -0,0 +1,57 @@
+package com.mihapetr.socialnetwork.perf.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and errors of one journey step, recorded concurrently by every virtual user.
+ */
+class StepStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String step;
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    StepStats(String step) {
+        this.step = step;
+    }
+
+    void record(long nanos, boolean ok) {
+        // slower requests are clamped rather than dropped, so they still count in the tail
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    LoadReport.StepResult result(double seconds) {
+        long count = latencies.getTotalCount();
+        long failed = errors.sum();
+        return new LoadReport.StepResult(
+            step,
+            count,
+            failed,
+            count == 0 ? 0 : (double) failed / count,
+            count / seconds,
+            millis(latencies.getValueAtPercentile(50)),
+            millis(latencies.getValueAtPercentile(99)),
+            millis(latencies.getValueAtPercentile(99.9)),
+            millis(latencies.getMaxValue())
+        );
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mihapetr.socialnetwork.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The user journeys of the Cucumber scenarios, replayed as HTTP requests.
+ * <p>
+ * Steps are named after the scenario steps of {@code Posting} and {@code Chat_with_Friends}, and issue the same
+ * requests, but take their ids from the previous responses instead of fixtures and do not assert anything: a
+ * failed request is counted as an error of its step and ends the journey.
+ */
+enum UserJourney {
+    POSTING {
+        @Override
+        boolean run(LoadClient client, Random random, Pause pause) throws InterruptedException {
+            JsonNode posts = client.get("user navigates to Posts view", "/api/posts");
+            if (posts == null) {
+                return false;
+            }
+            pause.think();
+            // the profile is replaced by the current user's, but must be present for validation
+            Map<String, Object> post = Map.of("description", "Load test post", "profile", Map.of());
+            if (client.post("user submits the new post form", "/api/posts", post) == null) {
+                return false;
+            }
+            pause.think();
+            if (client.get("user navigates to their Profile view", "/api/profiles/current-user") == null) {
+                return false;
+            }
+            Long postId = pickId(posts, random);
+            if (postId == null) {
+                return true;
+            }
+            pause.think();
+            if (client.get("user selects details of one of the Posts", "/api/posts/" + postId) == null) {
+                return false;
+            }
+            pause.think();
+            return client.patch("user submits the comment form", "/api/posts/" + postId + "/comment", Map.of("content", "Nice post!")) != null;
+        }
+    },
+    CHAT_WITH_FRIENDS {
+        @Override
+        boolean run(LoadClient client, Random random, Pause pause) throws InterruptedException {
+            JsonNode profiles = client.get("user navigates to Profiles view", "/api/profiles?page=0&size=20");
+            Long profileId = pickId(profiles, random);
+            if (profileId == null) {
+                return profiles != null;
+            }
+            pause.think();
+            if (client.get("user selects Profile details", "/api/profiles/" + profileId) == null) {
+                return false;
+            }
+            pause.think();
+            if (client.post("user selects request friendhip option", "/api/chats/request-chat-with-profile/" + profileId, null) == null) {
+                return false;
+            }
+            pause.think();
+            JsonNode chats = client.get("user navigates to Chats view", "/api/chats");
+            Long chatId = pickId(chats, random);
+            if (chatId == null) {
+                return chats != null;
+            }
+            pause.think();
+            if (client.get("user opens a Chat with a recipient", "/api/chats/" + chatId) == null) {
+                return false;
+            }
+            pause.think();
+            return client.patch("user submits Message content", "/api/chats/" + chatId + "/message", Map.of("content", "Hi there!")) != null;
+        }
+    };
+
+    /**
+     * The think time of a virtual user between two steps.
+     */
+    interface Pause {
+        void think() throws InterruptedException;
+    }
+
+    /**
+     * Runs the journey once.
+     *
+     * @return {@code false} if a step failed and the journey was cut short.
+     */
+    abstract boolean run(LoadClient client, Random random, Pause pause) throws InterruptedException;
+
+    private static Long pickId(JsonNode array, Random random) {
+        if (array == null || !array.isArray() || array.isEmpty()) {
+            return null;
+        }
+        return array.get(random.nextInt(array.size())).path("id").asLong();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * JMH benchmarks of the REST hot paths and a load test replaying the user journeys, built and run with the
+ * {@code perf} Maven profile.
+ */
+package com.mihapetr.socialnetwork.perf;
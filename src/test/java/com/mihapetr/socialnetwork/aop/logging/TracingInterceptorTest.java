@@ -0,0 +1,70 @@
+package com.mihapetr.socialnetwork.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Unit tests for the {@link TracingInterceptor}.
+ */
+class TracingInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TracingInterceptor interceptor;
+
+    private Greeter greeter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        ApplicationProperties.Tracing properties = new ApplicationProperties.Tracing();
+        properties.setMaxArgumentLength(5);
+        interceptor = new TracingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), properties);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.addAdvice(interceptor);
+        greeter = (Greeter) proxyFactory.getProxy();
+    }
+
+    @Test
+    void testCallsAreTimedByMethodAndOutcome() {
+        greeter.greet("john");
+        greeter.greet("jane");
+        assertThatIllegalArgumentException().isThrownBy(() -> greeter.greet(""));
+
+        assertThat(meterRegistry.get(TracingInterceptor.METER_NAME).tag("class", "Greeter").tag("exception", "none").timer().count())
+            .isEqualTo(2);
+        assertThat(
+            meterRegistry.get(TracingInterceptor.METER_NAME).tag("method", "greet").tag("exception", "IllegalArgumentException").timer().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void testLargeValuesAreCut() {
+        assertThat(interceptor.format(new Object[] { "abcdefgh", new byte[1024], List.of(1, 2, 3), null })).isEqualTo(
+            "[abcde..., byte[1024], ListN(size=3), null]"
+        );
+        assertThat(interceptor.format("abc")).isEqualTo("abc");
+    }
+
+    static class Greeter {
+
+        String greet(String name) {
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("No name");
+            }
+            return "Hello " + name;
+        }
+    }
+}
@@ -12,4 +12,9 @@ public class AsyncSyncConfiguration {
     public Executor taskExecutor() {
         return new SyncTaskExecutor();
     }
+
+    @Bean(name = "thumbnailExecutor")
+    public Executor thumbnailExecutor() {
+        return new SyncTaskExecutor();
+    }
 }
@@ -0,0 +1,102 @@
+package com.mihapetr.socialnetwork.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the second-level cache configured by {@link CacheConfiguration}.
+ * <p>
+ * The tests commit their data, since the cache is only filled and invalidated when transactions complete.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = { "spring.jpa.properties.hibernate.cache.use_second_level_cache=true", "spring.jpa.properties.hibernate.cache.use_query_cache=true" }
+)
+class CacheConfigurationIT {
+
+    private static final String LOGIN = "cache-test";
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createProfile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setLogin(LOGIN);
+            user.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+            user.setActivated(true);
+            user.setEmail(LOGIN + "@localhost");
+            user.setLangKey("en");
+            userRepository.save(user);
+            profileRepository.save(new Profile().status("cached").user(user));
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void deleteProfile() {
+        statistics.setStatisticsEnabled(false);
+        transactionTemplate.executeWithoutResult(status -> {
+            profileRepository.findByUserLogin(LOGIN).ifPresent(profileRepository::delete);
+            userRepository.findOneByLogin(LOGIN).ifPresent(userRepository::delete);
+        });
+    }
+
+    @Test
+    void currentProfileLookupIsServedFromTheCache() {
+        transactionTemplate.execute(status -> profileRepository.findByUserLogin(LOGIN).orElseThrow());
+
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        Profile profile = transactionTemplate.execute(status -> profileRepository.findByUserLogin(LOGIN).orElseThrow());
+
+        assertThat(profile.getStatus()).isEqualTo("cached");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", Profile.class.getName()).tag("result", "hit").functionCounter().count()
+        ).isPositive();
+    }
+
+    @Test
+    void updatedProfileIsNotServedStale() {
+        transactionTemplate.execute(status -> profileRepository.findByUserLogin(LOGIN).orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> profileRepository.findByUserLogin(LOGIN).orElseThrow().setStatus("updated"));
+
+        Profile profile = transactionTemplate.execute(status -> profileRepository.findByUserLogin(LOGIN).orElseThrow());
+        assertThat(profile.getStatus()).isEqualTo("updated");
+    }
+}
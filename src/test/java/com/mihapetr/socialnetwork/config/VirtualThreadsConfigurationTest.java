@@ -0,0 +1,35 @@
+package com.mihapetr.socialnetwork.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+
+/**
+ * Unit tests for the {@link VirtualThreadsConfiguration}.
+ */
+class VirtualThreadsConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(VirtualThreadsConfiguration.class);
+
+    @Test
+    void testDisabledByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadsConfiguration.class));
+    }
+
+    @Test
+    void testServletDispatchOnVirtualThreadsWhenSupported() {
+        contextRunner
+            .withPropertyValues("spring.threads.virtual.enabled=true")
+            .run(context -> {
+                assertThat(context).hasSingleBean(VirtualThreadsConfiguration.class);
+                if (Runtime.version().feature() >= 21) {
+                    assertThat(context).hasSingleBean(UndertowDeploymentInfoCustomizer.class);
+                } else {
+                    assertThat(context).doesNotHaveBean(UndertowDeploymentInfoCustomizer.class);
+                }
+            });
+    }
+}
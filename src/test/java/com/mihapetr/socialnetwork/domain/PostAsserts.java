@@ -48,7 +48,7 @@ public class PostAsserts {
     public static void assertPostUpdatableFieldsEquals(Post expected, Post actual) {
         assertThat(expected)
             .as("Verify Post relevant properties")
-            .satisfies(e -> assertThat(e.getImage()).as("check image").isEqualTo(actual.getImage()))
+            .satisfies(e -> assertThat(e.getImageHash()).as("check image hash").isEqualTo(actual.getImageHash()))
             .satisfies(e -> assertThat(e.getImageContentType()).as("check image contenty type").isEqualTo(actual.getImageContentType()))
             .satisfies(e -> assertThat(e.getDescription()).as("check description").isEqualTo(actual.getDescription()))
             .satisfies(e -> assertThat(e.getTime()).as("check time").usingComparator(zonedDataTimeSameInstant).isEqualTo(actual.getTime()));
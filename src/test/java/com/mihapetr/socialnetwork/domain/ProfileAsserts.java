@@ -48,7 +48,7 @@ public class ProfileAsserts {
         assertThat(expected)
             .as("Verify Profile relevant properties")
             .satisfies(e -> assertThat(e.getStatus()).as("check status").isEqualTo(actual.getStatus()))
-            .satisfies(e -> assertThat(e.getPicture()).as("check picture").isEqualTo(actual.getPicture()))
+            .satisfies(e -> assertThat(e.getPictureHash()).as("check picture hash").isEqualTo(actual.getPictureHash()))
             .satisfies(e ->
                 assertThat(e.getPictureContentType()).as("check picture contenty type").isEqualTo(actual.getPictureContentType())
             );
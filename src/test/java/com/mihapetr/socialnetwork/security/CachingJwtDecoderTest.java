@@ -0,0 +1,86 @@
+package com.mihapetr.socialnetwork.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Test class for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private static final Duration MARGIN = Duration.ofSeconds(30);
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private Instant expiresAt;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        expiresAt = NOW.plus(Duration.ofHours(1));
+        JwtDecoder delegate = token -> {
+            verifications.incrementAndGet();
+            if (token.startsWith("bad")) {
+                throw new BadJwtException("rejected");
+            }
+            return Jwt.withTokenValue(token).header("alg", "HS512").subject(token).issuedAt(NOW).expiresAt(expiresAt).build();
+        };
+        decoder = new CachingJwtDecoder(delegate, 100, MARGIN, registry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        Jwt first = decoder.decode("token");
+        Jwt second = decoder.decode("token");
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", CachingJwtDecoder.CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get(CachingJwtDecoder.VERIFICATION_METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(registry.get(CachingJwtDecoder.SAVED_METER_NAME).counter().count()).isPositive();
+    }
+
+    @Test
+    void testDistinctTokensAreVerifiedSeparately() {
+        assertThat(decoder.decode("token").getSubject()).isEqualTo("token");
+        assertThat(decoder.decode("other").getSubject()).isEqualTo("other");
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void testTokenCloseToExpiryIsAlwaysVerified() {
+        expiresAt = NOW.plus(MARGIN).minusSeconds(1);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+
+        assertThat(verifications).hasValue(2);
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 /**
  * Test class for the {@link SecurityUtils} utility class.
@@ -43,6 +45,25 @@ class SecurityUtilsUnitTest {
         assertThat(jwt).contains("token");
     }
 
+    @Test
+    void testGetCurrentProfileId() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS512").subject("admin").claim(SecurityUtils.PROFILE_ID_KEY, 42L).build();
+        securityContext.setAuthentication(new JwtAuthenticationToken(jwt));
+        SecurityContextHolder.setContext(securityContext);
+        Optional<Long> profileId = SecurityUtils.getCurrentProfileId();
+        assertThat(profileId).contains(42L);
+    }
+
+    @Test
+    void testGetCurrentProfileIdWithoutClaim() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+        Optional<Long> profileId = SecurityUtils.getCurrentProfileId();
+        assertThat(profileId).isEmpty();
+    }
+
     @Test
     void testIsAuthenticated() {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
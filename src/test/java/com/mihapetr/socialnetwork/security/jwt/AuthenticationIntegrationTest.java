@@ -1,5 +1,6 @@
 package com.mihapetr.socialnetwork.security.jwt;
 
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
 import com.mihapetr.socialnetwork.config.SecurityConfiguration;
 import com.mihapetr.socialnetwork.config.SecurityJwtConfiguration;
 import com.mihapetr.socialnetwork.config.WebConfigurer;
@@ -21,6 +22,7 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
         JHipsterProperties.class,
+        ApplicationProperties.class,
         WebConfigurer.class,
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
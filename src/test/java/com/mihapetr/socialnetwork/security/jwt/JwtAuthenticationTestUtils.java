@@ -3,6 +3,8 @@ package com.mihapetr.socialnetwork.security.jwt;
 import static com.mihapetr.socialnetwork.security.SecurityUtils.AUTHORITIES_KEY;
 import static com.mihapetr.socialnetwork.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.service.CurrentProfileService;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -12,6 +14,7 @@ import java.util.Collections;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -35,6 +38,12 @@ public class JwtAuthenticationTestUtils {
         return new SimpleMeterRegistry();
     }
 
+    @Bean
+    private CurrentProfileService currentProfileService() {
+        // the slice has no persistence; tokens are issued without a profile claim
+        return new CurrentProfileService(Mockito.mock(ProfileRepository.class));
+    }
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
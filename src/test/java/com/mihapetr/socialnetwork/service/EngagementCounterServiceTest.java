@@ -0,0 +1,171 @@
+package com.mihapetr.socialnetwork.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.EngagementStat.Counter;
+import com.mihapetr.socialnetwork.domain.EngagementStat.EngagementStatId;
+import com.mihapetr.socialnetwork.repository.EngagementStatRepository;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.EngagementTotal;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import com.mihapetr.socialnetwork.repository.projection.SubjectCount;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Test class for the {@link EngagementCounterService}.
+ */
+class EngagementCounterServiceTest {
+
+    private EngagementStatRepository engagementStatRepository;
+
+    private ProfileRepository profileRepository;
+
+    private FriendGraphService friendGraphService;
+
+    private EngagementCounterService engagementCounterService;
+
+    @BeforeEach
+    void init() {
+        engagementStatRepository = mock(EngagementStatRepository.class);
+        profileRepository = mock(ProfileRepository.class);
+        when(engagementStatRepository.findAllTotals()).thenReturn(List.of(new EngagementTotal(Counter.POST_COMMENTS, 1L, 10L)));
+        friendGraphService = new FriendGraphService(profileRepository);
+        engagementCounterService = new EngagementCounterService(engagementStatRepository, friendGraphService, new ApplicationProperties());
+        engagementCounterService.load();
+    }
+
+    @Test
+    void countsOnTopOfThePersistedValue() {
+        engagementCounterService.increment(Counter.POST_COMMENTS, 1L);
+        engagementCounterService.increment(Counter.POST_COMMENTS, 2L);
+        engagementCounterService.decrement(Counter.POST_COMMENTS, 2L);
+        engagementCounterService.increment(Counter.POST_COMMENTS, 2L);
+
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(11);
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 2L)).isEqualTo(1);
+        assertThat(engagementCounterService.get(Counter.PROFILE_POSTS, 1L)).isZero();
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 42L)).isZero();
+    }
+
+    @Test
+    void flushWritesOnlyTheDeltasSinceThePreviousFlush() {
+        engagementCounterService.increment(Counter.POST_COMMENTS, 1L);
+        engagementCounterService.add(Counter.CHAT_MESSAGES, 7L, 3);
+
+        assertThat(engagementCounterService.flush()).isEqualTo(2);
+        verify(engagementStatRepository).addAll(
+            Map.of(new EngagementStatId(Counter.POST_COMMENTS, 1L), 1L, new EngagementStatId(Counter.CHAT_MESSAGES, 7L), 3L)
+        );
+
+        engagementCounterService.increment(Counter.CHAT_MESSAGES, 7L);
+        assertThat(engagementCounterService.flush()).isEqualTo(1);
+        verify(engagementStatRepository).addAll(Map.of(new EngagementStatId(Counter.CHAT_MESSAGES, 7L), 1L));
+        assertThat(engagementCounterService.get(Counter.CHAT_MESSAGES, 7L)).isEqualTo(4);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(engagementStatRepository).addAll(any());
+        engagementCounterService.increment(Counter.PROFILE_POSTS, 3L);
+        assertThat(engagementCounterService.flush()).isZero();
+
+        engagementCounterService.increment(Counter.PROFILE_POSTS, 3L);
+        assertThat(engagementCounterService.flush()).isEqualTo(1);
+        verify(engagementStatRepository).addAll(Map.of(new EngagementStatId(Counter.PROFILE_POSTS, 3L), 2L));
+    }
+
+    @Test
+    void transactionsAreOnlyCountedOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engagementCounterService.increment(Counter.POST_COMMENTS, 1L);
+            engagementCounterService.increment(Counter.POST_COMMENTS, 1L);
+            // the transaction sees its own comments before it commits
+            assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(12);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(12);
+
+        // a transaction that rolls back is never counted
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engagementCounterService.increment(Counter.POST_COMMENTS, 1L);
+            assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(13);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(12);
+
+        assertThat(engagementCounterService.flush()).isEqualTo(1);
+        verify(engagementStatRepository).addAll(Map.of(new EngagementStatId(Counter.POST_COMMENTS, 1L), 2L));
+    }
+
+    @Test
+    void concurrentIncrementsAreAllFlushed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    engagementCounterService.increment(Counter.PROFILE_FRIENDS, 5L);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(engagementCounterService.get(Counter.PROFILE_FRIENDS, 5L)).isEqualTo(80_000);
+        engagementCounterService.flush();
+        verify(engagementStatRepository).addAll(Map.of(new EngagementStatId(Counter.PROFILE_FRIENDS, 5L), 80_000L));
+    }
+
+    @Test
+    void reconcileCorrectsDriftedCounters() {
+        // post 1 has 12 comments, not 10; post 2 lost its only comment; profile 4 has 2 posts nobody counted
+        engagementCounterService.increment(Counter.POST_COMMENTS, 2L);
+        when(engagementStatRepository.countCommentsByPost()).thenReturn(List.of(new SubjectCount(1L, 12L)));
+        when(engagementStatRepository.countPostsByProfile()).thenReturn(List.of(new SubjectCount(4L, 2L)));
+        when(engagementStatRepository.countMessagesByChat()).thenReturn(List.of());
+        // the same friendship stored in both directions is counted once
+        when(profileRepository.findAllFriendships()).thenReturn(List.of(new Friendship(1L, 2L), new Friendship(2L, 1L)));
+        friendGraphService.load();
+
+        assertThat(engagementCounterService.reconcile()).isEqualTo(5);
+
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 1L)).isEqualTo(12);
+        assertThat(engagementCounterService.get(Counter.POST_COMMENTS, 2L)).isZero();
+        assertThat(engagementCounterService.get(Counter.PROFILE_POSTS, 4L)).isEqualTo(2);
+        assertThat(engagementCounterService.get(Counter.PROFILE_FRIENDS, 1L)).isEqualTo(1);
+        assertThat(engagementCounterService.get(Counter.PROFILE_FRIENDS, 2L)).isEqualTo(1);
+        verify(engagementStatRepository).addAll(
+            Map.of(
+                new EngagementStatId(Counter.POST_COMMENTS, 1L),
+                2L,
+                new EngagementStatId(Counter.POST_COMMENTS, 2L),
+                -1L,
+                new EngagementStatId(Counter.PROFILE_POSTS, 4L),
+                2L,
+                new EngagementStatId(Counter.PROFILE_FRIENDS, 1L),
+                1L,
+                new EngagementStatId(Counter.PROFILE_FRIENDS, 2L),
+                1L
+            )
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package com.mihapetr.socialnetwork.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link FriendGraphService}.
+ */
+class FriendGraphServiceTest {
+
+    private FriendGraphService friendGraphService;
+
+    @BeforeEach
+    void init() {
+        ProfileRepository profileRepository = mock(ProfileRepository.class);
+        // 1 is friends with 2 and 3; 2 and 3 are both friends with 4; 2 is also friends with 5
+        when(profileRepository.findAllFriendships()).thenReturn(
+            List.of(
+                new Friendship(1L, 2L),
+                new Friendship(3L, 1L),
+                new Friendship(2L, 4L),
+                new Friendship(4L, 3L),
+                new Friendship(2L, 5L),
+                // the same friendship stored in both directions is counted once
+                new Friendship(5L, 2L)
+            )
+        );
+        friendGraphService = new FriendGraphService(profileRepository);
+        friendGraphService.load();
+    }
+
+    @Test
+    void loadBuildsSortedUndirectedAdjacency() {
+        assertThat(friendGraphService.friendsOf(1L)).containsExactly(2L, 3L);
+        assertThat(friendGraphService.friendsOf(2L)).containsExactly(1L, 4L, 5L);
+        assertThat(friendGraphService.friendsOf(42L)).isEmpty();
+        assertThat(friendGraphService.areFriends(4L, 3L)).isTrue();
+        assertThat(friendGraphService.areFriends(1L, 4L)).isFalse();
+    }
+
+    @Test
+    void countMutualFriends() {
+        assertThat(friendGraphService.countMutualFriends(1L, 4L)).isEqualTo(2);
+        assertThat(friendGraphService.countMutualFriends(4L, 1L)).isEqualTo(2);
+        assertThat(friendGraphService.countMutualFriends(1L, 5L)).isEqualTo(1);
+        assertThat(friendGraphService.countMutualFriends(1L, 42L)).isZero();
+    }
+
+    @Test
+    void countMutualFriendsOfVeryDifferentDegrees() {
+        for (long friend = 100; friend < 200; friend++) {
+            friendGraphService.addFriendship(10L, friend);
+        }
+        friendGraphService.addFriendship(11L, 150L);
+        friendGraphService.addFriendship(11L, 300L);
+
+        assertThat(friendGraphService.countMutualFriends(10L, 11L)).isEqualTo(1);
+    }
+
+    @Test
+    void suggestFriendsRanksByMutualFriends() {
+        assertThat(friendGraphService.suggestFriends(1L, 10)).containsExactly(
+            new FriendGraphService.Suggestion(4L, 2),
+            new FriendGraphService.Suggestion(5L, 1)
+        );
+        assertThat(friendGraphService.suggestFriends(1L, 1)).containsExactly(new FriendGraphService.Suggestion(4L, 2));
+        assertThat(friendGraphService.suggestFriends(42L, 10)).isEmpty();
+    }
+
+    @Test
+    void addFriendshipAndRemoveProfileKeepBothSidesCurrent() {
+        friendGraphService.addFriendship(1L, 4L);
+        friendGraphService.addFriendship(4L, 1L);
+
+        assertThat(friendGraphService.friendsOf(4L)).containsExactly(1L, 2L, 3L);
+        assertThat(friendGraphService.suggestFriends(1L, 10)).containsExactly(new FriendGraphService.Suggestion(5L, 1));
+
+        friendGraphService.removeProfile(2L);
+
+        assertThat(friendGraphService.friendsOf(2L)).isEmpty();
+        assertThat(friendGraphService.friendsOf(1L)).containsExactly(3L, 4L);
+        assertThat(friendGraphService.friendsOf(5L)).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package com.mihapetr.socialnetwork.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.OutboundMail;
+import com.mihapetr.socialnetwork.repository.OutboundMailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for the {@link MailDispatcher}, sending to a {@link FakeSmtpServer}.
+ */
+@IntegrationTest
+class MailDispatcherIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailDispatcherIT.class);
+
+    private static final int BURST = 500;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private OutboundMailRepository outboundMailRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FakeSmtpServer smtpServer;
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setup() throws Exception {
+        outboundMailRepository.deleteAll();
+        smtpServer = new FakeSmtpServer(recipient -> recipient.startsWith("bounce"));
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+        mailDispatcher = new MailDispatcher(
+            outboundMailRepository,
+            javaMailSender,
+            transactionTemplate,
+            applicationProperties,
+            jHipsterProperties,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        smtpServer.close();
+        outboundMailRepository.deleteAll();
+    }
+
+    @Test
+    void testBurstIsSentInBatchesOverFewConnections() {
+        for (int i = 0; i < BURST; i++) {
+            mailService.sendEmail("user" + i + "@example.com", "Welcome", "Hello", false, false);
+        }
+
+        long start = System.nanoTime();
+        int sent = mailDispatcher.dispatch();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.info("Sent {} mails in {} ms over {} connections", sent, millis, smtpServer.getConnections());
+
+        assertThat(sent).isEqualTo(BURST);
+        assertThat(smtpServer.getRecipients()).hasSize(BURST).contains("user0@example.com", "user499@example.com");
+        assertThat(smtpServer.getConnections()).isEqualTo(BURST / applicationProperties.getMailOutbox().getBatchSize());
+        assertThat(outboundMailRepository.count()).isZero();
+        assertThat(meterRegistry.get(MailDispatcher.SENT_METER_NAME).counter().count()).isEqualTo(BURST);
+        assertThat(meterRegistry.get(MailDispatcher.BATCH_METER_NAME).timer().count()).isEqualTo(smtpServer.getConnections());
+        assertThat(meterRegistry.get(MailDispatcher.PENDING_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testRejectedMailIsRetriedWithBackoff() {
+        mailService.sendEmail("bounce@example.com", "Welcome", "Hello", false, false);
+        mailService.sendEmail("john.doe@example.com", "Welcome", "Hello", false, false);
+
+        Instant before = Instant.now();
+        assertThat(mailDispatcher.dispatch()).isEqualTo(1);
+
+        assertThat(smtpServer.getRecipients()).containsExactly("john.doe@example.com");
+        List<OutboundMail> remaining = outboundMailRepository.findAll();
+        assertThat(remaining).hasSize(1);
+        OutboundMail mail = remaining.get(0);
+        assertThat(mail.getRecipient()).isEqualTo("bounce@example.com");
+        assertThat(mail.getStatus()).isEqualTo(OutboundMail.Status.PENDING);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getLastError()).isNotBlank();
+        assertThat(mail.getNextAttemptAt()).isAfterOrEqualTo(before.plus(applicationProperties.getMailOutbox().getInitialBackoff()));
+        assertThat(meterRegistry.get(MailDispatcher.FAILED_METER_NAME).tag("outcome", "retry").counter().count()).isEqualTo(1);
+
+        // not due yet
+        assertThat(mailDispatcher.dispatch()).isZero();
+        assertThat(outboundMailRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void testMailIsAbandonedAfterMaxAttempts() {
+        mailService.sendEmail("bounce@example.com", "Welcome", "Hello", false, false);
+        OutboundMail mail = outboundMailRepository.findAll().get(0);
+        outboundMailRepository.save(mail.attempts(applicationProperties.getMailOutbox().getMaxAttempts() - 1));
+
+        mailDispatcher.dispatch();
+
+        mail = outboundMailRepository.findById(mail.getId()).orElseThrow();
+        assertThat(mail.getStatus()).isEqualTo(OutboundMail.Status.FAILED);
+        assertThat(mail.getAttempts()).isEqualTo(applicationProperties.getMailOutbox().getMaxAttempts());
+        assertThat(meterRegistry.get(MailDispatcher.FAILED_METER_NAME).tag("outcome", "abandoned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUnreachableServerKeepsMailsQueued() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "Welcome", "Hello", false, false);
+        smtpServer.close();
+
+        assertThat(mailDispatcher.dispatch()).isZero();
+
+        OutboundMail mail = outboundMailRepository.findAll().get(0);
+        assertThat(mail.getStatus()).isEqualTo(OutboundMail.Status.PENDING);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheMaximum() {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        assertThat(mailDispatcher.backoff(1)).isEqualTo(properties.getInitialBackoff());
+        assertThat(mailDispatcher.backoff(2)).isEqualTo(properties.getInitialBackoff().multipliedBy(2));
+        assertThat(mailDispatcher.backoff(3)).isEqualTo(properties.getInitialBackoff().multipliedBy(4));
+        assertThat(mailDispatcher.backoff(100)).isEqualTo(properties.getMaxBackoff());
+    }
+}
@@ -0,0 +1,106 @@
+package com.mihapetr.socialnetwork.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
+import com.mihapetr.socialnetwork.repository.projection.Friendship;
+import com.mihapetr.socialnetwork.repository.projection.ProfileName;
+import com.mihapetr.socialnetwork.service.dto.ProfileSuggestionDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ProfileTypeaheadService}.
+ */
+class ProfileTypeaheadServiceTest {
+
+    private ProfileTypeaheadService profileTypeaheadService;
+
+    @BeforeEach
+    void init() {
+        ProfileRepository profileRepository = mock(ProfileRepository.class);
+        // 1 is friends with 2 and 3; 2 and 3 are both friends with 4; 2 is also friends with 5
+        when(profileRepository.findAllFriendships()).thenReturn(
+            List.of(new Friendship(1L, 2L), new Friendship(1L, 3L), new Friendship(2L, 4L), new Friendship(3L, 4L), new Friendship(2L, 5L))
+        );
+        when(profileRepository.findAllNames()).thenReturn(
+            List.of(
+                new ProfileName(1L, 11L, "ana", "Ana", "Horvat"),
+                new ProfileName(2L, 12L, "marko.kovac", "Marko", "Kovač"),
+                new ProfileName(3L, 13L, "ivana", "Ivana", "Marić"),
+                new ProfileName(4L, 14L, "mara", "Mara", "Babić"),
+                new ProfileName(5L, 15L, "matija", "Matija", "Novak"),
+                new ProfileName(6L, 16L, "marin", "Marin", "Kos"),
+                new ProfileName(7L, 17L, "luka", "Luka", "Marković")
+            )
+        );
+        FriendGraphService friendGraphService = new FriendGraphService(profileRepository);
+        friendGraphService.load();
+        profileTypeaheadService = new ProfileTypeaheadService(profileRepository, friendGraphService);
+        profileTypeaheadService.load();
+    }
+
+    @Test
+    void suggestRanksFriendsThenFriendsOfFriendsThenOthers() {
+        assertThat(profileTypeaheadService.suggest(1L, "mar", 10))
+            .extracting(ProfileSuggestionDTO::profileId, ProfileSuggestionDTO::friend, ProfileSuggestionDTO::mutualFriends)
+            .containsExactly(
+                // friends by login, then mara with two mutual friends, then the rest by the matching word
+                tuple(3L, true, 0),
+                tuple(2L, true, 0),
+                tuple(4L, false, 2),
+                tuple(6L, false, 0),
+                tuple(7L, false, 0)
+            );
+    }
+
+    @Test
+    void suggestMatchesEveryWordIgnoringCaseAndAccents() {
+        assertThat(profileTypeaheadService.suggest(1L, "KOVAC", 10)).extracting(ProfileSuggestionDTO::profileId).containsExactly(2L);
+        assertThat(profileTypeaheadService.suggest(1L, "Mar Ko", 10)).extracting(ProfileSuggestionDTO::profileId).containsExactly(2L, 6L);
+        assertThat(profileTypeaheadService.suggest(1L, "marko.k", 10))
+            .extracting(ProfileSuggestionDTO::login)
+            .containsExactly("marko.kovac");
+        assertThat(profileTypeaheadService.suggest(1L, "zzz", 10)).isEmpty();
+        assertThat(profileTypeaheadService.suggest(1L, " .- ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestNeverSuggestsTheCallerAndStopsAtSize() {
+        assertThat(profileTypeaheadService.suggest(1L, "ana", 10)).isEmpty();
+        assertThat(profileTypeaheadService.suggest(1L, "ma", 2)).extracting(ProfileSuggestionDTO::profileId).containsExactly(3L, 2L);
+        assertThat(profileTypeaheadService.suggest(6L, "ma", 2)).extracting(ProfileSuggestionDTO::profileId).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void changesAreSuggestedBeforeAndAfterCompaction() {
+        profileTypeaheadService.put(new ProfileName(8L, 18L, "marta", "Marta", "Jurić"));
+        profileTypeaheadService.put(new ProfileName(6L, 16L, "tin", "Tin", "Kos"));
+        profileTypeaheadService.remove(7L);
+
+        assertThat(profileTypeaheadService.suggest(5L, "mar", 10))
+            .extracting(ProfileSuggestionDTO::profileId)
+            .containsExactly(2L, 4L, 3L, 8L);
+        assertThat(profileTypeaheadService.suggest(5L, "tin", 10)).extracting(ProfileSuggestionDTO::profileId).containsExactly(6L);
+
+        profileTypeaheadService.compact();
+
+        assertThat(profileTypeaheadService.suggest(5L, "mar", 10))
+            .extracting(ProfileSuggestionDTO::profileId)
+            .containsExactly(2L, 4L, 3L, 8L);
+        assertThat(profileTypeaheadService.suggest(5L, "tin", 10)).extracting(ProfileSuggestionDTO::profileId).containsExactly(6L);
+    }
+
+    @Test
+    void replaceUserRemovesTheProfilesItNoLongerHas() {
+        profileTypeaheadService.replaceUser(12L, List.of(new ProfileName(2L, 12L, "marko.kovac", "Marko", "Kovačić")));
+        profileTypeaheadService.replaceUser(16L, List.of());
+
+        assertThat(profileTypeaheadService.suggest(1L, "kovaci", 10)).extracting(ProfileSuggestionDTO::profileId).containsExactly(2L);
+        assertThat(profileTypeaheadService.suggest(1L, "marin", 10)).isEmpty();
+    }
+}
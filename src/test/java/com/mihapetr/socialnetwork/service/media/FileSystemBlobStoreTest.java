@@ -0,0 +1,106 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link FileSystemBlobStore}.
+ */
+class FileSystemBlobStoreTest {
+
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0 };
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void init() {
+        blobStore = new FileSystemBlobStore(root);
+    }
+
+    @Test
+    void putReturnsContentHash() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+        String hash = blobStore.put(content);
+
+        assertThat(hash).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824").isEqualTo(BlobStore.hash(content));
+        assertThat(root.resolve("2c").resolve("f2").resolve(hash)).hasBinaryContent(content);
+    }
+
+    @Test
+    void putSameContentTwiceKeepsOneCopy() throws IOException {
+        String first = blobStore.put(PNG);
+        String second = blobStore.put(PNG);
+
+        assertThat(second).isEqualTo(first);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void getReturnsStoredBlob() throws IOException {
+        String hash = blobStore.put(PNG);
+
+        BlobStore.Blob blob = blobStore.get(hash).orElseThrow();
+
+        assertThat(blob.size()).isEqualTo(PNG.length);
+        assertThat(blob.contentType()).isEqualTo("image/png");
+        try (ReadableByteChannel channel = blob.open(); InputStream in = Channels.newInputStream(channel)) {
+            assertThat(channel).isInstanceOf(FileChannel.class);
+            assertThat(in.readAllBytes()).isEqualTo(PNG);
+        }
+    }
+
+    @Test
+    void getUnknownHashIsEmpty() throws IOException {
+        assertThat(blobStore.get(BlobStore.hash(PNG))).isEmpty();
+    }
+
+    @Test
+    void getRejectsPathsThatAreNotHashes() {
+        assertThatThrownBy(() -> blobStore.get("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void putVariantIsStoredNextToOriginal() throws IOException {
+        String hash = blobStore.put("original".getBytes(StandardCharsets.UTF_8));
+
+        blobStore.putVariant(hash, "64", new ByteArrayInputStream(PNG));
+
+        BlobStore.Blob variant = blobStore.getVariant(hash, "64").orElseThrow();
+        assertThat(variant.size()).isEqualTo(PNG.length);
+        assertThat(variant.contentType()).isEqualTo("image/png");
+        assertThat(root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".64")).hasBinaryContent(PNG);
+        assertThat(blobStore.getVariant(hash, "480")).isEmpty();
+    }
+
+    @Test
+    void getVariantRejectsInvalidNames() {
+        String hash = BlobStore.hash(PNG);
+        assertThatThrownBy(() -> blobStore.getVariant(hash, "../x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void detectContentTypeFallsBackToOctetStream() {
+        assertThat(BlobStore.detectContentType(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0 })).isEqualTo("image/jpeg");
+        assertThat(BlobStore.detectContentType("text".getBytes(StandardCharsets.UTF_8))).isEqualTo("application/octet-stream");
+    }
+}
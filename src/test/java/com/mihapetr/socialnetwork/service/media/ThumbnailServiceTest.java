@@ -0,0 +1,100 @@
+package com.mihapetr.socialnetwork.service.media;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link ThumbnailService}.
+ */
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path root;
+
+    private BlobStore blobStore;
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void init() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedia().setThumbnailSizes(List.of(64, 480));
+        blobStore = new FileSystemBlobStore(root);
+        thumbnailService = new ThumbnailService(blobStore, applicationProperties);
+    }
+
+    @Test
+    void createThumbnailsScalesLargeImages() throws IOException {
+        String hash = blobStore.put(png(1000, 500));
+
+        thumbnailService.createThumbnails(hash);
+
+        BufferedImage small = read(blobStore.getVariant(hash, "64").orElseThrow());
+        assertThat(small.getWidth()).isEqualTo(64);
+        assertThat(small.getHeight()).isEqualTo(32);
+        BufferedImage large = read(blobStore.getVariant(hash, "480").orElseThrow());
+        assertThat(large.getWidth()).isEqualTo(480);
+        assertThat(large.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void createThumbnailsCopiesImagesAlreadySmallEnough() throws IOException {
+        byte[] original = png(100, 50);
+        String hash = blobStore.put(original);
+
+        thumbnailService.createThumbnails(hash);
+
+        assertThat(read(blobStore.getVariant(hash, "64").orElseThrow()).getWidth()).isEqualTo(64);
+        assertThat(bytes(blobStore.getVariant(hash, "480").orElseThrow())).isEqualTo(original);
+    }
+
+    @Test
+    void createThumbnailsCopiesContentThatIsNotAnImage() throws IOException {
+        byte[] original = "not an image".getBytes(StandardCharsets.UTF_8);
+        String hash = blobStore.put(original);
+
+        thumbnailService.createThumbnails(hash);
+
+        assertThat(bytes(blobStore.getVariant(hash, "64").orElseThrow())).isEqualTo(original);
+        assertThat(bytes(blobStore.getVariant(hash, "480").orElseThrow())).isEqualTo(original);
+    }
+
+    @Test
+    void thumbnailSizeForPicksSmallestLargeEnough() {
+        assertThat(thumbnailService.thumbnailSizeFor(50)).contains(64);
+        assertThat(thumbnailService.thumbnailSizeFor(64)).contains(64);
+        assertThat(thumbnailService.thumbnailSizeFor(300)).contains(480);
+        assertThat(thumbnailService.thumbnailSizeFor(1000)).isEmpty();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(BlobStore.Blob blob) throws IOException {
+        try (InputStream in = Channels.newInputStream(blob.open())) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static BufferedImage read(BlobStore.Blob blob) throws IOException {
+        try (InputStream in = Channels.newInputStream(blob.open())) {
+            return ImageIO.read(in);
+        }
+    }
+}
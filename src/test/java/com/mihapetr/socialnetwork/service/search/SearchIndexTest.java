@@ -0,0 +1,151 @@
+package com.mihapetr.socialnetwork.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import com.mihapetr.socialnetwork.repository.projection.SearchSource;
+import com.mihapetr.socialnetwork.service.dto.SearchHitDTO;
+import com.mihapetr.socialnetwork.service.dto.SearchHitDTO.Type;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link SearchIndex}.
+ */
+class SearchIndexTest {
+
+    private static final ZonedDateTime TIME = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_000_000L), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void init() throws IOException {
+        searchIndex = new SearchIndex(directory);
+        // profile 1 wrote post 10, commented on by profile 2
+        searchIndex.index(Type.POST, new SearchSource(10L, "Hiking the Velebit mountains", TIME, 10L, 1L, "alice"));
+        searchIndex.index(Type.COMMENT, new SearchSource(20L, "Velebit is beautiful in autumn", TIME, 10L, 1L, "bob"));
+        searchIndex.index(Type.PROFILE, new SearchSource(1L, "mountains, mountains and more mountains", 1L, "alice"));
+        searchIndex.index(Type.PROFILE, new SearchSource(2L, "Sailing the Adriatic", 2L, "bob"));
+        searchIndex.refresh();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    void searchRanksMoreRelevantHitsFirst() {
+        SearchIndex.Result result = search("mountains", null);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.hits())
+            .extracting(SearchHitDTO::type, SearchHitDTO::id)
+            .containsExactly(tuple(Type.PROFILE, 1L), tuple(Type.POST, 10L));
+    }
+
+    @Test
+    void hitsAreReadFromTheIndex() {
+        SearchHitDTO hit = search("autumn", null).hits().get(0);
+
+        assertThat(hit.type()).isEqualTo(Type.COMMENT);
+        assertThat(hit.id()).isEqualTo(20L);
+        assertThat(hit.postId()).isEqualTo(10L);
+        assertThat(hit.login()).isEqualTo("bob");
+        assertThat(hit.text()).isEqualTo("Velebit is beautiful in autumn");
+        assertThat(hit.time()).isEqualTo(TIME);
+        assertThat(hit.score()).isPositive();
+    }
+
+    @Test
+    void searchRequiresEveryWordAndFiltersByType() {
+        assertThat(search("velebit", null).total()).isEqualTo(2);
+        assertThat(search("velebit autumn", null).hits()).extracting(SearchHitDTO::id).containsExactly(20L);
+        assertThat(search("velebit", Type.POST).hits()).extracting(SearchHitDTO::id).containsExactly(10L);
+        assertThat(search("velebit | adriatic", Type.PROFILE).hits()).extracting(SearchHitDTO::id).containsExactly(2L);
+    }
+
+    @Test
+    void searchPagesThroughTheHits() throws IOException {
+        searchIndex.index(Type.POST, new SearchSource(11L, "Velebit again", TIME, 11L, 1L, "alice"));
+        searchIndex.refresh();
+
+        SearchIndex.Result first = searchIndex.search("velebit", null, 0, 2);
+        SearchIndex.Result second = searchIndex.search("velebit", null, 2, 2);
+
+        assertThat(first.total()).isEqualTo(3);
+        assertThat(first.hits()).hasSize(2);
+        assertThat(second.hits()).hasSize(1);
+        assertThat(second.hits().get(0).id()).isNotIn(first.hits().get(0).id(), first.hits().get(1).id());
+    }
+
+    @Test
+    void indexReplacesTheDocumentAndDeletesItWithoutText() throws IOException {
+        searchIndex.index(Type.PROFILE, new SearchSource(2L, "Kayaking the Adriatic", 2L, "bob"));
+        searchIndex.index(Type.PROFILE, new SearchSource(1L, " ", 1L, "alice"));
+        searchIndex.refresh();
+
+        assertThat(search("sailing", null).total()).isZero();
+        assertThat(search("kayaking", null).total()).isEqualTo(1);
+        assertThat(search("mountains", Type.PROFILE).total()).isZero();
+    }
+
+    @Test
+    void deletingAPostDeletesItsComments() throws IOException {
+        searchIndex.deletePost(10L);
+        searchIndex.refresh();
+
+        assertThat(search("velebit", null).total()).isZero();
+        assertThat(search("mountains", null).hits()).extracting(SearchHitDTO::type).containsExactly(Type.PROFILE);
+    }
+
+    @Test
+    void deletingAProfileDeletesItsPostsAndTheirComments() throws IOException {
+        searchIndex.deleteProfile(1L);
+        searchIndex.refresh();
+
+        assertThat(search("velebit | mountains", null).total()).isZero();
+        assertThat(search("adriatic", null).total()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteIndexedBeforeKeepsTheDocumentsWrittenSince() throws IOException, InterruptedException {
+        Thread.sleep(5);
+        long rebuildStarted = System.currentTimeMillis();
+        searchIndex.index(Type.POST, new SearchSource(10L, "Hiking the Velebit mountains", TIME, 10L, 1L, "alice"));
+        searchIndex.deleteIndexedBefore(rebuildStarted);
+        searchIndex.refresh();
+
+        assertThat(search("velebit", null).hits()).extracting(SearchHitDTO::id).containsExactly(10L);
+        assertThat(search("adriatic | mountains", Type.PROFILE).total()).isZero();
+    }
+
+    @Test
+    void committedDocumentsSurviveReopening() throws IOException {
+        searchIndex.commit();
+        searchIndex.close();
+
+        searchIndex = new SearchIndex(directory);
+
+        assertThat(searchIndex.numDocs()).isEqualTo(4);
+        assertThat(search("adriatic", null).total()).isEqualTo(1);
+    }
+
+    private SearchIndex.Result search(String query, Type type) {
+        try {
+            return searchIndex.search(query, type, 0, 10);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
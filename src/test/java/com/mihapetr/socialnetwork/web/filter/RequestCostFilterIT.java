@@ -0,0 +1,103 @@
+package com.mihapetr.socialnetwork.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.security.AuthoritiesConstants;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link RequestCostFilter}, counting the statements Hibernate really runs.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+@TestPropertySource(properties = "application.request-cost.response-header=true")
+class RequestCostFilterIT {
+
+    private static final String HANDLER = "AuthorityResource.getAllAuthorities";
+
+    private static final String MEDIA_HANDLER = "MediaResource.getMedia";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Test
+    void testAuthorityListCostIsMeasured() throws Exception {
+        long requestsBefore = statements().map(DistributionSummary::count).orElse(0L);
+
+        mockMvc
+            .perform(get("/api/authorities"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(RequestCostFilter.COST_HEADER, "statements=1, entities=2"));
+
+        DistributionSummary statements = statements().orElseThrow();
+        assertThat(statements.count()).isEqualTo(requestsBefore + 1);
+        assertThat(
+            meterRegistry.get(RequestCostFilter.ENTITIES_METER_NAME).tag("handler", HANDLER).tag("entity", "Authority").summary().max()
+        ).isEqualTo(2);
+        assertThat(meterRegistry.get(RequestCostFilter.BYTES_METER_NAME).tag("handler", HANDLER).summary().max()).isPositive();
+    }
+
+    @Test
+    void testMediaBytesAreMeasuredWhenSentWithoutCopying() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        String hash = blobStore.put(content);
+        double bytesBefore = mediaBytes().map(DistributionSummary::totalAmount).orElse(0.0);
+
+        // only the real server takes the zero-copy transfer, which writes past the counting response
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/media/" + hash)).build(),
+            HttpResponse.BodyHandlers.ofByteArray()
+        );
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+
+        // the meters are recorded once the body is sent, possibly after the client has it
+        await()
+            .atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() ->
+                assertThat(mediaBytes().map(DistributionSummary::totalAmount).orElse(0.0)).isEqualTo(bytesBefore + content.length)
+            );
+    }
+
+    private Optional<DistributionSummary> mediaBytes() {
+        return Optional.ofNullable(meterRegistry.find(RequestCostFilter.BYTES_METER_NAME).tag("handler", MEDIA_HANDLER).summary());
+    }
+
+    private Optional<DistributionSummary> statements() {
+        return Optional.ofNullable(
+            meterRegistry.find(RequestCostFilter.STATEMENTS_METER_NAME).tag("handler", HANDLER).summary()
+        );
+    }
+}
@@ -0,0 +1,128 @@
+package com.mihapetr.socialnetwork.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.management.RequestCostInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Unit tests for the {@link RequestCostFilter}.
+ */
+class RequestCostFilterTest {
+
+    private static final String BODY = "[{\"id\":1},{\"id\":2}]";
+
+    private final RequestCostInterceptor interceptor = new RequestCostInterceptor();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties.RequestCost properties;
+
+    private RequestCostFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties.RequestCost();
+        filter = new RequestCostFilter(meterRegistry, properties);
+    }
+
+    @Test
+    void testCostIsRecordedByHandler() throws Exception {
+        MockHttpServletRequest request = apiRequest();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new TwoPostsServlet()));
+
+        String handler = "TwoPostsServlet.service";
+        assertThat(meterRegistry.get(RequestCostFilter.STATEMENTS_METER_NAME).tag("handler", handler).summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get(RequestCostFilter.ROWS_METER_NAME).tag("handler", handler).summary().totalAmount()).isEqualTo(2);
+        assertThat(
+            meterRegistry.get(RequestCostFilter.ENTITIES_METER_NAME).tag("handler", handler).tag("entity", "Post").summary().totalAmount()
+        ).isEqualTo(2);
+        assertThat(meterRegistry.get(RequestCostFilter.BYTES_METER_NAME).tag("handler", handler).summary().totalAmount()).isEqualTo(
+            BODY.length()
+        );
+    }
+
+    @Test
+    void testHeaderIsOnlyWrittenWhenEnabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), response, new MockFilterChain(new TwoPostsServlet()));
+        assertThat(response.getHeader(RequestCostFilter.COST_HEADER)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+
+        properties.setResponseHeader(true);
+        response = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), response, new MockFilterChain(new TwoPostsServlet()));
+        assertThat(response.getHeader(RequestCostFilter.COST_HEADER)).isEqualTo("statements=3, entities=2");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testBodySentPastTheWrapperIsCountedByItsLength() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), response, (request, wrapped) -> {
+            wrapped.setContentLengthLong(BODY.length());
+            wrapped.flushBuffer();
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(
+            meterRegistry.get(RequestCostFilter.BYTES_METER_NAME).tag("handler", "TwoPostsServlet.service").summary().totalAmount()
+        ).isEqualTo(BODY.length());
+    }
+
+    @Test
+    void testStatementsOutsideRequestsAreNotCounted() throws Exception {
+        interceptor.inspect("select 1");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/management/health");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod());
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new TwoPostsServlet()));
+
+        assertThat(meterRegistry.find(RequestCostFilter.STATEMENTS_METER_NAME).summary()).isNull();
+    }
+
+    private MockHttpServletRequest apiRequest() throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod());
+        return request;
+    }
+
+    private HandlerMethod handlerMethod() throws NoSuchMethodException {
+        return new HandlerMethod(
+            new TwoPostsServlet(),
+            TwoPostsServlet.class.getDeclaredMethod("service", HttpServletRequest.class, HttpServletResponse.class)
+        );
+    }
+
+    /**
+     * Loads two posts, then the comments of each one in its own query, and writes the posts out.
+     */
+    private class TwoPostsServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            interceptor.inspect("select * from post");
+            interceptor.onLoad(new Post(), (Object) 1L, null, null, null);
+            interceptor.inspect("select * from comment where post_id = ?");
+            interceptor.onLoad(new Post(), (Object) 2L, null, null, null);
+            interceptor.inspect("select * from comment where post_id = ?");
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
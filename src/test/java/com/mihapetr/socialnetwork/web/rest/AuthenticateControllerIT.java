@@ -1,5 +1,6 @@
 package com.mihapetr.socialnetwork.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -11,14 +12,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.domain.Profile;
 import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.repository.ProfileRepository;
 import com.mihapetr.socialnetwork.repository.UserRepository;
+import com.mihapetr.socialnetwork.security.SecurityUtils;
 import com.mihapetr.socialnetwork.web.rest.vm.LoginVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,9 +41,15 @@ class AuthenticateControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProfileRepository profileRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -64,6 +76,37 @@ class AuthenticateControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeCarriesProfileId() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-profile");
+        user.setEmail("user-jwt-controller-profile@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+        Profile profile = profileRepository.saveAndFlush(new Profile().user(user));
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-profile");
+        login.setPassword("test");
+        String token = om
+            .readTree(
+                mockMvc
+                    .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login)))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()
+            )
+            .get("id_token")
+            .asText();
+
+        Jwt jwt = jwtDecoder.decode(token);
+        assertThat(jwt.<Number>getClaim(SecurityUtils.PROFILE_ID_KEY).longValue()).isEqualTo(profile.getId());
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
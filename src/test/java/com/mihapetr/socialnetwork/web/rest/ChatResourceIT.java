@@ -3,23 +3,34 @@ package com.mihapetr.socialnetwork.web.rest;
 import static com.mihapetr.socialnetwork.domain.ChatAsserts.*;
 import static com.mihapetr.socialnetwork.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mihapetr.socialnetwork.IntegrationTest;
 import com.mihapetr.socialnetwork.domain.Chat;
+import com.mihapetr.socialnetwork.domain.Message;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
 import com.mihapetr.socialnetwork.repository.ChatRepository;
 import com.mihapetr.socialnetwork.repository.UserRepository;
 import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -41,6 +52,11 @@ class ChatResourceIT {
 
     private static final String ENTITY_API_URL = "/api/chats";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_MESSAGES = ENTITY_API_URL_ID + "/messages";
+
+    static final String PARTICIPANT_LOGIN = "chat-participant";
+    private static final String OTHER_PARTICIPANT_LOGIN = "chat-other-participant";
+    private static final ZonedDateTime BASE_TIME = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_000_000L), ZoneOffset.UTC);
 
     private static Random random = new Random();
     private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -398,4 +414,204 @@ class ChatResourceIT {
     protected void assertPersistedChatToMatchUpdatableProperties(Chat expectedChat) {
         assertChatAllUpdatablePropertiesEquals(expectedChat, getPersistedChat(expectedChat));
     }
+
+    private Chat createChatWithHistory(int size) {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(PARTICIPANT_LOGIN);
+        em.persist(user);
+        em.persist(chat);
+        Profile profile = ProfileResourceIT.createEntity().user(user).addChat(chat);
+        em.persist(profile);
+        User otherUser = UserResourceIT.createEntity();
+        otherUser.setLogin(OTHER_PARTICIPANT_LOGIN);
+        em.persist(otherUser);
+        em.persist(ProfileResourceIT.createEntity().user(otherUser).addChat(chat));
+        for (int i = 0; i < size; i++) {
+            em.persist(new Message().content("message " + i).senderName(PARTICIPANT_LOGIN).time(BASE_TIME.plusMinutes(i)).chat(chat));
+        }
+        em.flush();
+        return chat;
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(PARTICIPANT_LOGIN)
+    void getChatMessagesPagesByKeysetCursor() throws Exception {
+        createChatWithHistory(3);
+
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL_MESSAGES, chat.getId()).param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].content").value("message 2"))
+            .andExpect(jsonPath("$.[1].content").value("message 1"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("before=")));
+
+        restChatMockMvc
+            .perform(
+                get(ENTITY_API_URL_MESSAGES, chat.getId())
+                    .param("size", "3")
+                    .param("before", BASE_TIME.plusMinutes(1).toInstant().toString())
+                    .param("beforeId", String.valueOf(Long.MAX_VALUE))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].content").value("message 1"))
+            .andExpect(jsonPath("$.[1].content").value("message 0"))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getChatMessagesOfChatNotJoined() throws Exception {
+        createChatWithHistory(1);
+
+        restChatMockMvc.perform(get(ENTITY_API_URL_MESSAGES, chat.getId())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(PARTICIPANT_LOGIN)
+    void messageInChatDoesNotLoadHistory() throws Exception {
+        createChatWithHistory(3);
+        em.clear();
+
+        restChatMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID + "/message", chat.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(new Message().content("new message")))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.content").value("new message"));
+
+        Chat loaded = em.find(Chat.class, chat.getId());
+        assertThat(Hibernate.isInitialized(loaded.getChats())).isFalse();
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL_MESSAGES, chat.getId()).param("size", "1"))
+            .andExpect(jsonPath("$.[0].content").value("new message"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(PARTICIPANT_LOGIN)
+    void getInboxShowsLastMessageAndUnreadCount() throws Exception {
+        createChatWithHistory(2);
+
+        restChatMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID + "/message", chat.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(new Message().content("new message")))
+            )
+            .andExpect(status().isCreated());
+
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL + "/inbox").with(user(OTHER_PARTICIPANT_LOGIN)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(chat.getId().intValue()))
+            .andExpect(jsonPath("$.[0].lastMessagePreview").value("new message"))
+            .andExpect(jsonPath("$.[0].lastMessageSender").value(PARTICIPANT_LOGIN))
+            .andExpect(jsonPath("$.[0].unreadCount").value(1))
+            .andExpect(jsonPath("$.[0].participants", hasSize(2)))
+            .andExpect(jsonPath("$.[0].participants.[*].login").value(hasItem(PARTICIPANT_LOGIN)));
+
+        // sending a message marks the chat read for the sender
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL + "/inbox"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].unreadCount").value(0));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(PARTICIPANT_LOGIN)
+    void markChatReadResetsUnreadCount() throws Exception {
+        createChatWithHistory(1);
+        restChatMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID + "/message", chat.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(new Message().content("new message")))
+            )
+            .andExpect(status().isCreated());
+
+        restChatMockMvc
+            .perform(put(ENTITY_API_URL_ID + "/read", chat.getId()).with(user(OTHER_PARTICIPANT_LOGIN)))
+            .andExpect(status().isNoContent());
+
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL + "/inbox").with(user(OTHER_PARTICIPANT_LOGIN)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].unreadCount").value(0));
+    }
+
+    @Test
+    @Transactional
+    void markChatReadOfChatNotJoined() throws Exception {
+        createChatWithHistory(1);
+
+        restChatMockMvc.perform(put(ENTITY_API_URL_ID + "/read", chat.getId())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(PARTICIPANT_LOGIN)
+    void requestChatCountsTheRequestAsUnreadForTheRequestedProfile() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(PARTICIPANT_LOGIN);
+        em.persist(user);
+        em.persist(ProfileResourceIT.createEntity().user(user));
+        User otherUser = UserResourceIT.createEntity();
+        otherUser.setLogin(OTHER_PARTICIPANT_LOGIN);
+        em.persist(otherUser);
+        Profile otherProfile = ProfileResourceIT.createEntity().user(otherUser);
+        em.persist(otherProfile);
+        em.flush();
+
+        // the participants of the new chat are still queued in the session when the request is counted as unread
+        restChatMockMvc
+            .perform(post(ENTITY_API_URL + "/request-chat-with-profile/{id}", otherProfile.getId()))
+            .andExpect(status().isCreated());
+
+        restChatMockMvc
+            .perform(get(ENTITY_API_URL + "/inbox").with(user(OTHER_PARTICIPANT_LOGIN)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].lastMessagePreview").value("I would like to chat"))
+            .andExpect(jsonPath("$.[0].unreadCount").value(1));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(OTHER_PARTICIPANT_LOGIN)
+    void acceptingChatTwiceCountsTheFriendshipOnce() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(PARTICIPANT_LOGIN);
+        em.persist(user);
+        Profile requester = ProfileResourceIT.createEntity().user(user);
+        em.persist(requester);
+        User otherUser = UserResourceIT.createEntity();
+        otherUser.setLogin(OTHER_PARTICIPANT_LOGIN);
+        em.persist(otherUser);
+        Profile accepter = ProfileResourceIT.createEntity().user(otherUser);
+        em.persist(accepter);
+        Chat chat = new Chat().initiatorName(PARTICIPANT_LOGIN).accepted(false).addProfile(requester).addProfile(accepter);
+        em.persist(chat);
+        em.flush();
+
+        for (int i = 0; i < 2; i++) {
+            restChatMockMvc.perform(patch(ENTITY_API_URL_ID + "/accept", chat.getId())).andExpect(status().isOk());
+        }
+
+        restChatMockMvc
+            .perform(get("/api/profiles/{id}", accepter.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.friendCount").value(1));
+        restChatMockMvc
+            .perform(get("/api/profiles/{id}", requester.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.friendCount").value(1));
+    }
 }
@@ -0,0 +1,166 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.config.ApplicationProperties;
+import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.TimelineEntry;
+import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.repository.TimelineEntryRepository;
+import com.mihapetr.socialnetwork.service.FeedTimelineService;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link FeedResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(FeedResourceIT.LOGIN)
+class FeedResourceIT {
+
+    static final String LOGIN = "feed-reader";
+
+    private static final String ENTITY_API_URL = "/api/feed";
+
+    private static final ZonedDateTime BASE_TIME = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_000_000L), ZoneOffset.UTC);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restFeedMockMvc;
+
+    @Autowired
+    private FeedTimelineService feedTimelineService;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private Profile reader;
+
+    private Profile friend;
+
+    private Post ownPost;
+
+    private Post friendPost;
+
+    private Post strangerPost;
+
+    @BeforeEach
+    void initTest() {
+        reader = createProfile(LOGIN);
+        friend = createProfile(LOGIN + "-friend");
+        Profile stranger = createProfile(LOGIN + "-stranger");
+        reader.befriend(friend);
+        em.persist(reader);
+
+        ownPost = createPost(reader, BASE_TIME.plusMinutes(1));
+        friendPost = createPost(friend, BASE_TIME.plusMinutes(2));
+        strangerPost = createPost(stranger, BASE_TIME.plusMinutes(3));
+        em.flush();
+    }
+
+    private Profile createProfile(String login) {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(login);
+        em.persist(user);
+        Profile profile = ProfileResourceIT.createEntity().user(user);
+        em.persist(profile);
+        return profile;
+    }
+
+    private Post createPost(Profile profile, ZonedDateTime time) {
+        Post post = new Post().description("feed post").time(time).profile(profile);
+        em.persist(post);
+        em.flush();
+        // Tests never commit, so fan out directly instead of through the after-commit listener.
+        feedTimelineService.fanOut(post.getId(), profile.getId(), time);
+        return post;
+    }
+
+    @Test
+    @Transactional
+    void getFeedContainsOwnAndFriendPostsOnly() throws Exception {
+        restFeedMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(ownPost.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(friendPost.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(strangerPost.getId().intValue()))))
+            .andExpect(jsonPath("$.[*].image").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getFeedPagesByKeysetCursor() throws Exception {
+        restFeedMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(friendPost.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("beforeId=" + friendPost.getId())));
+
+        restFeedMockMvc
+            .perform(
+                get(ENTITY_API_URL)
+                    .param("size", "1")
+                    .param("before", friendPost.getTime().toInstant().toString())
+                    .param("beforeId", friendPost.getId().toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(ownPost.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getFeedWithPartialCursor() throws Exception {
+        restFeedMockMvc.perform(get(ENTITY_API_URL + "?beforeId=1")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getFeedPullsPostsOfAuthorsAboveFanoutThreshold() throws Exception {
+        ApplicationProperties.Feed feed = applicationProperties.getFeed();
+        int fanoutThreshold = feed.getFanoutThreshold();
+        Post celebrityPost;
+        try {
+            feed.setFanoutThreshold(0);
+            celebrityPost = createPost(friend, BASE_TIME.plusMinutes(4));
+        } finally {
+            feed.setFanoutThreshold(fanoutThreshold);
+        }
+
+        assertThat(timelineEntryRepository.existsById(new TimelineEntry.TimelineEntryId(reader.getId(), celebrityPost.getId()))).isFalse();
+        restFeedMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(celebrityPost.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(friendPost.getId().intValue()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link MediaResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class MediaResourceIT {
+
+    private static final String ENTITY_API_URL_HASH = "/api/media/{hash}";
+
+    private static final byte[] GIF = { 'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, 0, 0 };
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MockMvc restMediaMockMvc;
+
+    private String hash;
+
+    @BeforeEach
+    void initTest() throws Exception {
+        hash = blobStore.put(GIF);
+    }
+
+    @Test
+    void getMediaWithoutAuthentication() throws Exception {
+        restMediaMockMvc
+            .perform(get(ENTITY_API_URL_HASH, hash))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("image/gif"))
+            .andExpect(content().bytes(GIF))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(GIF.length)))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void getMediaNotModified() throws Exception {
+        restMediaMockMvc
+            .perform(get(ENTITY_API_URL_HASH, hash).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getMediaThumbnail() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        String thumbnailHash = blobStore.put(content);
+
+        // the thumbnail is not made yet: the original is served uncached while it is generated
+        restMediaMockMvc
+            .perform(get(ENTITY_API_URL_HASH, thumbnailHash).param("size", "50"))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(content))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        restMediaMockMvc
+            .perform(get(ENTITY_API_URL_HASH, thumbnailHash).param("size", "50"))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(content))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + thumbnailHash + "-64\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void getMediaWithInvalidSize() throws Exception {
+        restMediaMockMvc.perform(get(ENTITY_API_URL_HASH, hash).param("size", "0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getNonExistingMedia() throws Exception {
+        restMediaMockMvc.perform(get(ENTITY_API_URL_HASH, BlobStore.hash(new byte[] { 42 }))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getMediaWithInvalidHash() throws Exception {
+        restMediaMockMvc.perform(get(ENTITY_API_URL_HASH, "not-a-hash")).andExpect(status().isBadRequest());
+    }
+}
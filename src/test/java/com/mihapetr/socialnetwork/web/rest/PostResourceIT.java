@@ -4,22 +4,33 @@ import static com.mihapetr.socialnetwork.domain.PostAsserts.*;
 import static com.mihapetr.socialnetwork.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.mihapetr.socialnetwork.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.config.Constants;
+import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.domain.Message;
 import com.mihapetr.socialnetwork.domain.Post;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
 import com.mihapetr.socialnetwork.repository.PostRepository;
 import com.mihapetr.socialnetwork.repository.UserRepository;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +38,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -42,6 +54,8 @@ class PostResourceIT {
 
     private static final byte[] DEFAULT_IMAGE = TestUtil.createByteArray(1, "0");
     private static final byte[] UPDATED_IMAGE = TestUtil.createByteArray(1, "1");
+    private static final String DEFAULT_IMAGE_HASH = BlobStore.hash(DEFAULT_IMAGE);
+    private static final String UPDATED_IMAGE_HASH = BlobStore.hash(UPDATED_IMAGE);
     private static final String DEFAULT_IMAGE_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_IMAGE_CONTENT_TYPE = "image/png";
 
@@ -53,6 +67,9 @@ class PostResourceIT {
 
     private static final String ENTITY_API_URL = "/api/posts";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_COMMENTS = ENTITY_API_URL_ID + "/comments";
+
+    private static final String COMMENTER_LOGIN = "post-commenter";
 
     private static Random random = new Random();
     private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -72,6 +89,9 @@ class PostResourceIT {
     @Autowired
     private MockMvc restPostMockMvc;
 
+    @Autowired
+    private BlobStore blobStore;
+
     private Post post;
 
     private Post insertedPost;
@@ -84,7 +104,7 @@ class PostResourceIT {
      */
     public static Post createEntity(EntityManager em) {
         Post post = new Post()
-            .image(DEFAULT_IMAGE)
+            .imageHash(DEFAULT_IMAGE_HASH)
             .imageContentType(DEFAULT_IMAGE_CONTENT_TYPE)
             .description(DEFAULT_DESCRIPTION)
             .time(DEFAULT_TIME);
@@ -109,7 +129,7 @@ class PostResourceIT {
      */
     public static Post createUpdatedEntity(EntityManager em) {
         Post updatedPost = new Post()
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .description(UPDATED_DESCRIPTION)
             .time(UPDATED_TIME);
@@ -191,11 +211,31 @@ class PostResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(post.getId().intValue())))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64.getEncoder().encodeToString(DEFAULT_IMAGE))))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
             .andExpect(jsonPath("$.[*].time").value(hasItem(sameInstant(DEFAULT_TIME))));
     }
 
+    @Test
+    @Transactional
+    void getAllPostsStreamsMoreThanOneBatch() throws Exception {
+        int count = 2 * Constants.STREAM_FETCH_SIZE + 1;
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(createEntity(em).description("streamed " + i));
+        }
+        postRepository.saveAllAndFlush(posts);
+        em.clear();
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(count)))
+            .andExpect(jsonPath("$.[*].id").value(hasItems(posts.get(0).getId().intValue(), posts.get(count - 1).getId().intValue())))
+            .andExpect(jsonPath("$.[*].description").value(hasItem("streamed " + (count - 1))));
+    }
+
     @Test
     @Transactional
     void getPost() throws Exception {
@@ -209,11 +249,131 @@ class PostResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(post.getId().intValue()))
             .andExpect(jsonPath("$.imageContentType").value(DEFAULT_IMAGE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.image").value(Base64.getEncoder().encodeToString(DEFAULT_IMAGE)))
+            .andExpect(jsonPath("$.imageHash").value(DEFAULT_IMAGE_HASH))
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION))
             .andExpect(jsonPath("$.time").value(sameInstant(DEFAULT_TIME)));
     }
 
+    @Test
+    @Transactional
+    void getPostWithComments() throws Exception {
+        insertedPost = postRepository.saveAndFlush(post);
+        Message message = new Message().senderName("commenter").content("first!").time(DEFAULT_TIME);
+        em.persist(message);
+        Comment comment = new Comment().parent(message).profile(post.getProfile());
+        comment.setPost(post);
+        em.persist(comment);
+        em.flush();
+        em.clear();
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_ID, post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.profile.id").value(post.getProfile().getId().intValue()))
+            .andExpect(jsonPath("$.comments.length()").value(1))
+            .andExpect(jsonPath("$.comments.[0].id").value(comment.getId().intValue()))
+            .andExpect(jsonPath("$.comments.[0].post.id").value(post.getId().intValue()))
+            .andExpect(jsonPath("$.comments.[0].profile.id").value(post.getProfile().getId().intValue()))
+            .andExpect(jsonPath("$.comments.[0].parent.senderName").value("commenter"))
+            .andExpect(jsonPath("$.comments.[0].parent.content").value("first!"));
+    }
+
+    private List<Comment> createComments(int size) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Message message = new Message().senderName("commenter").content("comment " + i).time(DEFAULT_TIME.plusMinutes(i));
+            Comment comment = new Comment().parent(message).profile(post.getProfile());
+            comment.setPost(post);
+            em.persist(comment);
+            comments.add(comment);
+        }
+        em.flush();
+        em.clear();
+        return comments;
+    }
+
+    @Test
+    @Transactional
+    void getPostCommentsPagesByKeysetCursor() throws Exception {
+        insertedPost = postRepository.saveAndFlush(post);
+        List<Comment> comments = createComments(3);
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_COMMENTS, post.getId()).param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].parent.content").value("comment 0"))
+            .andExpect(jsonPath("$.[1].parent.content").value("comment 1"))
+            .andExpect(jsonPath("$.[1].profile.id").value(post.getProfile().getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("afterId=" + comments.get(1).getId())));
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_COMMENTS, post.getId()).param("size", "2").param("afterId", comments.get(1).getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(comments.get(2).getId().intValue()))
+            .andExpect(jsonPath("$.[0].parent.content").value("comment 2"))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getPostCommentsOfNonExistingPost() throws Exception {
+        restPostMockMvc.perform(get(ENTITY_API_URL_COMMENTS, Long.MAX_VALUE)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(COMMENTER_LOGIN)
+    void commentOnPostKeepsCommentCount() throws Exception {
+        insertedPost = postRepository.saveAndFlush(post);
+        User user = UserResourceIT.createEntity();
+        user.setLogin(COMMENTER_LOGIN);
+        em.persist(user);
+        Profile commenter = ProfileResourceIT.createEntity().user(user);
+        em.persist(commenter);
+        em.flush();
+
+        for (int i = 1; i <= 2; i++) {
+            restPostMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID + "/comment", post.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":\"comment " + i + "\"}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount").value(i))
+                .andExpect(jsonPath("$.comment.post.id").value(post.getId().intValue()))
+                .andExpect(jsonPath("$.comment.profile.id").value(commenter.getId().intValue()))
+                .andExpect(jsonPath("$.comment.profile.user.login").value(COMMENTER_LOGIN))
+                .andExpect(jsonPath("$.comment.parent.senderName").value(COMMENTER_LOGIN))
+                .andExpect(jsonPath("$.comment.parent.content").value("comment " + i));
+        }
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_ID, post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.commentCount").value(2))
+            .andExpect(jsonPath("$.comments.length()").value(2));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(COMMENTER_LOGIN)
+    void commentOnNonExistingPost() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(COMMENTER_LOGIN);
+        em.persist(user);
+        em.persist(ProfileResourceIT.createEntity().user(user));
+        em.flush();
+
+        restPostMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID + "/comment", Long.MAX_VALUE).contentType("application/merge-patch+json").content("{\"content\":\"lost\"}")
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingPost() throws Exception {
@@ -233,7 +393,7 @@ class PostResourceIT {
         Post updatedPost = postRepository.findById(post.getId()).orElseThrow();
         // Disconnect from session so that the updates on updatedPost are not directly saved in db
         em.detach(updatedPost);
-        updatedPost.image(UPDATED_IMAGE).imageContentType(UPDATED_IMAGE_CONTENT_TYPE).description(UPDATED_DESCRIPTION).time(UPDATED_TIME);
+        updatedPost.imageHash(UPDATED_IMAGE_HASH).imageContentType(UPDATED_IMAGE_CONTENT_TYPE).description(UPDATED_DESCRIPTION).time(UPDATED_TIME);
 
         restPostMockMvc
             .perform(
@@ -336,7 +496,7 @@ class PostResourceIT {
         partialUpdatedPost.setId(post.getId());
 
         partialUpdatedPost
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .description(UPDATED_DESCRIPTION)
             .time(UPDATED_TIME);
@@ -355,6 +515,27 @@ class PostResourceIT {
         assertPostUpdatableFieldsEquals(partialUpdatedPost, getPersistedPost(partialUpdatedPost));
     }
 
+    @Test
+    @Transactional
+    void patchPostWithUploadedImage() throws Exception {
+        // Initialize the database
+        insertedPost = postRepository.saveAndFlush(post);
+
+        // Images are uploaded inline but never serialized back, so build the request body by hand
+        ObjectNode partialUpdatedPost = om.createObjectNode().put("id", post.getId()).put("image", UPDATED_IMAGE);
+
+        restPostMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, post.getId()).contentType("application/merge-patch+json").content(om.writeValueAsBytes(partialUpdatedPost))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imageHash").value(UPDATED_IMAGE_HASH))
+            .andExpect(jsonPath("$.image").doesNotExist());
+
+        assertThat(getPersistedPost(post).getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
+        assertThat(blobStore.get(UPDATED_IMAGE_HASH)).isPresent();
+    }
+
     @Test
     @Transactional
     void patchNonExistingPost() throws Exception {
@@ -0,0 +1,118 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.domain.Chat;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Measures the statements and the heap allocated by one request listing profiles with their relationships.
+ * <p>
+ * Every profile of the page is friends with every other one and takes part in a few chats, so a loader that
+ * issues statements per profile or per nested profile shows up in the statement count.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ProfileResourceBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProfileResourceBenchmarkIT.class);
+
+    private static final int PROFILES = 20;
+    private static final int CHATS_PER_PROFILE = 5;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    /**
+     * One count query, one page query and one query per relationship; anything more grows with the data.
+     */
+    private static final long MAX_STATEMENTS_PER_REQUEST = 5;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc restProfileMockMvc;
+
+    @Test
+    @Transactional
+    void listProfilesWithEagerRelationships() throws Exception {
+        createFriendGraph();
+        String url = "/api/profiles?eagerload=true&page=0&size=" + PROFILES;
+        for (int i = 0; i < WARMUP; i++) {
+            restProfileMockMvc.perform(get(url)).andExpect(status().isOk());
+            em.clear();
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        long allocated = 0;
+        try {
+            for (int i = 0; i < ITERATIONS; i++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                restProfileMockMvc.perform(get(url)).andExpect(status().isOk());
+                allocated += threads.getCurrentThreadAllocatedBytes() - before;
+                // each request starts from an empty persistence context, as it would outside of the test transaction
+                em.clear();
+            }
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        long statements = statistics.getPrepareStatementCount() / ITERATIONS;
+        LOG.info(
+            "GET {} with {} profiles: {} statements, {} KiB allocated per request",
+            url,
+            PROFILES,
+            statements,
+            allocated / ITERATIONS / 1024
+        );
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_REQUEST);
+    }
+
+    private void createFriendGraph() {
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < PROFILES; i++) {
+            User user = UserResourceIT.createEntity();
+            user.setLogin("benchmark-" + i);
+            em.persist(user);
+            Profile profile = ProfileResourceIT.createEntity().user(user);
+            for (int c = 0; c < CHATS_PER_PROFILE; c++) {
+                Chat chat = ChatResourceIT.createEntity();
+                em.persist(chat);
+                profile.addChat(chat);
+            }
+            for (Profile other : profiles) {
+                profile.befriend(other);
+            }
+            em.persist(profile);
+            profiles.add(profile);
+        }
+        em.flush();
+        em.clear();
+    }
+}
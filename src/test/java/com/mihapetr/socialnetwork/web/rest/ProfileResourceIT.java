@@ -4,6 +4,7 @@ import static com.mihapetr.socialnetwork.domain.ProfileAsserts.*;
 import static com.mihapetr.socialnetwork.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -11,11 +12,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mihapetr.socialnetwork.IntegrationTest;
 import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
 import com.mihapetr.socialnetwork.repository.ProfileRepository;
 import com.mihapetr.socialnetwork.repository.UserRepository;
+import com.mihapetr.socialnetwork.service.FriendGraphService;
+import com.mihapetr.socialnetwork.service.ProfileTypeaheadService;
+import com.mihapetr.socialnetwork.service.event.UserChangedEvent;
+import com.mihapetr.socialnetwork.service.media.BlobStore;
 import jakarta.persistence.EntityManager;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -47,6 +53,8 @@ class ProfileResourceIT {
 
     private static final byte[] DEFAULT_PICTURE = TestUtil.createByteArray(1, "0");
     private static final byte[] UPDATED_PICTURE = TestUtil.createByteArray(1, "1");
+    private static final String DEFAULT_PICTURE_HASH = BlobStore.hash(DEFAULT_PICTURE);
+    private static final String UPDATED_PICTURE_HASH = BlobStore.hash(UPDATED_PICTURE);
     private static final String DEFAULT_PICTURE_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_PICTURE_CONTENT_TYPE = "image/png";
 
@@ -71,6 +79,14 @@ class ProfileResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private FriendGraphService friendGraphService;
+
+    @Autowired
+    private ProfileTypeaheadService profileTypeaheadService;
+
+    private final List<Profile> graphProfiles = new ArrayList<>();
+
     @Autowired
     private MockMvc restProfileMockMvc;
 
@@ -85,7 +101,7 @@ class ProfileResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Profile createEntity() {
-        return new Profile().status(DEFAULT_STATUS).picture(DEFAULT_PICTURE).pictureContentType(DEFAULT_PICTURE_CONTENT_TYPE);
+        return new Profile().status(DEFAULT_STATUS).pictureHash(DEFAULT_PICTURE_HASH).pictureContentType(DEFAULT_PICTURE_CONTENT_TYPE);
     }
 
     /**
@@ -95,7 +111,7 @@ class ProfileResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Profile createUpdatedEntity() {
-        return new Profile().status(UPDATED_STATUS).picture(UPDATED_PICTURE).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+        return new Profile().status(UPDATED_STATUS).pictureHash(UPDATED_PICTURE_HASH).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
     }
 
     @BeforeEach
@@ -105,6 +121,9 @@ class ProfileResourceIT {
 
     @AfterEach
     public void cleanup() {
+        graphProfiles.forEach(p -> friendGraphService.removeProfile(p.getId()));
+        graphProfiles.forEach(p -> profileTypeaheadService.remove(p.getId()));
+        graphProfiles.clear();
         if (insertedProfile != null) {
             profileRepository.delete(insertedProfile);
             insertedProfile = null;
@@ -164,24 +183,46 @@ class ProfileResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(profile.getId().intValue())))
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS)))
             .andExpect(jsonPath("$.[*].pictureContentType").value(hasItem(DEFAULT_PICTURE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].picture").value(hasItem(Base64.getEncoder().encodeToString(DEFAULT_PICTURE))));
+            .andExpect(jsonPath("$.[*].pictureHash").value(hasItem(DEFAULT_PICTURE_HASH)));
+    }
+
+    @Test
+    @Transactional
+    void getAllProfilesIsPagedWithSlimRelationships() throws Exception {
+        Profile other = createGraphProfile("listed-other");
+        Profile listed = createGraphProfile("listed");
+        listed.befriend(other);
+        em.flush();
+
+        restProfileMockMvc
+            .perform(get(ENTITY_API_URL + "?eagerload=true&sort=id,desc&page=0&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(listed.getId().intValue()))
+            .andExpect(jsonPath("$.[0].user.login").value("listed"))
+            .andExpect(jsonPath("$.[0].others.[0].id").value(other.getId().intValue()))
+            .andExpect(jsonPath("$.[0].others.[0].login").value("listed-other"))
+            .andExpect(jsonPath("$.[0].others.[0].status").doesNotExist());
+
+        restProfileMockMvc.perform(get(ENTITY_API_URL + "?sort=picture,asc")).andExpect(status().isBadRequest());
     }
 
     @SuppressWarnings({ "unchecked" })
     void getAllProfilesWithEagerRelationshipsIsEnabled() throws Exception {
-        when(profileRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
+        when(profileRepositoryMock.findAllListItemsWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
 
         restProfileMockMvc.perform(get(ENTITY_API_URL + "?eagerload=true")).andExpect(status().isOk());
 
-        verify(profileRepositoryMock, times(1)).findAllWithEagerRelationships(any());
+        verify(profileRepositoryMock, times(1)).findAllListItemsWithEagerRelationships(any());
     }
 
     @SuppressWarnings({ "unchecked" })
     void getAllProfilesWithEagerRelationshipsIsNotEnabled() throws Exception {
-        when(profileRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
+        when(profileRepositoryMock.findAllListItems(any())).thenReturn(new PageImpl(new ArrayList<>()));
 
         restProfileMockMvc.perform(get(ENTITY_API_URL + "?eagerload=false")).andExpect(status().isOk());
-        verify(profileRepositoryMock, times(1)).findAll(any(Pageable.class));
+        verify(profileRepositoryMock, times(1)).findAllListItems(any(Pageable.class));
     }
 
     @Test
@@ -198,7 +239,7 @@ class ProfileResourceIT {
             .andExpect(jsonPath("$.id").value(profile.getId().intValue()))
             .andExpect(jsonPath("$.status").value(DEFAULT_STATUS))
             .andExpect(jsonPath("$.pictureContentType").value(DEFAULT_PICTURE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.picture").value(Base64.getEncoder().encodeToString(DEFAULT_PICTURE)));
+            .andExpect(jsonPath("$.pictureHash").value(DEFAULT_PICTURE_HASH));
     }
 
     @Test
@@ -220,7 +261,7 @@ class ProfileResourceIT {
         Profile updatedProfile = profileRepository.findById(profile.getId()).orElseThrow();
         // Disconnect from session so that the updates on updatedProfile are not directly saved in db
         em.detach(updatedProfile);
-        updatedProfile.status(UPDATED_STATUS).picture(UPDATED_PICTURE).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+        updatedProfile.status(UPDATED_STATUS).pictureHash(UPDATED_PICTURE_HASH).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
 
         restProfileMockMvc
             .perform(
@@ -296,7 +337,7 @@ class ProfileResourceIT {
         Profile partialUpdatedProfile = new Profile();
         partialUpdatedProfile.setId(profile.getId());
 
-        partialUpdatedProfile.status(UPDATED_STATUS).picture(UPDATED_PICTURE).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+        partialUpdatedProfile.status(UPDATED_STATUS).pictureHash(UPDATED_PICTURE_HASH).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
 
         restProfileMockMvc
             .perform(
@@ -324,7 +365,7 @@ class ProfileResourceIT {
         Profile partialUpdatedProfile = new Profile();
         partialUpdatedProfile.setId(profile.getId());
 
-        partialUpdatedProfile.status(UPDATED_STATUS).picture(UPDATED_PICTURE).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+        partialUpdatedProfile.status(UPDATED_STATUS).pictureHash(UPDATED_PICTURE_HASH).pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
 
         restProfileMockMvc
             .perform(
@@ -435,4 +476,93 @@ class ProfileResourceIT {
     protected void assertPersistedProfileToMatchUpdatableProperties(Profile expectedProfile) {
         assertProfileAllUpdatablePropertiesEquals(expectedProfile, getPersistedProfile(expectedProfile));
     }
+
+    private Profile createGraphProfile(String login) {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(login);
+        em.persist(user);
+        Profile graphProfile = createEntity().user(user);
+        em.persist(graphProfile);
+        graphProfiles.add(graphProfile);
+        return graphProfile;
+    }
+
+    private void befriend(Profile a, Profile b) {
+        // the graph is updated after commit, which never happens in a rolled back test
+        a.befriend(b);
+        friendGraphService.addFriendship(a.getId(), b.getId());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("graph-me")
+    void getFriendSuggestionsAndMutualFriends() throws Exception {
+        Profile me = createGraphProfile("graph-me");
+        Profile a = createGraphProfile("graph-a");
+        Profile b = createGraphProfile("graph-b");
+        Profile c = createGraphProfile("graph-c");
+        Profile d = createGraphProfile("graph-d");
+        befriend(me, a);
+        befriend(b, me);
+        befriend(a, c);
+        befriend(c, b);
+        befriend(a, d);
+        em.flush();
+
+        restProfileMockMvc
+            .perform(get(ENTITY_API_URL + "/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].profileId").value(c.getId().intValue()))
+            .andExpect(jsonPath("$.[0].login").value("graph-c"))
+            .andExpect(jsonPath("$.[0].mutualFriends").value(2))
+            .andExpect(jsonPath("$.[1].profileId").value(d.getId().intValue()))
+            .andExpect(jsonPath("$.[1].mutualFriends").value(1));
+
+        restProfileMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/mutual-friends", c.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.login").value("graph-c"))
+            .andExpect(jsonPath("$.mutualFriends").value(2));
+
+        restProfileMockMvc.perform(get(ENTITY_API_URL_ID + "/mutual-friends", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("graph-me")
+    void suggestProfilesClosestFirst() throws Exception {
+        Profile me = createGraphProfile("graph-me");
+        Profile a = createGraphProfile("graph-a");
+        Profile b = createGraphProfile("graph-b");
+        Profile c = createGraphProfile("graph-c");
+        Profile x = createGraphProfile("graph-x");
+        befriend(me, a);
+        befriend(me, b);
+        befriend(a, c);
+        befriend(b, c);
+        for (Profile named : List.of(me, a, c, x)) {
+            named.getUser().setFirstName("Zébédée");
+        }
+        em.flush();
+        // the index is updated after commit, which never happens in a rolled back test
+        graphProfiles.forEach(p -> profileTypeaheadService.onUserChanged(new UserChangedEvent(p.getUser().getId())));
+
+        restProfileMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?q={q}", "zebe"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$.[0].profileId").value(a.getId().intValue()))
+            .andExpect(jsonPath("$.[0].friend").value(true))
+            .andExpect(jsonPath("$.[1].login").value("graph-c"))
+            .andExpect(jsonPath("$.[1].firstName").value("Zébédée"))
+            .andExpect(jsonPath("$.[1].mutualFriends").value(2))
+            .andExpect(jsonPath("$.[2].profileId").value(x.getId().intValue()))
+            .andExpect(jsonPath("$.[2].friend").value(false));
+
+        restProfileMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?q={q}", "Zébédée Graph-X"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].profileId").value(x.getId().intValue()));
+    }
 }
@@ -0,0 +1,217 @@
+package com.mihapetr.socialnetwork.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.domain.Comment;
+import com.mihapetr.socialnetwork.domain.Message;
+import com.mihapetr.socialnetwork.domain.Post;
+import com.mihapetr.socialnetwork.domain.Profile;
+import com.mihapetr.socialnetwork.domain.User;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent;
+import com.mihapetr.socialnetwork.service.event.ContentChangedEvent.Content;
+import com.mihapetr.socialnetwork.service.event.PostCreatedEvent;
+import com.mihapetr.socialnetwork.service.search.SearchIndexService;
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link SearchResource} REST controller.
+ * <p>
+ * The index outlives the rolled back test transactions, so every test searches for words of its own.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+@WithMockUser
+class SearchResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/search";
+
+    private static final String AUTHOR_LOGIN = "search-author";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSearchMockMvc;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    private String word;
+
+    private Post post;
+
+    private Comment comment;
+
+    @BeforeEach
+    void initTest() {
+        word = "zephyr" + RandomStringUtils.insecure().nextAlphabetic(8).toLowerCase();
+        post = PostResourceIT.createEntity(em).description("Weekend on the coast, " + word + " everywhere");
+        em.persist(post);
+        Message message = new Message().content(word + " " + word + " indeed").time(ZonedDateTime.now());
+        comment = new Comment().parent(message).post(post).profile(post.getProfile());
+        em.persist(comment);
+        em.flush();
+        // the test transaction never commits, so the changes are applied as if it had
+        searchIndexService.onContentChanged(new ContentChangedEvent(Content.POST, post.getId()));
+        searchIndexService.onContentChanged(new ContentChangedEvent(Content.COMMENT, comment.getId()));
+        searchIndexService.applyPending();
+    }
+
+    @Test
+    @Transactional
+    void searchRanksPostsAndComments() throws Exception {
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}", word))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].type").value("COMMENT"))
+            .andExpect(jsonPath("$.[0].id").value(comment.getId().intValue()))
+            .andExpect(jsonPath("$.[0].postId").value(post.getId().intValue()))
+            .andExpect(jsonPath("$.[1].type").value("POST"))
+            .andExpect(jsonPath("$.[1].text").value("Weekend on the coast, " + word + " everywhere"));
+    }
+
+    @Test
+    @Transactional
+    void searchFiltersByTypeAndPages() throws Exception {
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&type=POST", word))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(post.getId().intValue())))
+            .andExpect(jsonPath("$", hasSize(1)));
+
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&page=1&size=1", word))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[0].type").value("POST"));
+    }
+
+    @Test
+    @Transactional
+    void deletedPostIsNotFound() throws Exception {
+        em.remove(comment);
+        em.remove(post);
+        em.flush();
+        searchIndexService.onContentChanged(new ContentChangedEvent(Content.POST, post.getId()));
+        searchIndexService.applyPending();
+
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}", word))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"))
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void searchRejectsBlankQueriesAndPagesBeyondTheResults() throws Exception {
+        restSearchMockMvc.perform(get(ENTITY_API_URL + "?q={q}", " ")).andExpect(status().isBadRequest());
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&page=100&size=20", word))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void rebuildRequiresAdmin() throws Exception {
+        restSearchMockMvc.perform(post("/api/admin/search/rebuild")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(AUTHOR_LOGIN)
+    void writesThroughTheApiAreIndexed() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(AUTHOR_LOGIN);
+        em.persist(user);
+        Profile author = ProfileResourceIT.createEntity().user(user);
+        em.persist(author);
+        em.flush();
+        events.clear();
+
+        String postBody = restSearchMockMvc
+            .perform(
+                post("/api/posts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":\"" + word + " post\",\"profile\":{\"id\":" + author.getId() + "}}")
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        long postId = om.readTree(postBody).get("id").asLong();
+        assertThat(events.stream(PostCreatedEvent.class)).extracting(PostCreatedEvent::postId).containsExactly(postId);
+
+        String commentBody = restSearchMockMvc
+            .perform(
+                patch("/api/posts/{id}/comment", postId)
+                    .contentType("application/merge-patch+json")
+                    .content("{\"content\":\"" + word + " comment\"}")
+            )
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        long commentId = om.readTree(commentBody).get("comment").get("id").asLong();
+
+        restSearchMockMvc
+            .perform(
+                patch("/api/profiles/{id}", author.getId())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + author.getId() + ",\"status\":\"" + word + " status\"}")
+            )
+            .andExpect(status().isOk());
+
+        assertThat(events.stream(ContentChangedEvent.class)).containsExactly(
+            new ContentChangedEvent(Content.COMMENT, commentId),
+            new ContentChangedEvent(Content.PROFILE, author.getId())
+        );
+
+        // the test transaction never commits, so the recorded events are delivered as if it had
+        events.stream(PostCreatedEvent.class).forEach(searchIndexService::onPostCreated);
+        events.stream(ContentChangedEvent.class).forEach(searchIndexService::onContentChanged);
+        searchIndexService.applyPending();
+
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&type=POST", word + " post"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem((int) postId)));
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&type=COMMENT", word + " comment"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem((int) commentId)));
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q={q}&type=PROFILE", word + " status"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(author.getId().intValue())));
+    }
+}
@@ -0,0 +1,93 @@
+package com.mihapetr.socialnetwork.web.websocket;
+
+import static com.mihapetr.socialnetwork.security.jwt.JwtAuthenticationTestUtils.createValidTokenForUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.mihapetr.socialnetwork.IntegrationTest;
+import com.mihapetr.socialnetwork.service.event.ChatMessageCreatedEvent;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Integration tests for the {@link ChatSocketEndpoint}.
+ */
+@IntegrationTest
+class ChatSocketIT {
+
+    private static final String LOGIN = "chat-socket-user";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${jhipster.security.authentication.jwt.base64-secret}")
+    private String jwtKey;
+
+    @Autowired
+    private ChatSessionRegistry registry;
+
+    @Test
+    void pushesNewMessagesToParticipants() throws Exception {
+        Listener listener = new Listener();
+        WebSocket socket = connect("?access_token=" + createValidTokenForUser(jwtKey, LOGIN), listener);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> registry.countSessions(LOGIN) == 1);
+
+        registry.onChatMessageCreated(
+            new ChatMessageCreatedEvent(42L, 4242L, "other", "hello there", ZonedDateTime.now(), Set.of(LOGIN, "other"))
+        );
+
+        String pushed = listener.text.get(5, TimeUnit.SECONDS);
+        assertThat(pushed).contains("\"chatId\":42").contains("\"id\":4242").contains("\"content\":\"hello there\"");
+
+        socket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> registry.countSessions(LOGIN) == 0);
+    }
+
+    @Test
+    void rejectsConnectionsWithoutValidToken() throws Exception {
+        Listener listener = new Listener();
+        connect("?access_token=invalid", listener);
+
+        assertThat(listener.closeCode.get(5, TimeUnit.SECONDS)).isEqualTo(1008);
+        assertThat(registry.countSessions(LOGIN)).isZero();
+    }
+
+    private WebSocket connect(String query, Listener listener) {
+        return HttpClient.newHttpClient()
+            .newWebSocketBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .buildAsync(URI.create("ws://localhost:" + port + ChatSocketEndpoint.PATH + query), listener)
+            .join();
+    }
+
+    private static class Listener implements WebSocket.Listener {
+
+        private final CompletableFuture<String> text = new CompletableFuture<>();
+
+        private final CompletableFuture<Integer> closeCode = new CompletableFuture<>();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            text.complete(data.toString());
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closeCode.complete(statusCode);
+            return null;
+        }
+    }
+}
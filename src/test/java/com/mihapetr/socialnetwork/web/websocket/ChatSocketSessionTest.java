@@ -0,0 +1,79 @@
+package com.mihapetr.socialnetwork.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Test class for the {@link ChatSocketSession}.
+ */
+class ChatSocketSessionTest {
+
+    private Session session;
+
+    private RemoteEndpoint.Async remote;
+
+    private ChatSocketSession chatSession;
+
+    @BeforeEach
+    void init() {
+        session = mock(Session.class);
+        remote = mock(RemoteEndpoint.Async.class);
+        when(session.getAsyncRemote()).thenReturn(remote);
+        chatSession = new ChatSocketSession(session, "user", 2);
+    }
+
+    @Test
+    void sendsOneFrameAtATime() {
+        assertThat(chatSession.send("a")).isTrue();
+        assertThat(chatSession.send("b")).isTrue();
+
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("a"), handler.capture());
+        verify(remote, never()).sendText(eq("b"), any());
+
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("b"), any());
+    }
+
+    @Test
+    void disconnectsWhenBufferIsFull() throws IOException {
+        chatSession.send("a");
+        chatSession.send("b");
+        chatSession.send("c");
+
+        assertThat(chatSession.send("d")).isFalse();
+
+        ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(reason.capture());
+        assertThat(reason.getValue().getCloseCode()).isEqualTo(CloseReason.CloseCodes.TRY_AGAIN_LATER);
+        assertThat(chatSession.send("e")).isFalse();
+        verify(remote, times(1)).sendText(anyString(), any());
+    }
+
+    @Test
+    void disconnectsWhenSendFails() throws IOException {
+        chatSession.send("a");
+        chatSession.send("b");
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("a"), handler.capture());
+
+        handler.getValue().onResult(new SendResult(new IOException("Broken pipe")));
+
+        verify(session).close(any(CloseReason.class));
+        verify(remote, never()).sendText(eq("b"), any());
+        assertThat(chatSession.send("c")).isFalse();
+    }
+}
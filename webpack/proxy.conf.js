@@ -7,6 +7,13 @@ function setupProxy({ tls }) {
       secure: false,
       changeOrigin: tls,
     },
+    {
+      context: ['/websocket'],
+      target: `ws${tls ? 's' : ''}://localhost:8080`,
+      ws: true,
+      secure: false,
+      changeOrigin: tls,
+    },
   ];
 }
 